@@ -51,6 +51,7 @@ import net.visualillusionsent.vibot.commands.UnignoreUserCommand;
 import net.visualillusionsent.vibot.commands.VersionCheckCommand;
 import net.visualillusionsent.vibot.io.exception.VIBotException;
 import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.Membership;
 import net.visualillusionsent.vibot.io.irc.User;
 import net.visualillusionsent.vibot.io.logging.BotLogMan;
 
@@ -176,11 +177,11 @@ public final class CommandParser {
             BaseCommand cmd = getInstance().getCommand(args[0]);
             if (cmd != null) {
                 try {
-                    if (cmd.requiresVoice() && !(user.hasVoice() || user.isOp() || user.isBotOwner() || user.isConsole())) {
+                    if (cmd.requiresVoice() && !(user.hasStatus(channel, Membership.AT_LEAST_VOICE) || user.isBotOwner() || user.isConsole())) {
                         user.sendNotice("You do not have permission to use that command!");
                         return false;
                     }
-                    if (cmd.requiresOp() && !(user.isBotOwner() || user.isOp() || user.isConsole())) {
+                    if (cmd.requiresOp() && !(user.isBotOwner() || user.hasStatus(channel, Membership.AT_LEAST_OP) || user.isConsole())) {
                         user.sendNotice("You do not have permission to use that command!");
                         return false;
                     }
@@ -242,10 +243,10 @@ public final class CommandParser {
                     triggered.add(cmd);
                 }
 
-                if (cmd.requiresVoice() && !(user.hasVoice() || user.isOp() || user.isBotOwner() || user.isConsole())) {
+                if (cmd.requiresVoice() && !(user.hasStatus(channel, Membership.AT_LEAST_VOICE) || user.isBotOwner() || user.isConsole())) {
                     continue;
                 }
-                if (cmd.requiresOp() && !(user.isBotOwner() || user.isOp() || user.isConsole())) {
+                if (cmd.requiresOp() && !(user.isBotOwner() || user.hasStatus(channel, Membership.AT_LEAST_OP) || user.isConsole())) {
                     continue;
                 }
                 if (cmd.requiresOwner() && !(user.isBotOwner() || user.isConsole())) {
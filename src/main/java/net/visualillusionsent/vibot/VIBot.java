@@ -26,14 +26,13 @@
  */
 package net.visualillusionsent.vibot;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.net.Socket;
 import java.net.URISyntaxException;
 import java.security.CodeSource;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -45,8 +44,9 @@ import net.visualillusionsent.utils.VersionChecker;
 import net.visualillusionsent.vibot.api.plugin.BotPlugin;
 import net.visualillusionsent.vibot.api.plugin.BotPluginLoader;
 import net.visualillusionsent.vibot.io.ConsoleCommandReceiver;
-import net.visualillusionsent.vibot.io.IdentServer;
+import net.visualillusionsent.vibot.io.ReconnectionThread;
 import net.visualillusionsent.vibot.io.configuration.BotConfig;
+import net.visualillusionsent.vibot.io.configuration.NetworkConfig;
 import net.visualillusionsent.vibot.io.exception.IRCException;
 import net.visualillusionsent.vibot.io.exception.NickAlreadyInUseException;
 import net.visualillusionsent.vibot.io.exception.VIBotException;
@@ -75,14 +75,14 @@ public final class VIBot {
     private final String real_name;
 
     /**
-     * The current nick for the {@code VIBot}
+     * The {@link IRCConnection} of the default network
      */
-    private String nick;
+    private IRCConnection irc_conn;
 
     /**
-     * The {@link IRCConnection} instance
+     * The {@link IRCConnection}s for all networks, keyed by network name
      */
-    private IRCConnection irc_conn;
+    private volatile Map<String, IRCConnection> connections = Collections.emptyMap();
 
     /**
      * {@code VIBot} Version as Major.Minor.Build or UNDEFINED if the Manifest was missing
@@ -144,12 +144,12 @@ public final class VIBot {
      * this method will still return the old nick until confirmation
      * of the nick change is received from the server.
      * <p>
-     * The nick returned by this method is maintained only by the {@code VIBot} class and is guaranteed to be correct in the context of the IRC server.
+     * The nick returned by this method is the nick on the default network, use {@link IRCConnection#getNick()} for the nick on other networks.
      * 
      * @return The current nick of the {@code VIBot}.
      */
     public static final String getBotNick() {
-        return instance.nick;
+        return instance.getNick();
     }
 
     /**
@@ -158,45 +158,44 @@ public final class VIBot {
      * this method will still return the old nick until confirmation
      * of the nick change is received from the server.
      * <p>
-     * The nick returned by this method is maintained only by the {@code VIBot} class and is guaranteed to be correct in the context of the IRC server.
+     * The nick returned by this method is the nick on the default network, use {@link IRCConnection#getNick()} for the nick on other networks.
      * 
      * @return The current nick of the {@code VIBot}.
      */
     public final String getNick() {
-        return nick;
+        if (irc_conn == null) {
+            return BotConfig.getBotName();
+        }
+        return irc_conn.getNick();
     }
 
     /**
-     * Sets the internal nick of the bot. This is only to be called by the {@link IRCConnection} class in response to notification of nick changes that apply to us.
+     * Gets the {@link IRCConnection} for a network
      * 
-     * @param nick
-     *            The new nick.
-     * @throws SecurityException
-     *             if something calls this method other than the {@link IRCConnection} instance created within {@code VIBot}
+     * @param network
+     *            the name of the network
+     * @return the {@link IRCConnection} if found; {@code null} otherwise
      */
-    public final void setNick(String nick, IRCConnection irc_conn) {
-        if (irc_conn == null || irc_conn != this.irc_conn) {
-            throw new SecurityException("setNick should only be called from within IRCConnection");
-        }
-        this.nick = nick;
+    public static final IRCConnection getConnection(String network) {
+        return instance.connections.get(network);
     }
 
     /**
-     * Attempt to change the current nick (nickname) of the bot when it is
-     * connected to an IRC server. After confirmation of a successful nick
-     * change, the getNick method will return the new nick.
+     * Gets the {@link IRCConnection} of the default network
      * 
-     * @param newNick
-     *            The new nick to use.
+     * @return the default {@link IRCConnection}
      */
-    public static final void changeBotNick(String newNick) {
-        if (newNick == null) {
-            throw new NullPointerException("Nick cannot be null");
-        }
-        else if (newNick.trim().isEmpty()) {
-            throw new IllegalArgumentException("Nick cannot be empty");
-        }
-        instance.changeNick(newNick);
+    public static final IRCConnection getDefaultConnection() {
+        return instance.irc_conn;
+    }
+
+    /**
+     * Gets the {@link IRCConnection}s for all networks, the default network first
+     * 
+     * @return an unmodifiable {@link Collection} of {@link IRCConnection}s
+     */
+    public static final Collection<IRCConnection> getConnections() {
+        return instance.connections.values();
     }
 
     /**
@@ -207,8 +206,8 @@ public final class VIBot {
      * @param newNick
      *            The new nick to use.
      */
-    private final void changeNick(String newNick) {
-        irc_conn.sendRawLine("NICK ".concat(newNick));
+    public static final void changeBotNick(String newNick) {
+        instance.irc_conn.changeNick(newNick);
     }
 
     /**
@@ -231,33 +230,7 @@ public final class VIBot {
      * </pre>
      */
     public static final void identify() {
-        instance.identify(BotConfig.getNickServPassword());
-    }
-
-    /**
-     * Identify the bot with NickServ, supplying the appropriate password. Some
-     * IRC Networks (such as freenode) require users to <i>register</i> and
-     * <i>identify</i> with NickServ before they are able to send private
-     * messages to other users, thus reducing the amount of spam. If you are
-     * using an IRC network where this kind of policy is enforced, you will need
-     * to make your bot <i>identify</i> itself to NickServ before you can send
-     * private messages. Assuming you have already registered your bot's nick
-     * with NickServ, this method can be used to <i>identify</i> with the
-     * supplied password. It usually makes sense to identify with NickServ
-     * immediately after connecting to a server.
-     * <p>
-     * This method issues a raw NICKSERV command to the server, and is therefore safer than the alternative approach of sending a private message to NickServ. The latter approach is considered dangerous, as it may cause you to inadvertently transmit your password to an untrusted party if you connect to a network which does not run a NickServ service and where the untrusted party has assumed the nick "NickServ". However, if your IRC network is only compatible with the private message approach,
-     * you may typically identify like so:
-     * 
-     * <pre>
-     * sendMessage(&quot;NickServ&quot;, &quot;identify PASSWORD&quot;);
-     * </pre>
-     * 
-     * @param password
-     *            The password which will be used to identify with NickServ.
-     */
-    private final void identify(String password) {
-        irc_conn.sendRawLine("NICKSERV IDENTIFY ".concat(password));
+        instance.irc_conn.identify();
     }
 
     /**
@@ -379,13 +352,7 @@ public final class VIBot {
      *            The name of the channel to join (eg "#vi_irc").
      */
     public final void join(String channel) {
-        if (channel == null) {
-            throw new NullPointerException("Channel cannot be null");
-        }
-        else if (!channel.startsWith("#")) {
-            throw new IllegalArgumentException("Channel must start with #");
-        }
-        irc_conn.sendRawLine("JOIN ".concat(channel));
+        irc_conn.join(channel);
     }
 
     /**
@@ -416,7 +383,7 @@ public final class VIBot {
      *            The name of the channel to leave.
      */
     public final void partChannel(String channel) {
-        irc_conn.sendRawLine("PART ".concat(channel));
+        irc_conn.part(channel, null);
     }
 
     /**
@@ -428,11 +395,24 @@ public final class VIBot {
      *            The reason for leaving.
      */
     public final void part(String channel, String reason) {
-        irc_conn.sendRawLine("PART ".concat(channel).concat(" :").concat(reason));
+        irc_conn.part(channel, reason);
     }
 
+    /**
+     * Sends an invitation to join a channel, on the network the {@link Channel} is on.
+     * 
+     * @param channel
+     *            The channel you are inviting the user to join.
+     * @param nick
+     *            The nick of the user to invite
+     */
     public static final void inviteUser(Channel channel, String nick) {
-        instance.sendInvite(channel, nick);
+        if (channel.getConnection() != null) {
+            channel.getConnection().sendInvite(channel, nick);
+        }
+        else {
+            instance.sendInvite(channel, nick);
+        }
     }
 
     /**
@@ -446,11 +426,11 @@ public final class VIBot {
      *            The nick of the user to invite
      */
     public final void sendInvite(Channel channel, String nick) {
-        irc_conn.sendRawLine("INVITE ".concat(nick).concat(" :").concat(channel.getName()));
+        irc_conn.sendInvite(channel, nick);
     }
 
     /**
-     * Reconnects to the IRC server that we were previously connected to. If
+     * Reconnects to the IRC server of the default network that we were previously connected to. If
      * necessary, the appropriate port number and password will be used. This
      * method will throw an IrcException if we have never connected to an IRC
      * server previously.
@@ -464,11 +444,11 @@ public final class VIBot {
      * @throws VIBotException
      */
     public final synchronized void reconnect() throws IOException, IRCException, NickAlreadyInUseException, VIBotException {
-        if (isConnected()) {
+        if (irc_conn.isConnected()) {
             return;
         }
 
-        instance.irc_conn.reconnect();
+        irc_conn.reconnect();
     }
 
     /**
@@ -489,7 +469,7 @@ public final class VIBot {
      *            The reason for quitting the server.
      */
     public final void quitServer(String reason) {
-        irc_conn.sendRawLine("QUIT :".concat(reason));
+        irc_conn.quitServer(reason);
     }
 
     /**
@@ -523,14 +503,22 @@ public final class VIBot {
     }
 
     /**
-     * Returns whether or not the VIBot is currently connected to a server. The
+     * Returns whether or not the VIBot is currently connected to any server. The
      * result of this method should only act as a rough guide, as the result may
      * not be valid by the time you act upon it.
      * 
      * @return True if and only if the VIBot is currently connected to a server.
      */
     public final static synchronized boolean isConnected() {
-        return instance != null && instance.irc_conn != null && instance.irc_conn.isConnected();
+        if (instance == null) {
+            return false;
+        }
+        for (IRCConnection conn : instance.connections.values()) {
+            if (conn.isConnected()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -546,15 +534,12 @@ public final class VIBot {
         BotPluginLoader.disableAllBotPlugins(instance);
         BotLogMan.warning("Killing bot...");
         if (instance != null) {
-            if (isConnected()) {
-                if (quitMessage != null) {
-                    instance.quitServer(quitMessage);
-                }
-                else if (BotConfig.getQuitMessage() != null) {
-                    instance.quitServer(BotConfig.getQuitMessage());
-                }
-                else {
-                    instance.quitServer();
+            if (quitMessage == null) {
+                quitMessage = BotConfig.getQuitMessage() != null ? BotConfig.getQuitMessage() : "Disconnecting...";
+            }
+            for (IRCConnection conn : instance.connections.values()) {
+                if (conn.isConnected()) {
+                    conn.quitServer(quitMessage);
                 }
             }
             instance.dispose();
@@ -573,10 +558,12 @@ public final class VIBot {
      * Disposes of all thread resources used by this VIBot.
      */
     public synchronized void dispose() {
-        try {
-            irc_conn.dispose();
+        for (IRCConnection conn : connections.values()) {
+            try {
+                conn.dispose();
+            }
+            catch (Exception e) {}
         }
-        catch (Exception e) {}
     }
 
     /**
@@ -725,25 +712,23 @@ public final class VIBot {
             new ConsoleCommandReceiver().start();
 
             //instance = new VIBot();
-            if (BotConfig.useIdentServer()) {
+            LinkedHashMap<String, IRCConnection> temp = new LinkedHashMap<String, IRCConnection>();
+            for (NetworkConfig network : BotConfig.getNetworks()) {
+                temp.put(network.getName(), new IRCConnection(instance, network));
+            }
+            instance.connections = Collections.unmodifiableMap(temp);
+            instance.irc_conn = temp.get(BotConfig.getDefaultNetwork().getName());
+
+            // Connect to the servers, one that can't be reached is retried without holding up the rest
+            for (IRCConnection conn : temp.values()) {
                 try {
-                    new IdentServer(instance);
+                    conn.connect();
                 }
-                catch (IOException ioe) {
-                    BotLogMan.warning("IdentServer Failed: ", ioe);
+                catch (Exception e) {
+                    BotLogMan.warning("Failed to connect to network: ".concat(conn.getNetworkName()), e);
+                    new ReconnectionThread(conn).start();
                 }
             }
-
-            // Connect to the server.
-            Socket socket = new Socket(BotConfig.getServer(), BotConfig.getServerPort());
-            BotLogMan.info("Connecting to server...");
-
-            //Set the encoding and open socket
-            BufferedReader breader = new BufferedReader(new InputStreamReader(socket.getInputStream(), BotConfig.getEncoding()));
-            BufferedWriter bwriter = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), BotConfig.getEncoding()));
-
-            instance.irc_conn = new IRCConnection(instance, socket, breader, bwriter);
-            instance.irc_conn.connect();
         }
         catch (Exception e) {
             BotLogMan.severe("Unexpected exception caught: ", e);
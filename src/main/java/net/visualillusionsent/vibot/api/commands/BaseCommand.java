@@ -24,6 +24,7 @@ import net.visualillusionsent.vibot.VIBot;
 import net.visualillusionsent.vibot.api.plugin.BotPlugin;
 import net.visualillusionsent.vibot.io.exception.VIBotException;
 import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
 import net.visualillusionsent.vibot.io.irc.User;
 
 /**
@@ -170,6 +171,26 @@ public abstract class BaseCommand {
         return cmd.consoleOnly();
     }
 
+    /**
+     * Gets the {@link IRCConnection} of the network the {@code BaseCommand} was used on<br>
+     * Commands used from the Console act on the default network
+     * 
+     * @param channel
+     *            the {@link Channel} the {@code BaseCommand} was used from
+     * @param user
+     *            the {@link User} using the {@code BaseCommand}
+     * @return the {@link IRCConnection} of the network
+     */
+    protected final IRCConnection getConnection(Channel channel, User user) {
+        if (channel != null && channel.getConnection() != null) {
+            return channel.getConnection();
+        }
+        if (user != null && user.getConnection() != null) {
+            return user.getConnection();
+        }
+        return VIBot.getDefaultConnection();
+    }
+
     /**
      * Gets the {@link BotPlugin} associated with the {@code BaseCommand}
      * 
@@ -19,6 +19,7 @@ package net.visualillusionsent.vibot.api.events;
 
 import net.visualillusionsent.utils.UtilityException;
 import net.visualillusionsent.vibot.api.plugin.BotPlugin;
+import net.visualillusionsent.vibot.io.irc.User;
 import net.visualillusionsent.vibot.io.exception.VIBotException;
 
 /**
@@ -55,6 +56,11 @@ public abstract class BaseEvent {
      */
     private final EventPriority priority;
 
+    /**
+     * The {@link EventFilter} of the {@code BaseEvent}, if any
+     */
+    private final EventFilter filter;
+
     /**
      * Constructs a new {@code BaseEvent}
      * <p>
@@ -67,6 +73,23 @@ public abstract class BaseEvent {
      *            the {@link EventType} of the extending Event class
      */
     public BaseEvent(BotPlugin plugin, EventType type) {
+        this(plugin, type, (EventFilter) null);
+    }
+
+    /**
+     * Constructs a new {@code BaseEvent} that is only called for what its {@link EventFilter} lets through
+     * <p>
+     * This constructor requires the {@link BotPlugin} to have a {@code plugin.cfg} with the {@link EventPriority} set for it's event extensions,<br>
+     * in the form of %EventClassName%.priority=PRIORITY
+     * 
+     * @param plugin
+     *            the {@link BotPlugin} associated with the {@code BaseEvent}
+     * @param type
+     *            the {@link EventType} of the extending Event class
+     * @param filter
+     *            the {@link EventFilter}, or {@code null} to be called for everything
+     */
+    public BaseEvent(BotPlugin plugin, EventType type, EventFilter filter) {
         if (plugin == null) {
             throw new VIBotException("BotPlugin cannot be null");
         }
@@ -75,6 +98,7 @@ public abstract class BaseEvent {
         }
         this.plugin = plugin;
         this.type = type;
+        this.filter = filter;
         try {
             priority = EventPriority.valueOf(plugin.getPluginConfiguration().getString(getClass().getSimpleName().concat(".priority")));
         }
@@ -98,6 +122,22 @@ public abstract class BaseEvent {
      *            the {@link EventType} of the extending Event class
      */
     public BaseEvent(BotPlugin plugin, EventPriority priority, EventType type) {
+        this(plugin, priority, type, null);
+    }
+
+    /**
+     * Constructs a new {@code BaseEvent} that is only called for what its {@link EventFilter} lets through
+     * 
+     * @param plugin
+     *            the {@link BotPlugin} associated with the BaseEvent
+     * @param priority
+     *            the {@link EventPriority} of the event
+     * @param type
+     *            the {@link EventType} of the extending Event class
+     * @param filter
+     *            the {@link EventFilter}, or {@code null} to be called for everything
+     */
+    public BaseEvent(BotPlugin plugin, EventPriority priority, EventType type, EventFilter filter) {
         if (plugin == null) {
             throw new VIBotException("BotPlugin cannot be null");
         }
@@ -109,7 +149,8 @@ public abstract class BaseEvent {
         }
         this.plugin = plugin;
         this.type = type;
-        this.priority = EventPriority.LOW;
+        this.priority = priority;
+        this.filter = filter;
         EventManager.addEvent(this);
     }
 
@@ -140,6 +181,28 @@ public abstract class BaseEvent {
         return priority;
     }
 
+    /**
+     * Gets the {@link EventFilter} of the {@code BaseEvent}
+     * 
+     * @return the {@link EventFilter}, or {@code null} if called for everything
+     */
+    public EventFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Checks if the {@link EventFilter} lets a message through, not counting where it was sent
+     * 
+     * @param user
+     *            the {@link User} that sent it
+     * @param message
+     *            the message
+     * @return {@code true} if there is no {@link EventFilter} or it lets the message through
+     */
+    final boolean accepts(User user, String message) {
+        return filter == null || filter.accepts(user, message);
+    }
+
     /**
      * String representation as BaseEvent[ClassName=%s Type=%s] format
      * 
@@ -0,0 +1,95 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events;
+
+import net.visualillusionsent.vibot.VIBot;
+import net.visualillusionsent.vibot.api.plugin.BotPlugin;
+import net.visualillusionsent.vibot.io.irc.CaseMapping;
+import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Bot Event
+ * <p>
+ * The base of the events posted to {@link Subscribe} methods<br>
+ * An event is just an object holding what happened; a {@link BotPlugin} gets it by having a method that takes it as its one parameter,
+ * marked {@link Subscribe}, and registering the object with {@link EventManager#registerSubscriber(BotPlugin, Object)}. A method taking a
+ * {@code BotEvent} type gets every event of that type and of its subclasses, so adding a new kind of event is just adding a class and
+ * {@link EventManager#post(BotEvent) posting} it.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public abstract class BotEvent {
+
+    /**
+     * Gets what the event is about, for delivering to {@link BotPlugin}s that have asked for asynchronous delivery. Events about the same
+     * thing are delivered in the order they were posted.
+     * <p>
+     * By default all events of the same class are delivered in order, override this to let events about different things (ie: different
+     * channels) be delivered at the same time. Keys are told apart by {@link Object#hashCode()}, so a key's hash must not change.
+     * 
+     * @return what the event is about
+     */
+    protected Object getOrderingKey() {
+        return getClass();
+    }
+
+    /**
+     * Gets the ordering key for what a {@link User} sends to the {@link VIBot} directly
+     * <p>
+     * Keyed on the network and the nick rather than the {@link User}, as a new {@link User} is made for each line from someone not in any
+     * {@link Channel} with the {@link VIBot}.
+     * 
+     * @param user
+     *            the {@link User}
+     * @return the ordering key
+     */
+    protected static final Object userKey(User user) {
+        return new UserKey(user.getConnection(), user.getNick());
+    }
+
+    /**
+     * A network and a nick, without regard to the case of the nick
+     */
+    private static final class UserKey {
+        private final IRCConnection connection;
+        private final String nick;
+
+        private UserKey(IRCConnection connection, String nick) {
+            this.connection = connection;
+            this.nick = (connection != null ? connection.getISupport().getCaseMapping() : CaseMapping.RFC1459).toLowerCase(nick);
+        }
+
+        @Override
+        public final boolean equals(Object obj) {
+            if (!(obj instanceof UserKey)) {
+                return false;
+            }
+            UserKey other = (UserKey) obj;
+            return connection == other.connection && nick.equals(other.nick);
+        }
+
+        @Override
+        public final int hashCode() {
+            return 31 * System.identityHashCode(connection) + nick.hashCode();
+        }
+    }
+}
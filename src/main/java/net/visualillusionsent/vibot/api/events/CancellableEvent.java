@@ -0,0 +1,74 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events;
+
+import net.visualillusionsent.vibot.VIBot;
+import net.visualillusionsent.vibot.api.plugin.BotPlugin;
+
+/**
+ * Cancellable Event
+ * <p>
+ * A {@link BotEvent} that a {@link Subscribe} method can consume, stopping it there: no lower priority {@link Subscribe} method gets it
+ * and the {@link VIBot} skips whatever it would have done with it next (ie: a cancelled channel message is not parsed for commands, given
+ * to {@link ChannelMessageEvent}s, or logged).
+ * <p>
+ * Only a {@link BotPlugin} whose events are delivered on the thread that posts them can cancel in time, so a {@link BotPlugin} meant to
+ * moderate should not set events.async. Asynchronous {@link BotPlugin}s are queued the event once every other {@link Subscribe} method
+ * has had it, and only if none of higher priority cancelled it; by then the outcome is settled and cancelling has no effect.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public abstract class CancellableEvent extends BotEvent {
+
+    /**
+     * Whether the event has been consumed
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Whether the outcome has been settled, after which {@link #cancel()} does nothing
+     */
+    private volatile boolean sealed;
+
+    /**
+     * Consumes the event, so nothing after gets it
+     */
+    public final void cancel() {
+        if (!sealed) {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Settles the outcome, called by the {@link EventManager} before the event is handed to other threads
+     */
+    final void seal() {
+        sealed = true;
+    }
+
+    /**
+     * Checks if the event has been consumed
+     * 
+     * @return {@code true} if cancelled; {@code false} otherwise
+     */
+    public final boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,101 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import net.visualillusionsent.vibot.io.irc.Channel;
+
+/**
+ * Channel Index<br>
+ * The registered {@link ChannelMessageEvent}s that can want a message to each channel, so dispatching a message only goes through those.
+ * <p>
+ * Built again from scratch each time a {@link ChannelMessageEvent} is registered or unregistered, and never changed after, so it can be
+ * read without locking. Each channel named in some {@link EventFilter} gets its own array of the events filtered to it along with those not
+ * filtered by channel, still in order of {@link EventPriority}; every other channel shares the array of those not filtered by channel.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+final class ChannelIndex {
+
+    /**
+     * The {@code ChannelIndex} of no events
+     */
+    static final ChannelIndex EMPTY = new ChannelIndex(new BaseEvent[0], new HashMap<String, BaseEvent[]>());
+
+    private final BaseEvent[] unfiltered;
+    private final HashMap<String, BaseEvent[]> byChannel;
+
+    private ChannelIndex(BaseEvent[] unfiltered, HashMap<String, BaseEvent[]> byChannel) {
+        this.unfiltered = unfiltered;
+        this.byChannel = byChannel;
+    }
+
+    /**
+     * Builds the {@code ChannelIndex} of some events
+     * 
+     * @param events
+     *            the {@link BaseEvent}s, in order of {@link EventPriority}
+     * @return the {@code ChannelIndex}
+     */
+    static final ChannelIndex build(BaseEvent[] events) {
+        List<BaseEvent> unfiltered = new ArrayList<BaseEvent>(events.length);
+        HashMap<String, BaseEvent[]> byChannel = new HashMap<String, BaseEvent[]>();
+        for (BaseEvent event : events) {
+            EventFilter filter = event.getFilter();
+            if (filter == null || filter.getChannels() == null) {
+                unfiltered.add(event);
+            }
+            else {
+                for (String channel : filter.getChannels()) {
+                    byChannel.put(channel, null);
+                }
+            }
+        }
+        for (String channel : byChannel.keySet()) {
+            List<BaseEvent> wanted = new ArrayList<BaseEvent>();
+            for (BaseEvent event : events) {
+                EventFilter filter = event.getFilter();
+                if (filter == null || filter.getChannels() == null || filter.getChannels().contains(channel)) {
+                    wanted.add(event);
+                }
+            }
+            byChannel.put(channel, wanted.toArray(new BaseEvent[wanted.size()]));
+        }
+        return new ChannelIndex(unfiltered.toArray(new BaseEvent[unfiltered.size()]), byChannel);
+    }
+
+    /**
+     * Gets the events that can want a message to a {@link Channel}
+     * 
+     * @param channel
+     *            the {@link Channel}
+     * @return the {@link BaseEvent}s, in order of {@link EventPriority}, which must not be changed
+     */
+    final BaseEvent[] get(Channel channel) {
+        if (byChannel.isEmpty()) {
+            return unfiltered;
+        }
+        BaseEvent[] events = byChannel.get(EventFilter.lowerCase(channel.getName()));
+        return events != null ? events : unfiltered;
+    }
+}
@@ -56,6 +56,33 @@ public abstract class ChannelMessageEvent extends BaseEvent {
         super(plugin, priority, EventType.CHANNEL_MESSAGE);
     }
 
+    /**
+     * Constructs a new {@code ChannelMessageEvent} that is only called for messages its {@link EventFilter} lets through<br>
+     * <b>NOTE:</b>With this constructor, {@link EventPriority} will be read from the plugin.cfg file
+     * 
+     * @param plugin
+     *            the {@link BotPlugin} associated with this event
+     * @param filter
+     *            the {@link EventFilter}
+     */
+    public ChannelMessageEvent(BotPlugin plugin, EventFilter filter) {
+        super(plugin, EventType.CHANNEL_MESSAGE, filter);
+    }
+
+    /**
+     * Constructs a new {@code ChannelMessageEvent} that is only called for messages its {@link EventFilter} lets through
+     * 
+     * @param plugin
+     *            the {@link BotPlugin} associated with this event
+     * @param priority
+     *            the {@link EventPriority} for the event
+     * @param filter
+     *            the {@link EventFilter}
+     */
+    public ChannelMessageEvent(BotPlugin plugin, EventPriority priority, EventFilter filter) {
+        super(plugin, priority, EventType.CHANNEL_MESSAGE, filter);
+    }
+
     /**
      * Event executor<br>
      * This is where the code should go for extending classes to handle the {@code ChannelMessageEvent}
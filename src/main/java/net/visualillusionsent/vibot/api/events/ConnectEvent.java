@@ -19,12 +19,13 @@ package net.visualillusionsent.vibot.api.events;
 
 import net.visualillusionsent.vibot.VIBot;
 import net.visualillusionsent.vibot.api.plugin.BotPlugin;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
 
 /**
  * Connect Event handler
  * <p>
  * Extending this class will allow a {@link BotPlugin}<br>
- * to listen to when a the {@link VIBot} connects to the IRC Server
+ * to listen to when a the {@link VIBot} connects to an IRC Server
  * 
  * @since 1.0
  * @version 1.0
@@ -61,4 +62,15 @@ public abstract class ConnectEvent extends BaseEvent {
      */
     public abstract void execute();
 
+    /**
+     * Event executor for a specific network<br>
+     * Extending classes that care which network was connected to should override this method, by default it calls {@link #execute()}
+     * 
+     * @param irc_conn
+     *            the {@link IRCConnection} that has connected
+     */
+    public void execute(IRCConnection irc_conn) {
+        execute();
+    }
+
 }
@@ -0,0 +1,185 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import net.visualillusionsent.vibot.io.irc.CaseMapping;
+import net.visualillusionsent.vibot.io.irc.HostMask;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Event Filter<br>
+ * Says which messages a {@link ChannelMessageEvent} or {@link PrivateMessageEvent} wants, so the {@link EventManager} only calls it for
+ * those instead of it being called for every message and throwing most away itself.
+ * <p>
+ * Each part is optional and a message has to pass all that are given. The channels only apply to {@link ChannelMessageEvent}s, which the
+ * {@link EventManager} keeps indexed by channel, and the mask, prefix and pattern are compiled once here rather than for each message.<br>
+ * Example:<br>
+ * <code><pre>
+ * new MyChannelMessageEvent(this, EventFilter.ANY.inChannels("#help", "#support").withPrefix("?"));
+ * </code></pre>
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class EventFilter {
+
+    /**
+     * The {@code EventFilter} that lets everything through, to build others from
+     */
+    public static final EventFilter ANY = new EventFilter(null, null, null, null);
+
+    private final Set<String> channels;
+    private final HostMask mask;
+    private final String prefix;
+    private final Pattern pattern;
+
+    private EventFilter(Set<String> channels, HostMask mask, String prefix, Pattern pattern) {
+        this.channels = channels;
+        this.mask = mask;
+        this.prefix = prefix;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Makes a copy of this {@code EventFilter} that only lets through messages to some channels
+     * 
+     * @param channels
+     *            the names of the channels
+     * @return the new {@code EventFilter}
+     */
+    public final EventFilter inChannels(String... channels) {
+        Set<String> names = new HashSet<String>(channels.length * 2);
+        for (String channel : channels) {
+            names.add(lowerCase(channel));
+        }
+        return new EventFilter(Collections.unmodifiableSet(names), mask, prefix, pattern);
+    }
+
+    /**
+     * Makes a copy of this {@code EventFilter} that only lets through messages from {@link User}s matching a mask
+     * 
+     * @param mask
+     *            the nick or host mask (ie: *!*@*.example.com)
+     * @return the new {@code EventFilter}
+     */
+    public final EventFilter from(String mask) {
+        return new EventFilter(channels, new HostMask(mask, CaseMapping.RFC1459), prefix, pattern);
+    }
+
+    /**
+     * Makes a copy of this {@code EventFilter} that only lets through messages starting with a prefix
+     * 
+     * @param prefix
+     *            the prefix (ie: !)
+     * @return the new {@code EventFilter}
+     */
+    public final EventFilter withPrefix(String prefix) {
+        return new EventFilter(channels, mask, prefix, pattern);
+    }
+
+    /**
+     * Makes a copy of this {@code EventFilter} that only lets through messages containing a match for a regular expression
+     * 
+     * @param regex
+     *            the regular expression
+     * @return the new {@code EventFilter}
+     * @throws java.util.regex.PatternSyntaxException
+     *             if the regular expression is not valid
+     */
+    public final EventFilter matching(String regex) {
+        return new EventFilter(channels, mask, prefix, Pattern.compile(regex));
+    }
+
+    /**
+     * Gets the names of the channels let through, in lower case
+     * 
+     * @return an unmodifiable {@link Set} of channel names, or {@code null} if any channel is let through
+     */
+    public final Set<String> getChannels() {
+        return channels;
+    }
+
+    /**
+     * Gets the mask {@link User}s have to match
+     * 
+     * @return the {@link HostMask}, or {@code null} if any {@link User} is let through
+     */
+    public final HostMask getMask() {
+        return mask;
+    }
+
+    /**
+     * Gets the prefix messages have to start with
+     * 
+     * @return the prefix, or {@code null} if there is none
+     */
+    public final String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Gets the {@link Pattern} messages have to contain a match for
+     * 
+     * @return the {@link Pattern}, or {@code null} if there is none
+     */
+    public final Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Checks if a message is let through, not counting where it was sent
+     * 
+     * @param user
+     *            the {@link User} that sent it
+     * @param message
+     *            the message
+     * @return {@code true} if let through
+     */
+    final boolean accepts(User user, String message) {
+        if (prefix != null && !message.startsWith(prefix)) {
+            return false;
+        }
+        if (mask != null && !mask.matches(user.getHostMask())) {
+            return false;
+        }
+        return pattern == null || pattern.matcher(message).find();
+    }
+
+    /**
+     * Lower cases a channel name the way the {@link EventManager}'s index does
+     * 
+     * @param channel
+     *            the channel name
+     * @return the name in lower case
+     */
+    static final String lowerCase(String channel) {
+        // RFC1459 folds the most characters, so it never tells apart two names a network would think the same
+        return CaseMapping.RFC1459.toLowerCase(channel);
+    }
+
+    @Override
+    public final String toString() {
+        return String.format("EventFilter[Channels=%s Mask=%s Prefix=%s Pattern=%s]", channels, mask, prefix, pattern);
+    }
+}
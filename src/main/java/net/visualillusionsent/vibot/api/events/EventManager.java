@@ -17,15 +17,24 @@
  */
 package net.visualillusionsent.vibot.api.events;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import net.visualillusionsent.vibot.api.plugin.BotPlugin;
 import net.visualillusionsent.vibot.io.dcc.DccChat;
 import net.visualillusionsent.vibot.io.dcc.DccFileTransfer;
+import net.visualillusionsent.vibot.io.exception.VIBotException;
 import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.CommandNames;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
+import net.visualillusionsent.vibot.io.irc.IrcMessage;
+import net.visualillusionsent.vibot.io.irc.Membership;
+import net.visualillusionsent.vibot.io.irc.ModeChanges;
 import net.visualillusionsent.vibot.io.irc.User;
 import net.visualillusionsent.vibot.io.logging.BotLogMan;
 
@@ -45,9 +54,62 @@ public class EventManager {
     private final EventPriorityComparator epc = new EventPriorityComparator();
 
     /**
-     * The map of registered events
+     * The registered {@link BaseEvent}s, indexed by {@link EventType} ordinal, each sorted by {@link EventPriority}
+     * <p>
+     * The arrays are never changed once set, registering or unregistering sets a new one, so dispatching just walks whatever array is there
+     * without holding any lock and events can be dispatched from any number of threads at once.
      */
-    private final HashMap<EventType, List<BaseEvent>> registeredEvents;
+    private final AtomicReferenceArray<BaseEvent[]> registeredEvents;
+
+    /**
+     * The registered {@link ChannelMessageEvent}s indexed by the channels their {@link EventFilter}s let through
+     */
+    private volatile ChannelIndex channelMessageIndex = ChannelIndex.EMPTY;
+
+    /**
+     * The registered {@link Subscribe} methods
+     */
+    private volatile SubscriberTable subscribers = SubscriberTable.EMPTY;
+
+    /**
+     * Orders {@link Subscriber}s by {@link EventPriority}
+     */
+    private final Comparator<Subscriber> subscriberOrder = new Comparator<Subscriber>() {
+        @Override
+        public int compare(Subscriber a, Subscriber b) {
+            return a.getPriority().compareTo(b.getPriority());
+        }
+    };
+
+    /**
+     * Held while replacing a registered {@link BaseEvent}s array, so two changes at once don't lose one
+     */
+    private final Object registerLock = new Object();
+
+    /**
+     * The {@link PluginExecutor}s of the {@link BotPlugin}s that have asked for their events to be delivered asynchronously
+     */
+    private final ConcurrentHashMap<BotPlugin, PluginExecutor> executors = new ConcurrentHashMap<BotPlugin, PluginExecutor>();
+
+    /**
+     * The array of no {@link BaseEvent}s
+     */
+    private static final BaseEvent[] NO_EVENTS = new BaseEvent[0];
+
+    /**
+     * The registered {@link RawHandler}s for numeric replies, indexed by numeric
+     */
+    private final AtomicReferenceArray<RawHandler[]> numericHandlers = new AtomicReferenceArray<RawHandler[]>(1000);
+
+    /**
+     * The registered {@link RawHandler}s for commands, keyed by command
+     */
+    private final ConcurrentHashMap<String, RawHandler[]> commandHandlers = new ConcurrentHashMap<String, RawHandler[]>();
+
+    /**
+     * The commands there are {@link RawHandler}s for, remade whenever one is added or removed
+     */
+    private volatile CommandNames rawCommands = CommandNames.NONE;
 
     /**
      * The {@code EventManager} instance
@@ -65,9 +127,9 @@ public class EventManager {
         if (instance != null) {
             throw new IllegalStateException("Only one EventManager instance may be created at a time.");
         }
-        registeredEvents = new HashMap<EventType, List<BaseEvent>>();
+        registeredEvents = new AtomicReferenceArray<BaseEvent[]>(EventType.values().length);
         for (EventType type : EventType.values()) {
-            registeredEvents.put(type, new ArrayList<BaseEvent>());
+            registeredEvents.set(type.ordinal(), NO_EVENTS);
         }
     }
 
@@ -88,8 +150,15 @@ public class EventManager {
      *            the {@link BaseEvent} to be added
      */
     private final void add(BaseEvent event) {
-        registeredEvents.get(event.getType()).add(event);
-        Collections.sort(registeredEvents.get(event.getType()), epc);
+        synchronized (registerLock) {
+            createExecutor(event.getPlugin());
+            BaseEvent[] events = getEvents(event.getType());
+            events = Arrays.copyOf(events, events.length + 1);
+            events[events.length - 1] = event;
+            // A stable sort, so events of the same priority stay in the order they were added
+            Arrays.sort(events, epc);
+            setEvents(event.getType(), events);
+        }
     }
 
     /**
@@ -109,7 +178,338 @@ public class EventManager {
      *            the {@link BaseEvent} to be removed
      */
     private final void remove(BaseEvent event) {
-        registeredEvents.get(event.getType()).remove(event);
+        synchronized (registerLock) {
+            BaseEvent[] events = getEvents(event.getType());
+            for (int index = 0; index < events.length; index++) {
+                if (events[index] == event) {
+                    BaseEvent[] remaining = events.length == 1 ? NO_EVENTS : new BaseEvent[events.length - 1];
+                    System.arraycopy(events, 0, remaining, 0, index);
+                    System.arraycopy(events, index + 1, remaining, index, remaining.length - index);
+                    setEvents(event.getType(), remaining);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the registered {@link BaseEvent}s of an {@link EventType}, and any index of them
+     * 
+     * @param type
+     *            the {@link EventType}
+     * @param events
+     *            the {@link BaseEvent}s, in order of {@link EventPriority}
+     */
+    private final void setEvents(EventType type, BaseEvent[] events) {
+        registeredEvents.set(type.ordinal(), events);
+        if (type == EventType.CHANNEL_MESSAGE) {
+            channelMessageIndex = ChannelIndex.build(events);
+        }
+    }
+
+    /**
+     * Registers the {@link Subscribe} methods of an object
+     * 
+     * @param plugin
+     *            the {@link BotPlugin} the object belongs to
+     * @param subscriber
+     *            the object with {@link Subscribe} methods
+     * @throws VIBotException
+     *             if the object has no {@link Subscribe} methods, or one does not take a single {@link BotEvent}
+     */
+    public static final void registerSubscriber(BotPlugin plugin, Object subscriber) {
+        instance.addSubscriber(plugin, subscriber);
+    }
+
+    /**
+     * Registers the {@link Subscribe} methods of an object
+     * 
+     * @param plugin
+     *            the {@link BotPlugin} the object belongs to
+     * @param subscriber
+     *            the object with {@link Subscribe} methods
+     */
+    private final void addSubscriber(BotPlugin plugin, Object subscriber) {
+        if (plugin == null) {
+            throw new VIBotException("BotPlugin cannot be null");
+        }
+        List<Subscriber> found = new ArrayList<Subscriber>();
+        for (Class<?> type = subscriber.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Subscribe.class) && !method.isBridge()) {
+                    found.add(Subscriber.bind(plugin, subscriber, method));
+                }
+            }
+        }
+        if (found.isEmpty()) {
+            throw new VIBotException("No @Subscribe methods in ".concat(subscriber.getClass().getName()));
+        }
+        synchronized (registerLock) {
+            createExecutor(plugin);
+            List<Subscriber> all = new ArrayList<Subscriber>(Arrays.asList(subscribers.getAll()));
+            all.addAll(found);
+            setSubscribers(all);
+        }
+    }
+
+    /**
+     * Unregisters the {@link Subscribe} methods of an object
+     * 
+     * @param subscriber
+     *            the object registered with {@link #registerSubscriber(BotPlugin, Object)}
+     */
+    public static final void unregisterSubscriber(Object subscriber) {
+        instance.removeSubscribers(subscriber, null);
+    }
+
+    /**
+     * Unregisters the {@link Subscribe} methods of an object, or of all of a {@link BotPlugin}'s objects
+     * 
+     * @param subscriber
+     *            the object, or {@code null} for all of the {@link BotPlugin}'s
+     * @param plugin
+     *            the {@link BotPlugin}, or {@code null} for just the object
+     */
+    private final void removeSubscribers(Object subscriber, BotPlugin plugin) {
+        synchronized (registerLock) {
+            List<Subscriber> remaining = new ArrayList<Subscriber>();
+            for (Subscriber registered : subscribers.getAll()) {
+                if (registered.getTarget() != subscriber && registered.getPlugin() != plugin) {
+                    remaining.add(registered);
+                }
+            }
+            setSubscribers(remaining);
+        }
+    }
+
+    /**
+     * Replaces the {@link SubscriberTable} with one of some {@link Subscriber}s
+     * 
+     * @param all
+     *            the {@link Subscriber}s
+     */
+    private final void setSubscribers(List<Subscriber> all) {
+        Subscriber[] sorted = all.toArray(new Subscriber[all.size()]);
+        // A stable sort, so methods of the same priority stay in the order they were registered
+        Arrays.sort(sorted, subscriberOrder);
+        subscribers = new SubscriberTable(sorted);
+    }
+
+    /**
+     * Checks if any {@link Subscribe} method takes a type of {@link BotEvent}, to save making events nobody wants
+     * 
+     * @param type
+     *            the type of {@link BotEvent}
+     * @return {@code true} if something would get it
+     */
+    public static final boolean hasSubscribers(Class<? extends BotEvent> type) {
+        return instance.subscribers.get(type).length > 0;
+    }
+
+    /**
+     * Posts a {@link BotEvent} to the {@link Subscribe} methods that take it, stopping if it is a {@link CancellableEvent} and gets cancelled
+     * 
+     * @param event
+     *            the {@link BotEvent}
+     * @return {@code true} if the event was cancelled; {@code false} otherwise
+     */
+    public static final boolean post(BotEvent event) {
+        return instance.dispatch(event);
+    }
+
+    /**
+     * Dispatches a {@link BotEvent}
+     * <p>
+     * The {@link Subscribe} methods called right away go first, so whether a {@link CancellableEvent} was cancelled is settled before
+     * anything is queued for an asynchronous {@link BotPlugin}. Those then only get it if it had not been cancelled ahead of them.
+     * 
+     * @param event
+     *            the {@link BotEvent}
+     * @return {@code true} if the event was cancelled; {@code false} otherwise
+     */
+    private final boolean dispatch(final BotEvent event) {
+        Subscriber[] wanted = subscribers.get(event.getClass());
+        if (wanted.length == 0) {
+            return false;
+        }
+        CancellableEvent cancellable = event instanceof CancellableEvent ? (CancellableEvent) event : null;
+        int reached = wanted.length;
+        for (int i = 0; i < wanted.length; i++) {
+            if (executors.get(wanted[i].getPlugin()) == null) {
+                invoke(wanted[i], event);
+                if (cancellable != null && cancellable.isCancelled()) {
+                    reached = i;
+                    break;
+                }
+            }
+        }
+        boolean cancelled = reached < wanted.length;
+        if (cancellable != null) {
+            cancellable.seal();
+        }
+
+        Object key = event.getOrderingKey();
+        for (int i = 0; i < reached; i++) {
+            final Subscriber subscriber = wanted[i];
+            PluginExecutor executor = executors.get(subscriber.getPlugin());
+            if (executor != null) {
+                executor.execute(key, new Runnable() {
+                    @Override
+                    public void run() {
+                        invoke(subscriber, event);
+                    }
+                });
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Calls a {@link Subscriber}, logging anything it throws
+     * 
+     * @param subscriber
+     *            the {@link Subscriber}
+     * @param event
+     *            the {@link BotEvent}
+     */
+    private static final void invoke(Subscriber subscriber, BotEvent event) {
+        try {
+            subscriber.invoke(event);
+        }
+        catch (Throwable t) {
+            BotLogMan.warning("Unhandled Exception caught while calling '".concat(subscriber.getName()).concat("' for Plugin: ").concat(subscriber.getPlugin().getName()), t);
+        }
+    }
+
+    /**
+     * Makes the {@link PluginExecutor} of a {@link BotPlugin} if it wants one and doesn't have one yet
+     * 
+     * @param plugin
+     *            the {@link BotPlugin}
+     */
+    private final void createExecutor(BotPlugin plugin) {
+        if (!executors.containsKey(plugin)) {
+            PluginExecutor executor = PluginExecutor.create(plugin);
+            if (executor != null) {
+                executors.put(plugin, executor);
+            }
+        }
+    }
+
+    /**
+     * Delivers an event to a {@link BotPlugin}, on its {@link PluginExecutor} if it has one, otherwise right away on the thread that fired
+     * it
+     * 
+     * @param plugin
+     *            the {@link BotPlugin}
+     * @param key
+     *            what the event is about, events about the same thing are delivered in order
+     * @param delivery
+     *            the call to the {@link BotPlugin}'s listener
+     */
+    private final void deliver(BotPlugin plugin, Object key, Runnable delivery) {
+        PluginExecutor executor = executors.get(plugin);
+        if (executor != null) {
+            executor.execute(key, delivery);
+        }
+        else {
+            delivery.run();
+        }
+    }
+
+    /**
+     * Gets the registered {@link BaseEvent}s of an {@link EventType}, which must not be changed
+     * 
+     * @param type
+     *            the {@link EventType}
+     * @return the {@link BaseEvent}s, in order of {@link EventPriority}
+     */
+    private final BaseEvent[] getEvents(EventType type) {
+        return registeredEvents.get(type.ordinal());
+    }
+
+    /**
+     * Adds a new {@link RawHandler}
+     * 
+     * @param handler
+     *            the {@link RawHandler} to be added
+     */
+    static final void addRawHandler(RawHandler handler) {
+        instance.addRaw(handler);
+    }
+
+    /**
+     * Adds a new {@link RawHandler}
+     * 
+     * @param handler
+     *            the {@link RawHandler} to be added
+     */
+    private final void addRaw(RawHandler handler) {
+        synchronized (commandHandlers) {
+            RawHandler[] handlers = getRawHandlers(handler);
+            if (handlers == null) {
+                handlers = new RawHandler[] { handler };
+            }
+            else {
+                handlers = Arrays.copyOf(handlers, handlers.length + 1);
+                handlers[handlers.length - 1] = handler;
+            }
+            setRawHandlers(handler, handlers);
+        }
+    }
+
+    /**
+     * Removes a {@link RawHandler}
+     * 
+     * @param handler
+     *            the {@link RawHandler} to be removed
+     */
+    static final void removeRawHandler(RawHandler handler) {
+        instance.removeRaw(handler);
+    }
+
+    /**
+     * Removes a {@link RawHandler}
+     * 
+     * @param handler
+     *            the {@link RawHandler} to be removed
+     */
+    private final void removeRaw(RawHandler handler) {
+        synchronized (commandHandlers) {
+            RawHandler[] handlers = getRawHandlers(handler);
+            if (handlers == null) {
+                return;
+            }
+            List<RawHandler> remaining = new ArrayList<RawHandler>(Arrays.asList(handlers));
+            if (remaining.remove(handler)) {
+                setRawHandlers(handler, remaining.isEmpty() ? null : remaining.toArray(new RawHandler[remaining.size()]));
+            }
+        }
+    }
+
+    /**
+     * Gets the {@link RawHandler}s registered for the same command or numeric as a {@link RawHandler}
+     */
+    private final RawHandler[] getRawHandlers(RawHandler handler) {
+        return handler.getCommand() == null ? numericHandlers.get(handler.getNumeric()) : commandHandlers.get(handler.getCommand());
+    }
+
+    /**
+     * Replaces the {@link RawHandler}s registered for the same command or numeric as a {@link RawHandler}
+     */
+    private final void setRawHandlers(RawHandler handler, RawHandler[] handlers) {
+        if (handler.getCommand() == null) {
+            numericHandlers.set(handler.getNumeric(), handlers);
+        }
+        else {
+            if (handlers == null) {
+                commandHandlers.remove(handler.getCommand());
+            }
+            else {
+                commandHandlers.put(handler.getCommand(), handlers);
+            }
+            rawCommands = new CommandNames(commandHandlers.keySet());
+        }
     }
 
     /**
@@ -129,18 +529,77 @@ public class EventManager {
      *            the {@link BotPlugin} to have events removed
      */
     private final void removePluginHooks(BotPlugin plugin) {
-        synchronized (registeredEvents) {
-            List<BaseEvent> tempList = new ArrayList<BaseEvent>();
+        synchronized (registerLock) {
             for (EventType type : EventType.values()) {
-                List<BaseEvent> events = registeredEvents.get(type);
-                for (BaseEvent event : events) {
-                    if (event.getClass().equals(plugin)) {
-                        tempList.add(event);
+                for (BaseEvent event : getEvents(type)) {
+                    if (event.getPlugin() == plugin) {
+                        remove(event);
                     }
                 }
             }
-            for (BaseEvent event : tempList) {
-                removeEvent(event);
+            removeSubscribers(null, plugin);
+            PluginExecutor executor = executors.remove(plugin);
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+        synchronized (commandHandlers) {
+            List<RawHandler> tempList = new ArrayList<RawHandler>();
+            for (int index = 0; index < numericHandlers.length(); index++) {
+                RawHandler[] handlers = numericHandlers.get(index);
+                if (handlers != null) {
+                    tempList.addAll(Arrays.asList(handlers));
+                }
+            }
+            for (RawHandler[] handlers : commandHandlers.values()) {
+                tempList.addAll(Arrays.asList(handlers));
+            }
+            for (RawHandler handler : tempList) {
+                if (handler.getPlugin() == plugin) {
+                    removeRaw(handler);
+                }
+            }
+        }
+    }
+
+    /**
+     * Called for every line read from the server, to call the {@link RawHandler}s registered for its command or numeric
+     * 
+     * @param irc_conn
+     *            the {@link IRCConnection} the line was read from
+     * @param message
+     *            the {@link IrcMessage} holding the line
+     */
+    public static final void activateRawHandlers(IRCConnection irc_conn, IrcMessage message) {
+        instance.dispatchRawHandlers(irc_conn, message);
+    }
+
+    /**
+     * Dispatches to the {@link RawHandler}s
+     * 
+     * @param irc_conn
+     *            the {@link IRCConnection} the line was read from
+     * @param message
+     *            the {@link IrcMessage} holding the line
+     */
+    private final void dispatchRawHandlers(IRCConnection irc_conn, IrcMessage message) {
+        RawHandler[] handlers;
+        if (message.isNumeric()) {
+            handlers = numericHandlers.get(message.getNumeric());
+        }
+        else {
+            String command = message.getCommand(rawCommands);
+            handlers = command != null ? commandHandlers.get(command) : null;
+        }
+        if (handlers == null) {
+            return;
+        }
+        for (RawHandler handler : handlers) {
+            try {
+                handler.execute(irc_conn, message);
+            }
+            catch (Exception e) {
+                BotLogMan.warning("Unhandled Exception caught while calling 'RawHandler' for Plugin: ".concat(handler.getPlugin().getName()), e);
             }
         }
     }
@@ -169,39 +628,54 @@ public class EventManager {
      * @param msg
      *            the message being sent to channel
      */
-    private final void dispatchChannelMessageEvent(Channel channel, User user, String msg) {
-        synchronized (registeredEvents) {
-            for (BaseEvent chanMessageEvent : registeredEvents.get(EventType.CHANNEL_MESSAGE)) {
-                try {
-                    ((ChannelMessageEvent) chanMessageEvent).execute(channel, user, msg);
-                }
-                catch (Exception e) {
-                    BotLogMan.warning("Unhandled Exception caught while calling 'ChannelMessageEvent' for Plugin: ".concat(chanMessageEvent.getPlugin().getName()), e);
-                }
+    private final void dispatchChannelMessageEvent(final Channel channel, final User user, final String msg) {
+        for (final BaseEvent chanMessageEvent : channelMessageIndex.get(channel)) {
+            if (!chanMessageEvent.accepts(user, msg)) {
+                continue;
             }
+            deliver(chanMessageEvent.getPlugin(), channel, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ((ChannelMessageEvent) chanMessageEvent).execute(channel, user, msg);
+                    }
+                    catch (Exception e) {
+                        BotLogMan.warning("Unhandled Exception caught while calling 'ChannelMessageEvent' for Plugin: ".concat(chanMessageEvent.getPlugin().getName()), e);
+                    }
+                }
+            });
         }
     }
 
     /**
      * Called when the {@link ConnectEvent} is activated
+     * 
+     * @param irc_conn
+     *            the {@link IRCConnection} that has connected
      */
-    public static final void activateConnectEvent() {
-        instance.dispatchConnectEvent();
+    public static final void activateConnectEvent(IRCConnection irc_conn) {
+        instance.dispatchConnectEvent(irc_conn);
     }
 
     /**
      * Dispatches the {@link ConnectEvent}
+     * 
+     * @param irc_conn
+     *            the {@link IRCConnection} that has connected
      */
-    private void dispatchConnectEvent() {
-        synchronized (registeredEvents) {
-            for (BaseEvent connectEvent : registeredEvents.get(EventType.CONNECT)) {
-                try {
-                    ((ConnectEvent) connectEvent).execute();
-                }
-                catch (Exception e) {
-                    BotLogMan.warning("Unhandled Exception caught while calling 'ConnectEvent' for Plugin: ".concat(connectEvent.getPlugin().getName()), e);
+    private void dispatchConnectEvent(final IRCConnection irc_conn) {
+        for (final BaseEvent connectEvent : getEvents(EventType.CONNECT)) {
+            deliver(connectEvent.getPlugin(), irc_conn, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ((ConnectEvent) connectEvent).execute(irc_conn);
+                    }
+                    catch (Exception e) {
+                        BotLogMan.warning("Unhandled Exception caught while calling 'ConnectEvent' for Plugin: ".concat(connectEvent.getPlugin().getName()), e);
+                    }
                 }
-            }
+            });
         }
     }
 
@@ -225,16 +699,19 @@ public class EventManager {
      * @param ex
      *            the {@link Exception} thrown if one occured
      */
-    private final void dispatchFileTransferFinishedEvent(DccFileTransfer transfer, Exception ex) {
-        synchronized (registeredEvents) {
-            for (BaseEvent fileTransferFinishedEvent : registeredEvents.get(EventType.FILE_TRANSFER_FINISHED)) {
-                try {
-                    ((FileTransferFinishedEvent) fileTransferFinishedEvent).execute(transfer, ex);
-                }
-                catch (Exception e) {
-                    BotLogMan.warning("Unhandled Exception caught while calling 'FileTransferFinishedEvent' for Plugin: ".concat(fileTransferFinishedEvent.getPlugin().getName()), e);
+    private final void dispatchFileTransferFinishedEvent(final DccFileTransfer transfer, final Exception ex) {
+        for (final BaseEvent fileTransferFinishedEvent : getEvents(EventType.FILE_TRANSFER_FINISHED)) {
+            deliver(fileTransferFinishedEvent.getPlugin(), transfer, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ((FileTransferFinishedEvent) fileTransferFinishedEvent).execute(transfer, ex);
+                    }
+                    catch (Exception e) {
+                        BotLogMan.warning("Unhandled Exception caught while calling 'FileTransferFinishedEvent' for Plugin: ".concat(fileTransferFinishedEvent.getPlugin().getName()), e);
+                    }
                 }
-            }
+            });
         }
     }
 
@@ -254,16 +731,19 @@ public class EventManager {
      * @param chat
      *            the {@link DccChat} object
      */
-    private final void dispatchIncomingChatRequestEvent(DccChat chat) {
-        synchronized (registeredEvents) {
-            for (BaseEvent incomingChatRequestEvent : registeredEvents.get(EventType.INCOMING_CHAT_REQUEST)) {
-                try {
-                    ((IncomingChatRequestEvent) incomingChatRequestEvent).execute(chat);
-                }
-                catch (Exception e) {
-                    BotLogMan.warning("Unhandled Exception caught while calling 'IncomingChatRequestEvent' for Plugin: ".concat(incomingChatRequestEvent.getPlugin().getName()), e);
+    private final void dispatchIncomingChatRequestEvent(final DccChat chat) {
+        for (final BaseEvent incomingChatRequestEvent : getEvents(EventType.INCOMING_CHAT_REQUEST)) {
+            deliver(incomingChatRequestEvent.getPlugin(), chat, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ((IncomingChatRequestEvent) incomingChatRequestEvent).execute(chat);
+                    }
+                    catch (Exception e) {
+                        BotLogMan.warning("Unhandled Exception caught while calling 'IncomingChatRequestEvent' for Plugin: ".concat(incomingChatRequestEvent.getPlugin().getName()), e);
+                    }
                 }
-            }
+            });
         }
     }
 
@@ -283,16 +763,19 @@ public class EventManager {
      * @param transfer
      *            the {@link DccFileTransfer} object
      */
-    private final void dispatchIncomingFileTransferEvent(DccFileTransfer transfer) {
-        synchronized (registeredEvents) {
-            for (BaseEvent incomingFileTransferEvent : registeredEvents.get(EventType.INCOMING_FILE_TRANSFER)) {
-                try {
-                    ((IncomingFileTransferEvent) incomingFileTransferEvent).execute(transfer);
-                }
-                catch (Exception e) {
-                    BotLogMan.warning("Unhandled Exception caught while calling 'IncomingFileTransferEvent' for Plugin: ".concat(incomingFileTransferEvent.getPlugin().getName()), e);
+    private final void dispatchIncomingFileTransferEvent(final DccFileTransfer transfer) {
+        for (final BaseEvent incomingFileTransferEvent : getEvents(EventType.INCOMING_FILE_TRANSFER)) {
+            deliver(incomingFileTransferEvent.getPlugin(), transfer, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ((IncomingFileTransferEvent) incomingFileTransferEvent).execute(transfer);
+                    }
+                    catch (Exception e) {
+                        BotLogMan.warning("Unhandled Exception caught while calling 'IncomingFileTransferEvent' for Plugin: ".concat(incomingFileTransferEvent.getPlugin().getName()), e);
+                    }
                 }
-            }
+            });
         }
     }
 
@@ -306,16 +789,20 @@ public class EventManager {
         instance.dispatchInviteEvent(user, channel);
     }
 
-    private final void dispatchInviteEvent(User user, Channel channel) {
-        synchronized (registeredEvents) {
-            for (BaseEvent inviteEvent : registeredEvents.get(EventType.INVITE)) {
-                try {
-                    ((InviteEvent) inviteEvent).execute(user, channel);
-                }
-                catch (Exception e) {
-                    BotLogMan.warning("Unhandled Exception caught while calling 'InviteEvent' for Plugin: ".concat(inviteEvent.getPlugin().getName()), e);
+    private final void dispatchInviteEvent(final User user, final Channel channel) {
+        Object key = channel != null ? channel : BotEvent.userKey(user);
+        for (final BaseEvent inviteEvent : getEvents(EventType.INVITE)) {
+            deliver(inviteEvent.getPlugin(), key, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ((InviteEvent) inviteEvent).execute(user, channel);
+                    }
+                    catch (Exception e) {
+                        BotLogMan.warning("Unhandled Exception caught while calling 'InviteEvent' for Plugin: ".concat(inviteEvent.getPlugin().getName()), e);
+                    }
                 }
-            }
+            });
         }
     }
 
@@ -347,16 +834,19 @@ public class EventManager {
      * @param reason
      *            the reason for the kick
      */
-    private final void dispatchKickEvent(Channel channel, User kicked, User kicker, String reason) {
-        synchronized (registeredEvents) {
-            for (BaseEvent kickEvent : registeredEvents.get(EventType.KICK)) {
-                try {
-                    ((KickEvent) kickEvent).execute(channel, kicked, kicker, reason);
-                }
-                catch (Exception e) {
-                    BotLogMan.warning("Unhandled Exception caught while calling 'KickEvent' for Plugin: ".concat(kickEvent.getPlugin().getName()), e);
+    private final void dispatchKickEvent(final Channel channel, final User kicked, final User kicker, final String reason) {
+        for (final BaseEvent kickEvent : getEvents(EventType.KICK)) {
+            deliver(kickEvent.getPlugin(), channel, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ((KickEvent) kickEvent).execute(channel, kicked, kicker, reason);
+                    }
+                    catch (Exception e) {
+                        BotLogMan.warning("Unhandled Exception caught while calling 'KickEvent' for Plugin: ".concat(kickEvent.getPlugin().getName()), e);
+                    }
                 }
-            }
+            });
         }
     }
 
@@ -380,16 +870,99 @@ public class EventManager {
      * @param user
      *            the {@link User} joining the {@link Channel}
      */
-    private final void dispatchJoinEvent(Channel channel, User user) {
-        synchronized (registeredEvents) {
-            for (BaseEvent joinEvent : registeredEvents.get(EventType.JOIN)) {
-                try {
-                    ((JoinEvent) joinEvent).execute(channel, user);
+    private final void dispatchJoinEvent(final Channel channel, final User user) {
+        for (final BaseEvent joinEvent : getEvents(EventType.JOIN)) {
+            deliver(joinEvent.getPlugin(), channel, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ((JoinEvent) joinEvent).execute(channel, user);
+                    }
+                    catch (Exception e) {
+                        BotLogMan.warning("Unhandled Exception caught while calling 'JoinEvent' for Plugin: ".concat(joinEvent.getPlugin().getName()), e);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Called when the {@link ModeChangeEvent} is activated
+     * 
+     * @param channel
+     *            the {@link Channel} the modes were changed in
+     * @param user
+     *            the {@link User} changing the modes
+     * @param changes
+     *            the {@link ModeChanges}
+     */
+    public static final void activateModeChangeEvent(Channel channel, User user, ModeChanges changes) {
+        instance.dispatchModeChangeEvent(channel, user, changes);
+    }
+
+    /**
+     * Dispatches the {@link ModeChangeEvent}
+     * 
+     * @param channel
+     *            the {@link Channel} the modes were changed in
+     * @param user
+     *            the {@link User} changing the modes
+     * @param changes
+     *            the {@link ModeChanges}
+     */
+    private final void dispatchModeChangeEvent(final Channel channel, final User user, final ModeChanges changes) {
+        for (final BaseEvent modeChangeEvent : getEvents(EventType.MODE_CHANGE)) {
+            deliver(modeChangeEvent.getPlugin(), channel, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ((ModeChangeEvent) modeChangeEvent).execute(channel, user, changes);
+                    }
+                    catch (Exception e) {
+                        BotLogMan.warning("Unhandled Exception caught while calling 'ModeChangeEvent' for Plugin: ".concat(modeChangeEvent.getPlugin().getName()), e);
+                    }
                 }
-                catch (Exception e) {
-                    BotLogMan.warning("Unhandled Exception caught while calling 'JoinEvent' for Plugin: ".concat(joinEvent.getPlugin().getName()), e);
+            });
+        }
+    }
+
+    /**
+     * Called when the {@link NetJoinEvent} is activated
+     * 
+     * @param irc_conn
+     *            the {@link IRCConnection} of the network that split
+     * @param servers
+     *            the two servers that split
+     * @param rejoined
+     *            the {@link Membership}s of the {@link User}s back in each channel
+     */
+    public static final void activateNetJoinEvent(IRCConnection irc_conn, String servers, List<Membership> rejoined) {
+        instance.dispatchNetJoinEvent(irc_conn, servers, rejoined);
+    }
+
+    /**
+     * Dispatches the {@link NetJoinEvent}
+     * 
+     * @param irc_conn
+     *            the {@link IRCConnection} of the network that split
+     * @param servers
+     *            the two servers that split
+     * @param rejoined
+     *            the {@link Membership}s of the {@link User}s back in each channel
+     */
+    private final void dispatchNetJoinEvent(final IRCConnection irc_conn, final String servers, final List<Membership> rejoined) {
+        for (final BaseEvent netJoinEvent : getEvents(EventType.NET_JOIN)) {
+            deliver(netJoinEvent.getPlugin(), irc_conn, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ((NetJoinEvent) netJoinEvent).execute(irc_conn, servers, rejoined);
+                    }
+                    catch (Exception e) {
+                        BotLogMan.warning("Unhandled Exception caught while calling 'NetJoinEvent' for Plugin: ".concat(netJoinEvent.getPlugin().getName()), e);
+                    }
                 }
-            }
+            });
         }
     }
 
@@ -413,16 +986,19 @@ public class EventManager {
      * @param user
      *            the {@link User} leaving
      */
-    private final void dispatchPartEvent(Channel channel, User user) {
-        synchronized (registeredEvents) {
-            for (BaseEvent partEvent : registeredEvents.get(EventType.PART)) {
-                try {
-                    ((PartEvent) partEvent).execute(channel, user);
-                }
-                catch (Exception e) {
-                    BotLogMan.warning("Unhandled Exception caught while calling 'PartEvent' for Plugin: ".concat(partEvent.getPlugin().getName()), e);
+    private final void dispatchPartEvent(final Channel channel, final User user) {
+        for (final BaseEvent partEvent : getEvents(EventType.PART)) {
+            deliver(partEvent.getPlugin(), channel, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ((PartEvent) partEvent).execute(channel, user);
+                    }
+                    catch (Exception e) {
+                        BotLogMan.warning("Unhandled Exception caught while calling 'PartEvent' for Plugin: ".concat(partEvent.getPlugin().getName()), e);
+                    }
                 }
-            }
+            });
         }
     }
 
@@ -446,16 +1022,23 @@ public class EventManager {
      * @param msg
      *            the message
      */
-    private final void dispatchPrivateMessageEvent(User user, String msg) {
-        synchronized (registeredEvents) {
-            for (BaseEvent privMessageEvent : registeredEvents.get(EventType.PRIVATE_MESSAGE)) {
-                try {
-                    ((PrivateMessageEvent) privMessageEvent).execute(user, msg);
-                }
-                catch (Exception e) {
-                    BotLogMan.warning("Unhandled Exception caught while calling 'PrivateMessageEvent' for Plugin: ".concat(privMessageEvent.getPlugin().getName()), e);
-                }
+    private final void dispatchPrivateMessageEvent(final User user, final String msg) {
+        Object key = BotEvent.userKey(user);
+        for (final BaseEvent privMessageEvent : getEvents(EventType.PRIVATE_MESSAGE)) {
+            if (!privMessageEvent.accepts(user, msg)) {
+                continue;
             }
+            deliver(privMessageEvent.getPlugin(), key, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ((PrivateMessageEvent) privMessageEvent).execute(user, msg);
+                    }
+                    catch (Exception e) {
+                        BotLogMan.warning("Unhandled Exception caught while calling 'PrivateMessageEvent' for Plugin: ".concat(privMessageEvent.getPlugin().getName()), e);
+                    }
+                }
+            });
         }
     }
 }
@@ -33,6 +33,8 @@ public enum EventType {
     INVITE, //
     JOIN, //
     KICK, //
+    MODE_CHANGE, //
+    NET_JOIN, //
     PART, //
     PRIVATE_MESSAGE, //
 }
@@ -0,0 +1,75 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events;
+
+import java.util.List;
+
+import net.visualillusionsent.vibot.api.plugin.BotPlugin;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
+import net.visualillusionsent.vibot.io.irc.Membership;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Net Join Event
+ * <p>
+ * Extending this class will allow a {@link BotPlugin}<br>
+ * to listen to when {@link User}s lost in a netsplit come back, once for all of them rather than a {@link JoinEvent} each
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public abstract class NetJoinEvent extends BaseEvent {
+
+    /**
+     * Constructs a new {@code NetJoinEvent}<br>
+     * <b>NOTE:</b>With this constructor, {@link EventPriority} will be read from the plugin.cfg file
+     * 
+     * @param plugin
+     *            the {@link BotPlugin} associated with this event
+     */
+    public NetJoinEvent(BotPlugin plugin) {
+        super(plugin, EventType.NET_JOIN);
+    }
+
+    /**
+     * Constructs a new {@code NetJoinEvent}
+     * 
+     * @param plugin
+     *            the {@link BotPlugin} associated with this event
+     * @param priority
+     *            the {@link EventPriority} for the event
+     */
+    public NetJoinEvent(BotPlugin plugin, EventPriority priority) {
+        super(plugin, priority, EventType.NET_JOIN);
+    }
+
+    /**
+     * Event executor<br>
+     * This is where the code should go for extending classes to handle the {@code NetJoinEvent}
+     * 
+     * @param irc_conn
+     *            the {@link IRCConnection} of the network that split
+     * @param servers
+     *            the two servers that split, separated by a space
+     * @param rejoined
+     *            the {@link Membership}s of the {@link User}s back in each channel
+     */
+    public abstract void execute(IRCConnection irc_conn, String servers, List<Membership> rejoined);
+
+}
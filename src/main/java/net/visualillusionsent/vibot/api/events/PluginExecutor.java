@@ -0,0 +1,181 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.visualillusionsent.utils.PropertiesFile;
+import net.visualillusionsent.utils.UtilityException;
+import net.visualillusionsent.vibot.api.plugin.BotPlugin;
+import net.visualillusionsent.vibot.io.logging.BotLogMan;
+
+/**
+ * Plugin Executor<br>
+ * Delivers the events of a {@link BotPlugin} that asked for asynchronous delivery, so a slow {@link BaseEvent} holds up only its own
+ * {@link BotPlugin} and not the thread reading from the server.
+ * <p>
+ * Made of a number of single thread stripes, each with its own bounded queue. Every event has an ordering key (its channel, or
+ * whatever it is about if it has none), and events with equal keys always go to the same stripe, so they are delivered in the order they
+ * happened while events for different channels can be delivered at the same time. The number of stripes caps how many of the
+ * {@link BotPlugin}'s events run at once.
+ * <p>
+ * Set up from the {@link BotPlugin}'s {@code plugin.cfg}:
+ * <ul>
+ * <li>events.async=true to deliver asynchronously (without it events are delivered on the thread that fired them)</li>
+ * <li>events.threads=# the number of stripes (default 1)</li>
+ * <li>events.queue-size=# the number of events each stripe can hold waiting (default 1000)</li>
+ * <li>events.queue-full={@link QueueFullPolicy} what to do when a stripe's queue is full (default DROP)</li>
+ * </ul>
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+final class PluginExecutor implements RejectedExecutionHandler {
+    private final BotPlugin plugin;
+    private final ThreadPoolExecutor[] stripes;
+    private final QueueFullPolicy policy;
+    private final int queueSize;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private PluginExecutor(final BotPlugin plugin, int threads, int queueSize, QueueFullPolicy policy) {
+        this.plugin = plugin;
+        this.policy = policy;
+        this.queueSize = queueSize;
+        this.stripes = new ThreadPoolExecutor[threads];
+        for (int index = 0; index < threads; index++) {
+            final String name = String.format("%s-Events-%d", plugin.getName(), index);
+            ThreadFactory factory = new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            };
+            stripes[index] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queueSize), factory, this);
+        }
+    }
+
+    /**
+     * Makes the {@code PluginExecutor} for a {@link BotPlugin}, if its {@code plugin.cfg} asks for asynchronous delivery
+     * 
+     * @param plugin
+     *            the {@link BotPlugin}
+     * @return the {@code PluginExecutor}, or {@code null} if events should be delivered on the thread that fired them
+     */
+    static final PluginExecutor create(BotPlugin plugin) {
+        PropertiesFile cfg;
+        try {
+            cfg = plugin.getPluginConfiguration();
+            if (!cfg.containsKey("events.async") || !cfg.getBoolean("events.async")) {
+                return null;
+            }
+        }
+        catch (UtilityException ue) {
+            return null;
+        }
+        int threads = 1, queueSize = 1000;
+        QueueFullPolicy policy = QueueFullPolicy.DROP;
+        try {
+            if (cfg.containsKey("events.threads")) {
+                threads = Math.max(1, cfg.getInt("events.threads"));
+            }
+            if (cfg.containsKey("events.queue-size")) {
+                queueSize = Math.max(1, cfg.getInt("events.queue-size"));
+            }
+            if (cfg.containsKey("events.queue-full")) {
+                policy = QueueFullPolicy.valueOf(cfg.getString("events.queue-full").toUpperCase());
+            }
+        }
+        catch (UtilityException ue) {
+            BotLogMan.warning("Unable to read event delivery settings from plugin.cfg for Plugin: ".concat(plugin.getName()).concat(", using defaults"));
+        }
+        catch (IllegalArgumentException iae) {
+            BotLogMan.warning("Invaild argument for events.queue-full for Plugin: ".concat(plugin.getName()).concat(", using DROP"));
+        }
+        return new PluginExecutor(plugin, threads, queueSize, policy);
+    }
+
+    /**
+     * Queues the delivery of an event
+     * 
+     * @param key
+     *            the ordering key, events with the same key are delivered in order
+     * @param delivery
+     *            the delivery of the event
+     */
+    final void execute(Object key, Runnable delivery) {
+        int hash = key.hashCode();
+        ThreadPoolExecutor stripe = stripes[((hash ^ (hash >>> 16)) & 0x7FFFFFFF) % stripes.length];
+        try {
+            stripe.execute(delivery);
+        }
+        catch (RejectedExecutionException ree) {
+            // Shut down, the plugin is being unregistered
+            return;
+        }
+        // Only say it is over once the queue has drained a good way, not each time one event squeezes in
+        long missed = dropped.get();
+        if (missed > 0 && stripe.getQueue().size() <= queueSize / 2 && dropped.compareAndSet(missed, 0)) {
+            BotLogMan.warning(String.format("Event queue for Plugin: %s has room again, %d events were dropped", plugin.getName(), missed));
+        }
+    }
+
+    /**
+     * Called by a stripe when its queue is full
+     */
+    @Override
+    public final void rejectedExecution(Runnable delivery, ThreadPoolExecutor stripe) {
+        if (stripe.isShutdown()) {
+            throw new RejectedExecutionException();
+        }
+        switch (policy) {
+            case BLOCK:
+                try {
+                    stripe.getQueue().put(delivery);
+                }
+                catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+                break;
+            case CALLER_RUNS:
+                delivery.run();
+                break;
+            default:
+                if (dropped.getAndIncrement() == 0) {
+                    BotLogMan.warning("Event queue full for Plugin: ".concat(plugin.getName()).concat(", dropping events"));
+                }
+        }
+    }
+
+    /**
+     * Stops delivering, throwing away any events still queued
+     */
+    final void shutdown() {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdownNow();
+        }
+    }
+}
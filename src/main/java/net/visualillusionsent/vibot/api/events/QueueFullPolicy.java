@@ -0,0 +1,45 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events;
+
+import net.visualillusionsent.vibot.api.plugin.BotPlugin;
+
+/**
+ * What to do with an event for a {@link BaseEvent} delivered asynchronously when its {@link BotPlugin}'s queue is full<br>
+ * Set in the {@link BotPlugin}'s {@code plugin.cfg} as events.queue-full=POLICY
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public enum QueueFullPolicy {
+    /**
+     * The event is thrown away, so a slow {@link BotPlugin} misses events but never slows down anything else
+     */
+    DROP, //
+    /**
+     * The thread firing the event waits for room in the queue, so nothing is missed but a slow {@link BotPlugin} slows down reading from the
+     * server
+     */
+    BLOCK, //
+    /**
+     * The event is delivered on the thread firing it, so nothing is missed but it may be delivered before events still in the queue
+     */
+    CALLER_RUNS, //
+    ;
+}
@@ -0,0 +1,151 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events;
+
+import net.visualillusionsent.vibot.api.plugin.BotPlugin;
+import net.visualillusionsent.vibot.io.exception.VIBotException;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
+import net.visualillusionsent.vibot.io.irc.IrcMessage;
+
+/**
+ * Raw Handler
+ * <p>
+ * Extending this class will allow a {@link BotPlugin}<br>
+ * to handle a raw command or numeric reply from the server, including those the VIBot ignores (ie: RPL_LIST or RPL_WHOISUSER)<br>
+ * Handlers are set up to auto register them selfs, and are only called for the command or numeric they were registered for.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public abstract class RawHandler {
+
+    /**
+     * The {@link BotPlugin} associated with the {@code RawHandler}
+     */
+    private final BotPlugin plugin;
+
+    /**
+     * The numeric reply handled, or {@code -1} if handling a command
+     */
+    private final int numeric;
+
+    /**
+     * The command handled, or {@code null} if handling a numeric reply
+     */
+    private final String command;
+
+    /**
+     * Constructs a new {@code RawHandler} for a numeric reply
+     * 
+     * @param plugin
+     *            the {@link BotPlugin} associated with the {@code RawHandler}
+     * @param numeric
+     *            the numeric reply to handle (ie: 322 for RPL_LIST)
+     */
+    public RawHandler(BotPlugin plugin, int numeric) {
+        if (plugin == null) {
+            throw new VIBotException("BotPlugin cannot be null");
+        }
+        else if (numeric < 0 || numeric > 999) {
+            throw new VIBotException("Numeric must be between 0 and 999");
+        }
+        this.plugin = plugin;
+        this.numeric = numeric;
+        this.command = null;
+        EventManager.addRawHandler(this);
+    }
+
+    /**
+     * Constructs a new {@code RawHandler} for a command
+     * 
+     * @param plugin
+     *            the {@link BotPlugin} associated with the {@code RawHandler}
+     * @param command
+     *            the command to handle (ie: WALLOPS)
+     */
+    public RawHandler(BotPlugin plugin, String command) {
+        if (plugin == null) {
+            throw new VIBotException("BotPlugin cannot be null");
+        }
+        else if (command == null || command.isEmpty()) {
+            throw new VIBotException("Command cannot be null or empty");
+        }
+        this.plugin = plugin;
+        this.numeric = -1;
+        this.command = command.toUpperCase();
+        EventManager.addRawHandler(this);
+    }
+
+    /**
+     * Gets the {@link BotPlugin} associated with the {@code RawHandler}
+     * 
+     * @return the {@link BotPlugin} associated with the {@code RawHandler}
+     */
+    public BotPlugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Gets the numeric reply handled
+     * 
+     * @return the numeric, or {@code -1} if handling a command
+     */
+    public final int getNumeric() {
+        return numeric;
+    }
+
+    /**
+     * Gets the command handled
+     * 
+     * @return the command, or {@code null} if handling a numeric reply
+     */
+    public final String getCommand() {
+        return command;
+    }
+
+    /**
+     * Stops the {@code RawHandler} from being called
+     */
+    public final void unregister() {
+        EventManager.removeRawHandler(this);
+    }
+
+    /**
+     * Handler executor<br>
+     * This is where the code should go for extending classes to handle the line.<br>
+     * The {@link IrcMessage} is reused for the next line, so copy out anything that needs to be kept.
+     * 
+     * @param irc_conn
+     *            the {@link IRCConnection} the line was read from
+     * @param message
+     *            the {@link IrcMessage} holding the line
+     */
+    public abstract void execute(IRCConnection irc_conn, IrcMessage message);
+
+    /**
+     * String representation as RawHandler[ClassName=%s Handles=%s] format
+     * 
+     * @return formated string
+     * @see Object#toString()
+     */
+    @Override
+    public final String toString() {
+        return String.format("RawHandler[ClassName=%s Handles=%s]", this.getClass().getSimpleName(), command != null ? command : String.valueOf(numeric));
+    }
+}
@@ -0,0 +1,52 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import net.visualillusionsent.vibot.api.plugin.BotPlugin;
+
+/**
+ * {@code @interface} for {@link BotEvent} subscriber methods<br>
+ * Marks a method of an object registered with {@link EventManager#registerSubscriber(BotPlugin, Object)} to be called with each
+ * {@link BotEvent} of the type it takes as its one parameter<br>
+ * Example:<br>
+ * <code><pre>
+ * &#64;Subscribe
+ * public void onNickChange(NickChange change) {
+ *     ...
+ * }
+ * </code></pre>
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface Subscribe {
+
+    /**
+     * The {@link EventPriority} of the method
+     */
+    EventPriority priority() default EventPriority.NORMAL;
+}
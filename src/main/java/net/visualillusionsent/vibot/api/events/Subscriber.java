@@ -0,0 +1,150 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import net.visualillusionsent.vibot.api.plugin.BotPlugin;
+import net.visualillusionsent.vibot.io.exception.VIBotException;
+
+/**
+ * Subscriber<br>
+ * A {@link Subscribe} method bound to the object it was registered with.
+ * <p>
+ * The method is looked up once, when registered, and bound into a {@link MethodHandle} taking any {@link BotEvent}, so calling it is a
+ * direct call with a cast rather than a reflective one.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+final class Subscriber {
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, BotEvent.class);
+
+    private final BotPlugin plugin;
+    private final Object target;
+    private final Class<?> type;
+    private final EventPriority priority;
+    private final String name;
+    private final MethodHandle invoker;
+
+    private Subscriber(BotPlugin plugin, Object target, Class<?> type, EventPriority priority, String name, MethodHandle invoker) {
+        this.plugin = plugin;
+        this.target = target;
+        this.type = type;
+        this.priority = priority;
+        this.name = name;
+        this.invoker = invoker;
+    }
+
+    /**
+     * Binds a {@link Subscribe} method
+     * 
+     * @param plugin
+     *            the {@link BotPlugin} the method belongs to
+     * @param target
+     *            the object the method is called on
+     * @param method
+     *            the method
+     * @return the {@code Subscriber}
+     * @throws VIBotException
+     *             if the method does not take a single {@link BotEvent}
+     */
+    static final Subscriber bind(BotPlugin plugin, Object target, Method method) {
+        String name = method.getDeclaringClass().getSimpleName().concat(".").concat(method.getName());
+        Class<?>[] params = method.getParameterTypes();
+        if (params.length != 1 || !BotEvent.class.isAssignableFrom(params[0])) {
+            throw new VIBotException("@Subscribe method must take a single BotEvent: ".concat(name));
+        }
+        MethodHandle invoker;
+        try {
+            method.setAccessible(true);
+            invoker = MethodHandles.lookup().unreflect(method);
+        }
+        catch (IllegalAccessException iae) {
+            throw new VIBotException("Unable to access @Subscribe method: ".concat(name), iae);
+        }
+        if (!Modifier.isStatic(method.getModifiers())) {
+            invoker = invoker.bindTo(target);
+        }
+        return new Subscriber(plugin, target, params[0], method.getAnnotation(Subscribe.class).priority(), name, invoker.asType(INVOKER_TYPE));
+    }
+
+    /**
+     * Calls the method
+     * 
+     * @param event
+     *            the {@link BotEvent}, which must be of the type it takes
+     * @throws Throwable
+     *             whatever the method throws
+     */
+    final void invoke(BotEvent event) throws Throwable {
+        invoker.invokeExact(event);
+    }
+
+    /**
+     * Checks if the method takes a type of {@link BotEvent}
+     * 
+     * @param event
+     *            the type of {@link BotEvent}
+     * @return {@code true} if it takes it
+     */
+    final boolean accepts(Class<?> event) {
+        return type.isAssignableFrom(event);
+    }
+
+    /**
+     * Gets the {@link BotPlugin} the method belongs to
+     * 
+     * @return the {@link BotPlugin}
+     */
+    final BotPlugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Gets the object the method is called on
+     * 
+     * @return the object
+     */
+    final Object getTarget() {
+        return target;
+    }
+
+    /**
+     * Gets the {@link EventPriority} of the method
+     * 
+     * @return the {@link EventPriority}
+     */
+    final EventPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets the name of the method, as Class.method
+     * 
+     * @return the name
+     */
+    final String getName() {
+        return name;
+    }
+}
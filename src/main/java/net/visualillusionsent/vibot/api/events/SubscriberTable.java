@@ -0,0 +1,85 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Subscriber Table<br>
+ * The registered {@link Subscriber}s, and which of them take each type of {@link BotEvent}.
+ * <p>
+ * Never changed once made, registering or unregistering makes a new one, so it can be read without locking. Which {@link Subscriber}s take
+ * a type is worked out the first time one of that type is posted and remembered, so posting after that is one lookup.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+final class SubscriberTable {
+
+    /**
+     * The {@code SubscriberTable} of no {@link Subscriber}s
+     */
+    static final SubscriberTable EMPTY = new SubscriberTable(new Subscriber[0]);
+
+    private final Subscriber[] subscribers;
+    private final ConcurrentHashMap<Class<?>, Subscriber[]> byType = new ConcurrentHashMap<Class<?>, Subscriber[]>();
+
+    /**
+     * Constructs a new {@code SubscriberTable}
+     * 
+     * @param subscribers
+     *            the {@link Subscriber}s, in order of {@link EventPriority}, which must not be changed afterwards
+     */
+    SubscriberTable(Subscriber[] subscribers) {
+        this.subscribers = subscribers;
+    }
+
+    /**
+     * Gets all the {@link Subscriber}s
+     * 
+     * @return the {@link Subscriber}s, in order of {@link EventPriority}, which must not be changed
+     */
+    final Subscriber[] getAll() {
+        return subscribers;
+    }
+
+    /**
+     * Gets the {@link Subscriber}s that take a type of {@link BotEvent}
+     * 
+     * @param type
+     *            the type of {@link BotEvent}
+     * @return the {@link Subscriber}s, in order of {@link EventPriority}, which must not be changed
+     */
+    final Subscriber[] get(Class<?> type) {
+        Subscriber[] wanted = byType.get(type);
+        if (wanted == null) {
+            List<Subscriber> found = new ArrayList<Subscriber>();
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.accepts(type)) {
+                    found.add(subscriber);
+                }
+            }
+            wanted = found.toArray(new Subscriber[found.size()]);
+            byType.put(type, wanted);
+        }
+        return wanted;
+    }
+}
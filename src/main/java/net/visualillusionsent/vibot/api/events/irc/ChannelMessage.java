@@ -0,0 +1,88 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events.irc;
+
+import net.visualillusionsent.vibot.VIBot;
+import net.visualillusionsent.vibot.api.events.CancellableEvent;
+import net.visualillusionsent.vibot.api.events.ChannelMessageEvent;
+import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Channel Message<br>
+ * Posted when a {@link User} sends a message to a {@link Channel} the {@link VIBot} is in, before the {@link VIBot} does anything with it
+ * <p>
+ * Cancelling it stops the message being parsed for commands, given to {@link ChannelMessageEvent}s or logged
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class ChannelMessage extends CancellableEvent {
+    private final Channel channel;
+    private final User user;
+    private final String message;
+
+    /**
+     * Constructs a new {@code ChannelMessage}
+     * 
+     * @param channel
+     *            the {@link Channel} the message was sent to
+     * @param user
+     *            the {@link User} sending it
+     * @param message
+     *            the message
+     */
+    public ChannelMessage(Channel channel, User user, String message) {
+        this.channel = channel;
+        this.user = user;
+        this.message = message;
+    }
+
+    /**
+     * Gets the {@link Channel} the message was sent to
+     * 
+     * @return the {@link Channel} the message was sent to
+     */
+    public final Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets the {@link User} sending it
+     * 
+     * @return the {@link User} sending it
+     */
+    public final User getUser() {
+        return user;
+    }
+
+    /**
+     * Gets the message
+     * 
+     * @return the message
+     */
+    public final String getMessage() {
+        return message;
+    }
+
+    @Override
+    protected final Object getOrderingKey() {
+        return channel;
+    }
+}
@@ -0,0 +1,115 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events.irc;
+
+import net.visualillusionsent.vibot.VIBot;
+import net.visualillusionsent.vibot.api.events.CancellableEvent;
+import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Ctcp<br>
+ * Posted when a CTCP request (ie: VERSION or ACTION) is sent to the {@link VIBot} or to a {@link Channel} it is in, before the {@link VIBot}
+ * answers any it answers itself
+ * <p>
+ * Cancelling it stops the {@link VIBot} answering it (or, for DCC, accepting it)
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class Ctcp extends CancellableEvent {
+    private final IRCConnection connection;
+    private final User user;
+    private final Channel channel;
+    private final String command;
+    private final String argument;
+
+    /**
+     * Constructs a new {@code Ctcp}
+     * 
+     * @param connection
+     *            the {@link IRCConnection} of the network
+     * @param user
+     *            the {@link User} sending it
+     * @param channel
+     *            the {@link Channel} it was sent to, or {@code null} if sent to the {@link VIBot}
+     * @param command
+     *            the request command in upper case (ie: VERSION)
+     * @param argument
+     *            the rest of the request, or an empty string
+     */
+    public Ctcp(IRCConnection connection, User user, Channel channel, String command, String argument) {
+        this.connection = connection;
+        this.user = user;
+        this.channel = channel;
+        this.command = command;
+        this.argument = argument;
+    }
+
+    /**
+     * Gets the {@link IRCConnection} of the network
+     * 
+     * @return the {@link IRCConnection} of the network
+     */
+    public final IRCConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Gets the {@link User} sending it
+     * 
+     * @return the {@link User} sending it
+     */
+    public final User getUser() {
+        return user;
+    }
+
+    /**
+     * Gets the {@link Channel} it was sent to, or {@code null} if sent to the {@link VIBot}
+     * 
+     * @return the {@link Channel} it was sent to, or {@code null} if sent to the {@link VIBot}
+     */
+    public final Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets the request command in upper case (ie: VERSION)
+     * 
+     * @return the request command in upper case (ie: VERSION)
+     */
+    public final String getCommand() {
+        return command;
+    }
+
+    /**
+     * Gets the rest of the request, or an empty string
+     * 
+     * @return the rest of the request, or an empty string
+     */
+    public final String getArgument() {
+        return argument;
+    }
+
+    @Override
+    protected final Object getOrderingKey() {
+        return channel != null ? channel : userKey(user);
+    }
+}
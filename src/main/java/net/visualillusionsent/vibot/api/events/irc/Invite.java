@@ -0,0 +1,85 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events.irc;
+
+import net.visualillusionsent.vibot.VIBot;
+import net.visualillusionsent.vibot.api.events.BotEvent;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Invite<br>
+ * Posted when a {@link User} invites the {@link VIBot} to a channel
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class Invite extends BotEvent {
+    private final IRCConnection connection;
+    private final User user;
+    private final String channel;
+
+    /**
+     * Constructs a new {@code Invite}
+     * 
+     * @param connection
+     *            the {@link IRCConnection} of the network
+     * @param user
+     *            the {@link User} inviting
+     * @param channel
+     *            the name of the channel
+     */
+    public Invite(IRCConnection connection, User user, String channel) {
+        this.connection = connection;
+        this.user = user;
+        this.channel = channel;
+    }
+
+    /**
+     * Gets the {@link IRCConnection} of the network
+     * 
+     * @return the {@link IRCConnection} of the network
+     */
+    public final IRCConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Gets the {@link User} inviting
+     * 
+     * @return the {@link User} inviting
+     */
+    public final User getUser() {
+        return user;
+    }
+
+    /**
+     * Gets the name of the channel
+     * 
+     * @return the name of the channel
+     */
+    public final String getChannel() {
+        return channel;
+    }
+
+    @Override
+    protected final Object getOrderingKey() {
+        return connection;
+    }
+}
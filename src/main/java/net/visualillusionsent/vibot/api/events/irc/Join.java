@@ -0,0 +1,71 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events.irc;
+
+import net.visualillusionsent.vibot.api.events.BotEvent;
+import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Join<br>
+ * Posted when a {@link User} joins a {@link Channel}, other than coming back from a netsplit (see {@link NetJoin})
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class Join extends BotEvent {
+    private final Channel channel;
+    private final User user;
+
+    /**
+     * Constructs a new {@code Join}
+     * 
+     * @param channel
+     *            the {@link Channel} joined
+     * @param user
+     *            the {@link User} joining
+     */
+    public Join(Channel channel, User user) {
+        this.channel = channel;
+        this.user = user;
+    }
+
+    /**
+     * Gets the {@link Channel} joined
+     * 
+     * @return the {@link Channel} joined
+     */
+    public final Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets the {@link User} joining
+     * 
+     * @return the {@link User} joining
+     */
+    public final User getUser() {
+        return user;
+    }
+
+    @Override
+    protected final Object getOrderingKey() {
+        return channel;
+    }
+}
@@ -0,0 +1,97 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events.irc;
+
+import net.visualillusionsent.vibot.api.events.BotEvent;
+import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Kick<br>
+ * Posted when a {@link User} is kicked from a {@link Channel}
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class Kick extends BotEvent {
+    private final Channel channel;
+    private final User kicked;
+    private final User kicker;
+    private final String reason;
+
+    /**
+     * Constructs a new {@code Kick}
+     * 
+     * @param channel
+     *            the {@link Channel} kicked from
+     * @param kicked
+     *            the {@link User} kicked, or {@code null} if not known
+     * @param kicker
+     *            the {@link User} kicking
+     * @param reason
+     *            the reason given, or an empty string
+     */
+    public Kick(Channel channel, User kicked, User kicker, String reason) {
+        this.channel = channel;
+        this.kicked = kicked;
+        this.kicker = kicker;
+        this.reason = reason;
+    }
+
+    /**
+     * Gets the {@link Channel} kicked from
+     * 
+     * @return the {@link Channel} kicked from
+     */
+    public final Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets the {@link User} kicked, or {@code null} if not known
+     * 
+     * @return the {@link User} kicked, or {@code null} if not known
+     */
+    public final User getKicked() {
+        return kicked;
+    }
+
+    /**
+     * Gets the {@link User} kicking
+     * 
+     * @return the {@link User} kicking
+     */
+    public final User getKicker() {
+        return kicker;
+    }
+
+    /**
+     * Gets the reason given, or an empty string
+     * 
+     * @return the reason given, or an empty string
+     */
+    public final String getReason() {
+        return reason;
+    }
+
+    @Override
+    protected final Object getOrderingKey() {
+        return channel;
+    }
+}
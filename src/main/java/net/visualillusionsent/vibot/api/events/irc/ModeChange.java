@@ -0,0 +1,85 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events.irc;
+
+import net.visualillusionsent.vibot.api.events.BotEvent;
+import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.ModeChanges;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Mode Change<br>
+ * Posted when the modes of a {@link Channel} are changed
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class ModeChange extends BotEvent {
+    private final Channel channel;
+    private final User user;
+    private final ModeChanges changes;
+
+    /**
+     * Constructs a new {@code ModeChange}
+     * 
+     * @param channel
+     *            the {@link Channel}
+     * @param user
+     *            the {@link User} changing the modes
+     * @param changes
+     *            the {@link ModeChanges}
+     */
+    public ModeChange(Channel channel, User user, ModeChanges changes) {
+        this.channel = channel;
+        this.user = user;
+        this.changes = changes;
+    }
+
+    /**
+     * Gets the {@link Channel}
+     * 
+     * @return the {@link Channel}
+     */
+    public final Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets the {@link User} changing the modes
+     * 
+     * @return the {@link User} changing the modes
+     */
+    public final User getUser() {
+        return user;
+    }
+
+    /**
+     * Gets the {@link ModeChanges}
+     * 
+     * @return the {@link ModeChanges}
+     */
+    public final ModeChanges getChanges() {
+        return changes;
+    }
+
+    @Override
+    protected final Object getOrderingKey() {
+        return channel;
+    }
+}
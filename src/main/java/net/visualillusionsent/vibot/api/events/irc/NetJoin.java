@@ -0,0 +1,88 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events.irc;
+
+import java.util.List;
+
+import net.visualillusionsent.vibot.api.events.BotEvent;
+import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
+import net.visualillusionsent.vibot.io.irc.Membership;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Net Join<br>
+ * Posted when the {@link User}s lost in a netsplit have come back
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class NetJoin extends BotEvent {
+    private final IRCConnection connection;
+    private final String servers;
+    private final List<Membership> rejoined;
+
+    /**
+     * Constructs a new {@code NetJoin}
+     * 
+     * @param connection
+     *            the {@link IRCConnection} of the network
+     * @param servers
+     *            the two servers that split, lower case and separated by a space
+     * @param rejoined
+     *            the {@link Membership}s of the {@link User}s back in each {@link Channel}
+     */
+    public NetJoin(IRCConnection connection, String servers, List<Membership> rejoined) {
+        this.connection = connection;
+        this.servers = servers;
+        this.rejoined = rejoined;
+    }
+
+    /**
+     * Gets the {@link IRCConnection} of the network
+     * 
+     * @return the {@link IRCConnection} of the network
+     */
+    public final IRCConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Gets the two servers that split, lower case and separated by a space
+     * 
+     * @return the two servers that split, lower case and separated by a space
+     */
+    public final String getServers() {
+        return servers;
+    }
+
+    /**
+     * Gets the {@link Membership}s of the {@link User}s back in each {@link Channel}
+     * 
+     * @return the {@link Membership}s of the {@link User}s back in each {@link Channel}
+     */
+    public final List<Membership> getRejoined() {
+        return rejoined;
+    }
+
+    @Override
+    protected final Object getOrderingKey() {
+        return connection;
+    }
+}
@@ -0,0 +1,98 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events.irc;
+
+import net.visualillusionsent.vibot.VIBot;
+import net.visualillusionsent.vibot.api.events.BotEvent;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Nick Change<br>
+ * Posted when a {@link User}, or the {@link VIBot}, changes nick
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class NickChange extends BotEvent {
+    private final IRCConnection connection;
+    private final User user;
+    private final String oldNick;
+    private final String newNick;
+
+    /**
+     * Constructs a new {@code NickChange}
+     * 
+     * @param connection
+     *            the {@link IRCConnection} of the network
+     * @param user
+     *            the {@link User}, already renamed unless it is the {@link VIBot}
+     * @param oldNick
+     *            the nick before
+     * @param newNick
+     *            the nick after
+     */
+    public NickChange(IRCConnection connection, User user, String oldNick, String newNick) {
+        this.connection = connection;
+        this.user = user;
+        this.oldNick = oldNick;
+        this.newNick = newNick;
+    }
+
+    /**
+     * Gets the {@link IRCConnection} of the network
+     * 
+     * @return the {@link IRCConnection} of the network
+     */
+    public final IRCConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Gets the {@link User}, already renamed unless it is the {@link VIBot}
+     * 
+     * @return the {@link User}, already renamed unless it is the {@link VIBot}
+     */
+    public final User getUser() {
+        return user;
+    }
+
+    /**
+     * Gets the nick before
+     * 
+     * @return the nick before
+     */
+    public final String getOldNick() {
+        return oldNick;
+    }
+
+    /**
+     * Gets the nick after
+     * 
+     * @return the nick after
+     */
+    public final String getNewNick() {
+        return newNick;
+    }
+
+    @Override
+    protected final Object getOrderingKey() {
+        return connection;
+    }
+}
@@ -0,0 +1,101 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events.irc;
+
+import net.visualillusionsent.vibot.VIBot;
+import net.visualillusionsent.vibot.api.events.CancellableEvent;
+import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Notice<br>
+ * Posted when a notice is sent to the {@link VIBot} or to a {@link Channel} it is in
+ * <p>
+ * Cancelling it stops the notice being logged
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class Notice extends CancellableEvent {
+    private final IRCConnection connection;
+    private final User user;
+    private final Channel channel;
+    private final String message;
+
+    /**
+     * Constructs a new {@code Notice}
+     * 
+     * @param connection
+     *            the {@link IRCConnection} of the network
+     * @param user
+     *            the {@link User} sending it (for a server, a {@link User} with just the server name as nick)
+     * @param channel
+     *            the {@link Channel} it was sent to, or {@code null} if sent to the {@link VIBot}
+     * @param message
+     *            the notice
+     */
+    public Notice(IRCConnection connection, User user, Channel channel, String message) {
+        this.connection = connection;
+        this.user = user;
+        this.channel = channel;
+        this.message = message;
+    }
+
+    /**
+     * Gets the {@link IRCConnection} of the network
+     * 
+     * @return the {@link IRCConnection} of the network
+     */
+    public final IRCConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Gets the {@link User} sending it (for a server, a {@link User} with just the server name as nick)
+     * 
+     * @return the {@link User} sending it (for a server, a {@link User} with just the server name as nick)
+     */
+    public final User getUser() {
+        return user;
+    }
+
+    /**
+     * Gets the {@link Channel} it was sent to, or {@code null} if sent to the {@link VIBot}
+     * 
+     * @return the {@link Channel} it was sent to, or {@code null} if sent to the {@link VIBot}
+     */
+    public final Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets the notice
+     * 
+     * @return the notice
+     */
+    public final String getMessage() {
+        return message;
+    }
+
+    @Override
+    protected final Object getOrderingKey() {
+        return channel != null ? channel : connection;
+    }
+}
@@ -0,0 +1,121 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events.irc;
+
+import net.visualillusionsent.vibot.VIBot;
+import net.visualillusionsent.vibot.api.events.BotEvent;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
+import net.visualillusionsent.vibot.io.irc.IrcMessage;
+import net.visualillusionsent.vibot.io.irc.ReplyConstants;
+
+/**
+ * Numeric<br>
+ * Posted for every numeric reply read from the server, after the {@link IRCConnection} has dealt with it.
+ * <p>
+ * The parameters are copied out of the {@link IrcMessage}, which is reused for the next line, so it is only made when something
+ * subscribes to it.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class Numeric extends BotEvent {
+    private final IRCConnection connection;
+    private final int numeric;
+    private final String source;
+    private final String[] params;
+
+    /**
+     * Constructs a new {@code Numeric}
+     * 
+     * @param connection
+     *            the {@link IRCConnection} of the network
+     * @param message
+     *            the {@link IrcMessage} holding the reply
+     */
+    public Numeric(IRCConnection connection, IrcMessage message) {
+        this.connection = connection;
+        this.numeric = message.getNumeric();
+        this.source = message.getPrefix();
+        this.params = new String[message.getParamCount()];
+        for (int index = 0; index < params.length; index++) {
+            params[index] = message.getParam(index);
+        }
+    }
+
+    /**
+     * Gets the {@link IRCConnection} of the network
+     * 
+     * @return the {@link IRCConnection} of the network
+     */
+    public final IRCConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Gets the numeric (see {@link ReplyConstants})
+     * 
+     * @return the numeric
+     */
+    public final int getNumeric() {
+        return numeric;
+    }
+
+    /**
+     * Gets the server that sent the reply
+     * 
+     * @return the server name, or an empty string if not given
+     */
+    public final String getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the number of parameters, the first being the nick of the {@link VIBot}
+     * 
+     * @return the number of parameters
+     */
+    public final int getParamCount() {
+        return params.length;
+    }
+
+    /**
+     * Gets a parameter
+     * 
+     * @param index
+     *            the index of the parameter
+     * @return the parameter, or an empty string if there are not that many
+     */
+    public final String getParam(int index) {
+        return index >= 0 && index < params.length ? params[index] : "";
+    }
+
+    /**
+     * Gets the last parameter, which is usually the text of the reply
+     * 
+     * @return the last parameter, or an empty string if there are none
+     */
+    public final String getTrailing() {
+        return params.length > 0 ? params[params.length - 1] : "";
+    }
+
+    @Override
+    protected final Object getOrderingKey() {
+        return connection;
+    }
+}
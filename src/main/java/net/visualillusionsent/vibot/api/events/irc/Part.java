@@ -0,0 +1,71 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events.irc;
+
+import net.visualillusionsent.vibot.api.events.BotEvent;
+import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Part<br>
+ * Posted when a {@link User} leaves a {@link Channel}
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class Part extends BotEvent {
+    private final Channel channel;
+    private final User user;
+
+    /**
+     * Constructs a new {@code Part}
+     * 
+     * @param channel
+     *            the {@link Channel} left
+     * @param user
+     *            the {@link User} leaving
+     */
+    public Part(Channel channel, User user) {
+        this.channel = channel;
+        this.user = user;
+    }
+
+    /**
+     * Gets the {@link Channel} left
+     * 
+     * @return the {@link Channel} left
+     */
+    public final Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets the {@link User} leaving
+     * 
+     * @return the {@link User} leaving
+     */
+    public final User getUser() {
+        return user;
+    }
+
+    @Override
+    protected final Object getOrderingKey() {
+        return channel;
+    }
+}
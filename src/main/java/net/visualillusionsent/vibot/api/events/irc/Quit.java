@@ -0,0 +1,113 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events.irc;
+
+import java.util.List;
+
+import net.visualillusionsent.vibot.api.events.BotEvent;
+import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Quit<br>
+ * Posted when a {@link User} quits the network, including in a netsplit
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class Quit extends BotEvent {
+    private final IRCConnection connection;
+    private final User user;
+    private final String reason;
+    private final List<Channel> channels;
+    private final String servers;
+
+    /**
+     * Constructs a new {@code Quit}
+     * 
+     * @param connection
+     *            the {@link IRCConnection} of the network
+     * @param user
+     *            the {@link User} quitting
+     * @param reason
+     *            the quit message
+     * @param channels
+     *            the {@link Channel}s the {@link User} was in
+     * @param servers
+     *            the two servers that split if it was a netsplit, otherwise {@code null}
+     */
+    public Quit(IRCConnection connection, User user, String reason, List<Channel> channels, String servers) {
+        this.connection = connection;
+        this.user = user;
+        this.reason = reason;
+        this.channels = channels;
+        this.servers = servers;
+    }
+
+    /**
+     * Gets the {@link IRCConnection} of the network
+     * 
+     * @return the {@link IRCConnection} of the network
+     */
+    public final IRCConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Gets the {@link User} quitting
+     * 
+     * @return the {@link User} quitting
+     */
+    public final User getUser() {
+        return user;
+    }
+
+    /**
+     * Gets the quit message
+     * 
+     * @return the quit message
+     */
+    public final String getReason() {
+        return reason;
+    }
+
+    /**
+     * Gets the {@link Channel}s the {@link User} was in
+     * 
+     * @return the {@link Channel}s the {@link User} was in
+     */
+    public final List<Channel> getChannels() {
+        return channels;
+    }
+
+    /**
+     * Gets the two servers that split if it was a netsplit, otherwise {@code null}
+     * 
+     * @return the two servers that split if it was a netsplit, otherwise {@code null}
+     */
+    public final String getServers() {
+        return servers;
+    }
+
+    @Override
+    protected final Object getOrderingKey() {
+        return connection;
+    }
+}
@@ -0,0 +1,85 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.api.events.irc;
+
+import net.visualillusionsent.vibot.api.events.BotEvent;
+import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.Topic;
+import net.visualillusionsent.vibot.io.irc.User;
+
+/**
+ * Topic Change<br>
+ * Posted when the topic of a {@link Channel} is changed
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class TopicChange extends BotEvent {
+    private final Channel channel;
+    private final User user;
+    private final Topic topic;
+
+    /**
+     * Constructs a new {@code TopicChange}
+     * 
+     * @param channel
+     *            the {@link Channel}
+     * @param user
+     *            the {@link User} changing it
+     * @param topic
+     *            the new {@link Topic}
+     */
+    public TopicChange(Channel channel, User user, Topic topic) {
+        this.channel = channel;
+        this.user = user;
+        this.topic = topic;
+    }
+
+    /**
+     * Gets the {@link Channel}
+     * 
+     * @return the {@link Channel}
+     */
+    public final Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets the {@link User} changing it
+     * 
+     * @return the {@link User} changing it
+     */
+    public final User getUser() {
+        return user;
+    }
+
+    /**
+     * Gets the new {@link Topic}
+     * 
+     * @return the new {@link Topic}
+     */
+    public final Topic getTopic() {
+        return topic;
+    }
+
+    @Override
+    protected final Object getOrderingKey() {
+        return channel;
+    }
+}
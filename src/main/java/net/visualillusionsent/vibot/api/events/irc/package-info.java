@@ -0,0 +1,4 @@
+/**
+ * IRC Events package, the {@link net.visualillusionsent.vibot.api.events.BotEvent}s posted for what happens on IRC
+ */
+package net.visualillusionsent.vibot.api.events.irc;
@@ -48,7 +48,7 @@ public final class IdentifyCommand extends BaseCommand {
 
     @Override
     public final boolean execute(Channel channel, User user, String[] args) {
-        VIBot.identify();
+        getConnection(channel, user).identify();
         return true;
     }
 }
@@ -53,7 +53,7 @@ public final class JoinChannelCommand extends BaseCommand {
         }
         else {
             user.sendNotice("Attempting to join Channel: '" + args[0] + "'");
-            VIBot.joinChannel(args[0]);
+            getConnection(channel, user).join(args[0]);
         }
         return true;
     }
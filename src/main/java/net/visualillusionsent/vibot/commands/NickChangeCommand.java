@@ -48,7 +48,7 @@ public final class NickChangeCommand extends BaseCommand {
 
     @Override
     public final synchronized boolean execute(Channel channel, User user, String[] args) {
-        VIBot.changeBotNick(args[0]);
+        getConnection(channel, user).changeNick(args[0]);
         return true;
     }
 }
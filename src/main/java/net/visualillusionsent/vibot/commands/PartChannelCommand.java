@@ -57,7 +57,7 @@ public final class PartChannelCommand extends BaseCommand {
                     reason = StringUtils.joinString(args, " ", 0);
                 }
                 catch (UtilityException e) {}
-                VIBot.partChannel(channel.getName(), reason);
+                getConnection(channel, user).part(channel.getName(), reason);
             }
             else {
                 try {
@@ -65,19 +65,19 @@ public final class PartChannelCommand extends BaseCommand {
                 }
                 catch (UtilityException e) {}
 
-                VIBot.partChannel(args[1], reason);
+                getConnection(channel, user).part(args[1], reason);
             }
         }
         else if (args.length > 0) {
             if (args[0].startsWith("#")) {
-                VIBot.partChannel(args[0], reason);
+                getConnection(channel, user).part(args[0], reason);
             }
             else {
-                VIBot.partChannel(channel.getName(), reason);
+                getConnection(channel, user).part(channel.getName(), reason);
             }
         }
         else {
-            VIBot.partChannel(channel.getName(), reason);
+            getConnection(channel, user).part(channel.getName(), reason);
         }
         return true;
     }
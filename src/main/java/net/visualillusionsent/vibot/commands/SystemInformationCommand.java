@@ -27,7 +27,9 @@ import net.visualillusionsent.vibot.api.commands.BaseCommand;
 import net.visualillusionsent.vibot.api.commands.BotCommand;
 import net.visualillusionsent.vibot.api.plugin.BotPlugin;
 import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
 import net.visualillusionsent.vibot.io.irc.User;
+import net.visualillusionsent.vibot.io.irc.WriteMetrics;
 
 /**
  * Information Command<br>
@@ -63,6 +65,9 @@ public final class SystemInformationCommand extends BaseCommand {
         else {
             message(channel, user, "Unable to determin System Information...");
         }
+        IRCConnection irc_conn = getConnection(channel, user);
+        WriteMetrics metrics = irc_conn.getWriteMetrics();
+        message(channel, user, String.format("Sent to %s: %d lines, %d bytes in %d writes (%d flushes)", irc_conn.getNetworkName(), metrics.getLines(), metrics.getBytes(), metrics.getWrites(), metrics.getFlushes()));
         return true;
     }
 
@@ -21,6 +21,7 @@ import net.visualillusionsent.vibot.api.commands.BaseCommand;
 import net.visualillusionsent.vibot.api.commands.BotCommand;
 import net.visualillusionsent.vibot.api.plugin.BotPlugin;
 import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.Membership;
 import net.visualillusionsent.vibot.io.irc.Topic;
 import net.visualillusionsent.vibot.io.irc.User;
 
@@ -45,7 +46,7 @@ public final class TopicCommand extends BaseCommand {
 
     @Override
     public final synchronized boolean execute(Channel channel, User user, String[] args) {
-        if (args.length > 0 && user.hasVoice()) {
+        if (args.length > 0 && user.hasStatus(channel, Membership.AT_LEAST_VOICE)) {
             User theUser = channel.getUser(args[0]);
             if (theUser != null) {
                 if (channel.getTopic() != null) {
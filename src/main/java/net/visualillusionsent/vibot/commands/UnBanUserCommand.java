@@ -56,8 +56,8 @@ public class UnBanUserCommand extends BaseCommand {
         Ban[] bans = channel.getBansFor(args[0]);
         if (bans != null) {
             for (Ban ban : bans) {
-                channel.unBanUser(ban.getBanned());
-                user.sendNotice("Unbanned User: " + ban.getBanned().getHostMask());
+                channel.setMode("-b ".concat(ban.getMask()));
+                user.sendNotice("Unbanned User: " + ban.getMask());
             }
         }
         else {
@@ -33,8 +33,8 @@ import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.HashMap;
 
-import net.visualillusionsent.vibot.VIBot;
 import net.visualillusionsent.vibot.io.configuration.BotConfig;
 import net.visualillusionsent.vibot.io.logging.BotLogMan;
 
@@ -47,6 +47,9 @@ import net.visualillusionsent.vibot.io.logging.BotLogMan;
  * <p>
  * So when a VIBot is run on a machine that does not run an ident server, it may be necessary to provide a "faked" response by starting up its own ident server and sending out apparently correct responses.
  * <p>
+ * One IdentServer listens for the whole VIBot. Each network's connection is registered by its pair of ports, so a request is answered with
+ * the login of the network it asks about, however many networks are connecting at once.
+ * <p>
  * This class contains code derived from PircBot<br>
  * PircBot is Copyrighted: Paul James Mutton, 2001-2009, <a href="http://www.jibble.org/">http://www.jibble.org/</a><br>
  * and dual Licensed under the <a href="http://www.gnu.org/licenses/gpl.html">GNU General Public License</a>/<a href="http://www.jibble.org/licenses/commercial-license.php">www.jibble.org Commercial License</a>
@@ -57,60 +60,162 @@ import net.visualillusionsent.vibot.io.logging.BotLogMan;
  * @author Paul James Mutton (PircBot)
  */
 public class IdentServer extends Thread {
-    private ServerSocket ss = null;
 
     /**
-     * Constructs and starts an instance of an IdentServer that will respond to
-     * a client with the provided login.
-     * <p>
-     * The ident server will wait for up to 120 seconds before shutting down. Otherwise, it will shut down as soon as it has responded to an ident request.
+     * How long in milliseconds a request waits for its connection to be registered, as the server may ask before the connect returns
+     */
+    private static final long REGISTER_WAIT = 5000;
+
+    private static final HashMap<String, String> logins = new HashMap<String, String>();
+    private static IdentServer instance;
+    private final ServerSocket ss;
+
+    /**
+     * Constructs an instance of an IdentServer listening on the port from the {@link BotConfig}
      * 
-     * @param bot
-     *            The VIBot instance that will be used to log to.
      * @throws IOException
      *             if the {@code IdentServer} is unable to bind to the specified port
      * @code.derivative PircBot
      */
-    public IdentServer(VIBot bot) throws IOException {
+    private IdentServer() throws IOException {
         super("IdentServer-Thread");
         int port = BotConfig.getIdentPort();
         try {
             ss = new ServerSocket(port);
-            ss.setSoTimeout(120000);
         }
         catch (Exception e) {
             throw new IOException("Could not start the ident server on port ".concat(String.valueOf(port)).concat("."), e);
         }
+        this.setDaemon(true);
+    }
 
-        BotLogMan.info("Ident server running on port ".concat(String.valueOf(BotConfig.getIdentPort())).concat(" for the next 120 seconds..."));
-        this.start();
+    /**
+     * Starts the IdentServer if it is not already running
+     * 
+     * @throws IOException
+     *             if the {@code IdentServer} is unable to bind to the specified port
+     */
+    public static synchronized void listen() throws IOException {
+        if (instance == null) {
+            instance = new IdentServer();
+            instance.start();
+            BotLogMan.info("Ident server running on port ".concat(String.valueOf(BotConfig.getIdentPort())).concat("..."));
+        }
     }
 
     /**
-     * Waits for a client to connect to the ident server before making an
-     * appropriate response. Note that this method is started by the class
-     * constructor.
+     * Registers the login to answer with for a connection
      * 
-     * @code.derivative PircBot
+     * @param localPort
+     *            the port of the connection on this machine
+     * @param remotePort
+     *            the port of the connection on the server
+     * @param login
+     *            the login to respond with
+     */
+    public static void register(int localPort, int remotePort, String login) {
+        synchronized (logins) {
+            logins.put(key(localPort, remotePort), login);
+            logins.notifyAll();
+        }
+    }
+
+    /**
+     * Forgets a connection registered with {@link #register(int, int, String)}
+     * 
+     * @param localPort
+     *            the port of the connection on this machine
+     * @param remotePort
+     *            the port of the connection on the server
+     */
+    public static void unregister(int localPort, int remotePort) {
+        synchronized (logins) {
+            logins.remove(key(localPort, remotePort));
+        }
+    }
+
+    /**
+     * Gets the login registered for a connection, waiting a while for it to be registered
+     * 
+     * @return the login, or {@code null} if no such connection was registered
+     */
+    private static String getLogin(int localPort, int remotePort) throws InterruptedException {
+        String key = key(localPort, remotePort);
+        long deadline = System.currentTimeMillis() + REGISTER_WAIT;
+        synchronized (logins) {
+            String login;
+            long left;
+            while ((login = logins.get(key)) == null && (left = deadline - System.currentTimeMillis()) > 0) {
+                logins.wait(left);
+            }
+            return login;
+        }
+    }
+
+    private static String key(int localPort, int remotePort) {
+        return String.valueOf(localPort).concat(",").concat(String.valueOf(remotePort));
+    }
+
+    /**
+     * Waits for clients to connect to the ident server, answering each on its own thread as it may have to wait for its connection to be
+     * registered. Note that this method is started by {@link #listen()}.
      */
     public void run() {
+        while (true) {
+            final Socket socket;
+            try {
+                socket = ss.accept();
+            }
+            catch (IOException ioe) {
+                BotLogMan.warning("The Ident server has been shut down: ", ioe);
+                break;
+            }
+            Thread request = new Thread("IdentRequest-Thread") {
+                @Override
+                public void run() {
+                    respond(socket);
+                }
+            };
+            request.setDaemon(true);
+            request.start();
+        }
+        synchronized (IdentServer.class) {
+            instance = null;
+        }
+    }
+
+    /**
+     * Reads an ident request and sends the appropriate response
+     * 
+     * @param socket
+     *            the client's {@link Socket}
+     * @code.derivative PircBot
+     */
+    private static void respond(Socket socket) {
         BufferedWriter writer = null;
         BufferedReader reader = null;
         try {
-            Socket socket = ss.accept();
-            socket.setSoTimeout(119998);
+            socket.setSoTimeout(30000);
 
             reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
             writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
 
             String line = reader.readLine();
-            while (line != null) {
+            if (line != null) {
                 BotLogMan.info("Ident request received: ".concat(line));
-                line = line.concat(" : USERID : UNIX : ").concat(BotConfig.getLogin());
-                writer.write(line.concat("\r\n"));
+                String ports = line.trim();
+                String reply;
+                try {
+                    int comma = ports.indexOf(',');
+                    String login = getLogin(Integer.parseInt(ports.substring(0, comma).trim()), Integer.parseInt(ports.substring(comma + 1).trim()));
+                    reply = login != null ? ports.concat(" : USERID : UNIX : ").concat(login) : ports.concat(" : ERROR : NO-USER");
+                }
+                catch (RuntimeException re) {
+                    reply = ports.concat(" : ERROR : INVALID-PORT");
+                }
+                writer.write(reply.concat("\r\n"));
                 writer.flush();
-                BotLogMan.info("Ident reply sent: ".concat(line));
-                break;
+                BotLogMan.info("Ident reply sent: ".concat(reply));
             }
         }
         catch (Exception e) {
@@ -124,15 +229,12 @@ public class IdentServer extends Thread {
             catch (Exception e) {
                 // Doesn't really matter...
             }
+            try {
+                socket.close();
+            }
+            catch (Exception e) {
+                // Doesn't really matter...
+            }
         }
-
-        try {
-            ss.close();
-        }
-        catch (Exception e) {
-            // Doesn't really matter...
-        }
-
-        BotLogMan.info("The Ident server has been shut down.");
     }
 }
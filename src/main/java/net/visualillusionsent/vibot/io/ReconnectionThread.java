@@ -17,42 +17,32 @@
  */
 package net.visualillusionsent.vibot.io;
 
-import java.io.IOException;
-
 import net.visualillusionsent.vibot.VIBot;
-import net.visualillusionsent.vibot.io.configuration.BotConfig;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
 import net.visualillusionsent.vibot.io.logging.BotLogMan;
 
 /**
  * Reconnection Thread<br>
- * Handles reconnecting to the server if the {@link VIBot} gets disconnected without being told to do so.
+ * Handles reconnecting an {@link IRCConnection} to its server if the {@link VIBot} gets disconnected without being told to do so.
  * 
  * @since 1.0
  * @version 1.0
  * @author Jason (darkdiplomat)
  */
 public final class ReconnectionThread extends Thread {
-    private VIBot bot;
+    private final IRCConnection irc_conn;
 
-    public ReconnectionThread(VIBot bot) {
+    public ReconnectionThread(IRCConnection irc_conn) {
         super("ReconnectionThread-Thread");
-        this.bot = bot;
+        this.irc_conn = irc_conn;
         this.setDaemon(true);
     }
 
     public void run() {
-        while (!VIBot.isConnected() && !VIBot.isShuttingDown()) {
+        while (!irc_conn.isConnected() && !VIBot.isShuttingDown()) {
             try {
-                BotLogMan.info("Attempting reconnection...");
-                if (BotConfig.useIdentServer()) {
-                    try {
-                        new IdentServer(bot);
-                    }
-                    catch (IOException ioe) {
-                        BotLogMan.warning("", ioe);
-                    }
-                }
-                bot.reconnect();
+                BotLogMan.info("Attempting reconnection to network: ".concat(irc_conn.getNetworkName()).concat("..."));
+                irc_conn.reconnect();
             }
             catch (Exception e) {
                 BotLogMan.warning("Reconnect failed... Trying again in 2 minutes...");
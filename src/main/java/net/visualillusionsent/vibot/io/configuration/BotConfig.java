@@ -18,7 +18,7 @@
 package net.visualillusionsent.vibot.io.configuration;
 
 import java.io.File;
-import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 
 import net.visualillusionsent.utils.FileUtils;
 import net.visualillusionsent.utils.PropertiesFile;
@@ -40,13 +40,14 @@ import net.visualillusionsent.vibot.io.logging.BotLogMan;
 public final class BotConfig {
     private static BotConfig instance;
     private PropertiesFile props;
-    private String botname, login, server, server_pass, nickserv_pass, join_message, part_message, quit_message, encoding;
-    private String[] plugins = new String[] { "" }, channels = new String[] { "" }, bot_owners = new String[] { "" };
+    private NetworkConfig network;
+    private NetworkConfig[] networks = new NetworkConfig[0];
+    private String join_message, part_message, quit_message;
+    private String[] plugins = new String[] { "" }, bot_owners = new String[] { "" };
     private char cmd_Prefix = '!';
-    private boolean autonickchange = true, ident = true;
-    private int serv_port = 6667, ident_port = 113;
+    private boolean ident = true;
+    private int ident_port = 113;
     private int[] dcc_ports = new int[] {};
-    private long messageDelay = 750;
 
     /**
      * Constructs a new {@code BotConfig}
@@ -93,20 +94,12 @@ public final class BotConfig {
         }
 
         props = new PropertiesFile("botprops.ini");
-        botname = props.getString("Bot-Name");
-        login = props.getString("Login-Name");
-        autonickchange = props.getBoolean("AutoNickChange");
-        nickserv_pass = props.getString("NickServ-Password");
-        server = props.getString("Server");
-        server_pass = props.getString("Server-Password");
-        serv_port = props.getInt("Server-Port");
+        network = new NetworkConfig("default", props, null);
         ident = props.getBoolean("Use-Ident-Server");
         ident_port = props.getInt("Ident-Port");
-        channels = props.getString("Channels").split(",");
         join_message = props.getString("Join-Message");
         part_message = props.getString("Part-Message");
         quit_message = props.getString("Quit-Message");
-        messageDelay = props.getInt("Message-Delay");
         cmd_Prefix = props.getCharacter("Command-Prefix");
         bot_owners = props.getStringArray("Bot-Owner-Nicks");
         plugins = props.getString("Plugins").split(",");
@@ -117,7 +110,7 @@ public final class BotConfig {
             //Skiping the error on this one
             dcc_ports = new int[] {};
         }
-        checkEncoding();
+        loadNetworks();
         BotLogMan.info("Properties Loaded...");
     }
 
@@ -131,20 +124,32 @@ public final class BotConfig {
     }
 
     /**
-     * Checks for vaild Encoding
+     * Loads the {@link NetworkConfig}s for the networks listed in the Networks property
      * 
      * @throws UtilityException
+     *             if a property is invalid
      */
-    private void checkEncoding() throws UtilityException {
-        String encode = props.getString("Encoding");
+    private void loadNetworks() throws UtilityException {
+        ArrayList<NetworkConfig> temp = new ArrayList<NetworkConfig>();
+        temp.add(network);
+        String names = "";
         try {
-            "".getBytes(encode);
-            encoding = encode;
+            names = props.getString("Networks");
+        }
+        catch (UtilityException ue) {
+            //Older properties files won't have this one, just the default network then
         }
-        catch (UnsupportedEncodingException e) {
-            BotLogMan.warning("Invaild Encoding... Using UTF-8");
-            encoding = "UTF-8";
+        for (String name : names.split(",")) {
+            name = name.trim();
+            if (name.isEmpty() || name.equals(network.getName())) {
+                continue;
+            }
+            NetworkConfig config = NetworkConfig.loadNetwork(name, network);
+            if (config != null) {
+                temp.add(config);
+            }
         }
+        networks = temp.toArray(new NetworkConfig[temp.size()]);
     }
 
     /**
@@ -153,7 +158,7 @@ public final class BotConfig {
      * @return {@code true} if auto changes; {@code false} otherwise
      */
     public static boolean autoNickChange() {
-        return getInstance().autonickchange;
+        return getInstance().network.autoNickChange();
     }
 
     /**
@@ -165,6 +170,15 @@ public final class BotConfig {
         return getInstance().ident;
     }
 
+    /**
+     * Gets whether to use the selector based NIO transport instead of the blocking socket transport
+     * 
+     * @return {@code true} if to use NIO; {@code false} otherwise
+     */
+    public static boolean useNIO() {
+        return getInstance().network.useNIO();
+    }
+
     public static boolean getDebug() {
         return false;
     }
@@ -193,7 +207,7 @@ public final class BotConfig {
      * @return IRC Server port
      */
     public static int getServerPort() {
-        return getInstance().serv_port;
+        return getInstance().network.getServerPort();
     }
 
     /**
@@ -216,12 +230,12 @@ public final class BotConfig {
     }
 
     /**
-     * Gets the delay in miliseconds between messages sent to the IRC Server
+     * Gets the flood penalty in miliseconds charged for each message sent to the IRC Server
      * 
      * @return message delay in miliseconds
      */
     public static long getMessageDelay() {
-        return getInstance().messageDelay;
+        return getInstance().network.getMessageDelay();
     }
 
     /**
@@ -230,7 +244,7 @@ public final class BotConfig {
      * @return nick for the {@link VIBot}
      */
     public static String getBotName() {
-        return getInstance().botname;
+        return getInstance().network.getBotName();
     }
 
     /**
@@ -239,7 +253,7 @@ public final class BotConfig {
      * @return IRC Server URL
      */
     public static String getServer() {
-        return getInstance().server;
+        return getInstance().network.getServer();
     }
 
     /**
@@ -248,7 +262,7 @@ public final class BotConfig {
      * @return IRC Server Password
      */
     public static String getServerPassword() {
-        return getInstance().server_pass;
+        return getInstance().network.getServerPassword();
     }
 
     /**
@@ -257,7 +271,7 @@ public final class BotConfig {
      * @return NickServ password
      */
     public static String getNickServPassword() {
-        return getInstance().nickserv_pass;
+        return getInstance().network.getNickServPassword();
     }
 
     /**
@@ -293,7 +307,7 @@ public final class BotConfig {
      * @return login
      */
     public static String getLogin() {
-        return getInstance().login;
+        return getInstance().network.getLogin();
     }
 
     /**
@@ -302,7 +316,7 @@ public final class BotConfig {
      * @return encoding
      */
     public static String getEncoding() {
-        return getInstance().encoding;
+        return getInstance().network.getEncoding();
     }
 
     /**
@@ -320,7 +334,7 @@ public final class BotConfig {
      * @return list of {@link Channel}s
      */
     public static String[] getChannels() {
-        return (String[]) getInstance().channels.clone();
+        return getInstance().network.getChannels();
     }
 
     /**
@@ -331,4 +345,22 @@ public final class BotConfig {
     public static String[] getBotOwners() {
         return (String[]) getInstance().bot_owners.clone();
     }
+
+    /**
+     * Gets the {@link NetworkConfig} of the default network
+     * 
+     * @return the default {@link NetworkConfig}
+     */
+    public static NetworkConfig getDefaultNetwork() {
+        return getInstance().network;
+    }
+
+    /**
+     * Gets the {@link NetworkConfig}s of all the networks to connect to, the default network first
+     * 
+     * @return the {@link NetworkConfig}s
+     */
+    public static NetworkConfig[] getNetworks() {
+        return (NetworkConfig[]) getInstance().networks.clone();
+    }
 }
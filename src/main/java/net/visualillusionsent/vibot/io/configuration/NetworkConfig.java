@@ -0,0 +1,361 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.configuration;
+
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+
+import net.visualillusionsent.utils.PropertiesFile;
+import net.visualillusionsent.utils.UtilityException;
+import net.visualillusionsent.vibot.VIBot;
+import net.visualillusionsent.vibot.io.irc.Channel;
+import net.visualillusionsent.vibot.io.irc.IRCConnection;
+import net.visualillusionsent.vibot.io.logging.BotLogMan;
+
+/**
+ * Handles the per network configuration of the {@link VIBot}
+ * <p>
+ * The default network is configured by the botprops.ini itself. Each additional network listed in the {@code Networks} property
+ * is configured by a networks/%name%.ini file, any property left out of that file is taken from the default network.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class NetworkConfig {
+    private final String name;
+    private final PropertiesFile props;
+    private final NetworkConfig defaults;
+    private String botname, login, server, server_pass, nickserv_pass, encoding;
+    private String[] channels = new String[] { "" };
+    private boolean autonickchange = true, nio = true, coalesce = false;
+    private int serv_port = 6667, queueCapacity = 256;
+    private long messageDelay = 750, floodBytePenalty = 4, floodWindow = 8000, netsplitExpire = 1800;
+
+    /**
+     * Constructs a new {@code NetworkConfig}
+     * 
+     * @param name
+     *            the name of the network
+     * @param props
+     *            the {@link PropertiesFile} to read the network settings from
+     * @param defaults
+     *            the {@code NetworkConfig} to take missing settings from, or {@code null} if all settings are required
+     * @throws UtilityException
+     *             if a property is invalid
+     */
+    NetworkConfig(String name, PropertiesFile props, NetworkConfig defaults) throws UtilityException {
+        this.name = name;
+        this.props = props;
+        this.defaults = defaults;
+        load();
+    }
+
+    /**
+     * Loads the network configuration
+     * 
+     * @throws UtilityException
+     *             if a property is invalid
+     */
+    private void load() throws UtilityException {
+        botname = getString("Bot-Name", defaults != null ? defaults.botname : null);
+        login = getString("Login-Name", defaults != null ? defaults.login : null);
+        autonickchange = getBoolean("AutoNickChange", defaults != null ? defaults.autonickchange : true);
+        nickserv_pass = getString("NickServ-Password", defaults != null ? defaults.nickserv_pass : null);
+        server = getString("Server", defaults != null ? defaults.server : null);
+        server_pass = getString("Server-Password", defaults != null ? defaults.server_pass : null);
+        serv_port = getInt("Server-Port", defaults != null ? defaults.serv_port : 6667);
+        String chans = getString("Channels", null);
+        channels = chans != null ? chans.split(",") : (String[]) defaults.channels.clone();
+        messageDelay = getInt("Message-Delay", defaults != null ? (int) defaults.messageDelay : 750);
+        try {
+            floodBytePenalty = props.getInt("Flood-Byte-Penalty");
+        }
+        catch (UtilityException ue) {
+            //Older properties files won't have this one
+            floodBytePenalty = defaults != null ? defaults.floodBytePenalty : 4;
+        }
+        try {
+            floodWindow = props.getInt("Flood-Window");
+        }
+        catch (UtilityException ue) {
+            //Older properties files won't have this one
+            floodWindow = defaults != null ? defaults.floodWindow : 8000;
+        }
+        try {
+            netsplitExpire = props.getInt("Netsplit-Expire");
+        }
+        catch (UtilityException ue) {
+            //Older properties files won't have this one
+            netsplitExpire = defaults != null ? defaults.netsplitExpire : 1800;
+        }
+        try {
+            queueCapacity = props.getInt("Queue-Capacity");
+        }
+        catch (UtilityException ue) {
+            //Older properties files won't have this one
+            queueCapacity = defaults != null ? defaults.queueCapacity : 256;
+        }
+        try {
+            coalesce = props.getBoolean("Coalesce-Messages");
+        }
+        catch (UtilityException ue) {
+            //Older properties files won't have this one
+            coalesce = defaults != null ? defaults.coalesce : false;
+        }
+        try {
+            nio = props.getBoolean("Use-NIO");
+        }
+        catch (UtilityException ue) {
+            //Older properties files won't have this one, default to NIO
+            nio = defaults != null ? defaults.nio : true;
+        }
+        checkEncoding(getString("Encoding", defaults != null ? defaults.encoding : null));
+    }
+
+    /**
+     * Checks for vaild Encoding
+     * 
+     * @param encode
+     *            the encoding to check
+     */
+    private void checkEncoding(String encode) {
+        try {
+            "".getBytes(encode);
+            encoding = encode;
+        }
+        catch (UnsupportedEncodingException e) {
+            BotLogMan.warning("Invaild Encoding for network '".concat(name).concat("'... Using UTF-8"));
+            encoding = "UTF-8";
+        }
+    }
+
+    private String getString(String key, String fallback) throws UtilityException {
+        try {
+            return props.getString(key);
+        }
+        catch (UtilityException ue) {
+            if (defaults == null) {
+                throw ue;
+            }
+            return fallback;
+        }
+    }
+
+    private boolean getBoolean(String key, boolean fallback) throws UtilityException {
+        try {
+            return props.getBoolean(key);
+        }
+        catch (UtilityException ue) {
+            if (defaults == null) {
+                throw ue;
+            }
+            return fallback;
+        }
+    }
+
+    private int getInt(String key, int fallback) throws UtilityException {
+        try {
+            return props.getInt(key);
+        }
+        catch (UtilityException ue) {
+            if (defaults == null) {
+                throw ue;
+            }
+            return fallback;
+        }
+    }
+
+    /**
+     * Loads the {@code NetworkConfig} for an additional network from networks/%name%.ini
+     * 
+     * @param name
+     *            the name of the network
+     * @param defaults
+     *            the default network's {@code NetworkConfig}
+     * @return the {@code NetworkConfig} or {@code null} if the network has no configuration file
+     * @throws UtilityException
+     *             if a property is invalid
+     */
+    static NetworkConfig loadNetwork(String name, NetworkConfig defaults) throws UtilityException {
+        File file = new File("networks/".concat(name).concat(".ini"));
+        if (!file.exists()) {
+            BotLogMan.warning("Missing configuration for network '".concat(name).concat("' (").concat(file.getPath()).concat(") skipping..."));
+            return null;
+        }
+        return new NetworkConfig(name, new PropertiesFile(file.getPath()), defaults);
+    }
+
+    /**
+     * Gets the name of the network, used to look up the {@link IRCConnection} for it
+     * 
+     * @return the network name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets whether the {@link VIBot} nick should autochange for nick in use
+     * 
+     * @return {@code true} if auto changes; {@code false} otherwise
+     */
+    public boolean autoNickChange() {
+        return autonickchange;
+    }
+
+    /**
+     * Gets whether to use the selector based NIO transport instead of the blocking socket transport
+     * 
+     * @return {@code true} if to use NIO; {@code false} otherwise
+     */
+    public boolean useNIO() {
+        return nio;
+    }
+
+    /**
+     * Gets whether short messages waiting to be sent should be merged into fewer lines
+     * 
+     * @return {@code true} if to coalesce; {@code false} otherwise
+     */
+    public boolean coalesceMessages() {
+        return coalesce;
+    }
+
+    /**
+     * Gets the port to use to connect to the IRC Server
+     * 
+     * @return IRC Server port
+     */
+    public int getServerPort() {
+        return serv_port;
+    }
+
+    /**
+     * Gets the flood penalty in miliseconds charged for each message sent to the IRC Server
+     * 
+     * @return message delay in miliseconds
+     */
+    public long getMessageDelay() {
+        return messageDelay;
+    }
+
+    /**
+     * Gets the flood penalty in miliseconds charged for each byte of a message sent to the IRC Server
+     * 
+     * @return byte penalty in miliseconds
+     */
+    public long getFloodBytePenalty() {
+        return floodBytePenalty;
+    }
+
+    /**
+     * Gets how far in miliseconds the flood penalty may run ahead before messages are held back
+     * 
+     * @return flood window in miliseconds
+     */
+    public long getFloodWindow() {
+        return floodWindow;
+    }
+
+    /**
+     * Gets how long in seconds the nicks lost in a netsplit are remembered, so their joins are not taken as new joins
+     * 
+     * @return netsplit expiry in seconds
+     */
+    public long getNetsplitExpire() {
+        return netsplitExpire;
+    }
+
+    /**
+     * Gets the maximum number of messages each lane of the outgoing message queue may hold
+     * 
+     * @return queue capacity
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Gets the nick to use for the {@link VIBot}
+     * 
+     * @return nick for the {@link VIBot}
+     */
+    public String getBotName() {
+        return botname;
+    }
+
+    /**
+     * Gets the IRC Server URL
+     * 
+     * @return IRC Server URL
+     */
+    public String getServer() {
+        return server;
+    }
+
+    /**
+     * Gets the IRC Server password
+     * 
+     * @return IRC Server Password
+     */
+    public String getServerPassword() {
+        return server_pass;
+    }
+
+    /**
+     * Gets the NickServ password for the {@link VIBot}
+     * 
+     * @return NickServ password
+     */
+    public String getNickServPassword() {
+        return nickserv_pass;
+    }
+
+    /**
+     * Gets the login to use for the {@link VIBot}
+     * 
+     * @return login
+     */
+    public String getLogin() {
+        return login;
+    }
+
+    /**
+     * Gets the encoding to use on the network
+     * 
+     * @return encoding
+     */
+    public String getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Gets the list of {@link Channel}s to join by default
+     * 
+     * @return list of {@link Channel}s
+     */
+    public String[] getChannels() {
+        return (String[]) channels.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NetworkConfig[Name=%s Server=%s:%d]", name, server, serv_port);
+    }
+}
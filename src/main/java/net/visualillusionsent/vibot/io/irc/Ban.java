@@ -18,7 +18,7 @@
 package net.visualillusionsent.vibot.io.irc;
 
 /**
- * Ban container for {@link User}s banned in a {@link Channel}
+ * Ban container for {@link User}s banned in a {@link Channel}, also used for the ban exception and invite exception lists
  * 
  * @since 1.0
  * @version 1.0
@@ -36,6 +36,11 @@ public final class Ban {
      */
     private final User banned;
 
+    /**
+     * The compiled mask of the {@code Ban}
+     */
+    private final HostMask hostmask;
+
     /**
      * The {@link User} who did the banning
      */
@@ -61,10 +66,35 @@ public final class Ban {
     public Ban(Channel channel, User banned, User bannedBy, String datetime) {
         this.channel = channel;
         this.banned = banned;
+        this.hostmask = new HostMask(banned.getHostMask(), caseMapping(channel));
         this.bannedBy = bannedBy;
         this.datetime = datetime;
     }
 
+    /**
+     * Constructs a new {@code Ban} object for a mask
+     * 
+     * @param channel
+     *            the {@link Channel} of the {@code Ban}
+     * @param mask
+     *            the banned mask (ie: *!*@*.example.com)
+     * @param bannedBy
+     *            the {@link User} who did the banning
+     * @param datetime
+     *            the date and time of the {@code Ban}
+     */
+    public Ban(Channel channel, String mask, User bannedBy, String datetime) {
+        this.channel = channel;
+        this.hostmask = new HostMask(mask, caseMapping(channel));
+        this.banned = new User(hostmask.getNick(), hostmask.getHost(), hostmask.getUser(), channel != null ? channel.getConnection() : null);
+        this.bannedBy = bannedBy;
+        this.datetime = datetime;
+    }
+
+    private static final CaseMapping caseMapping(Channel channel) {
+        return channel != null ? channel.getCaseMapping() : CaseMapping.RFC1459;
+    }
+
     /**
      * Gets the {@link Channel} of the {@code Ban}
      * 
@@ -83,6 +113,24 @@ public final class Ban {
         return banned;
     }
 
+    /**
+     * Gets the banned mask
+     * 
+     * @return the mask (ie: *!*@*.example.com)
+     */
+    public final String getMask() {
+        return hostmask.getMask();
+    }
+
+    /**
+     * Gets the compiled mask, for checking who the {@code Ban} applies to
+     * 
+     * @return the {@link HostMask}
+     */
+    public final HostMask getHostMask() {
+        return hostmask;
+    }
+
     /**
      * Gets the {@link User} who did the banning
      * 
@@ -138,13 +186,13 @@ public final class Ban {
     }
 
     /**
-     * String representation as Ban[User=%s BannedBy=%s Channel=%s DateTime=%s] format
+     * String representation as Ban[Mask=%s BannedBy=%s Channel=%s DateTime=%s] format
      * 
      * @return formated string
      * @see Object#toString()
      */
     public final String toString() {
-        return String.format("Ban[User=%s BannedBy=%s Channel=%s DateTime=%s]", banned.getNick(), bannedBy.getNick(), channel.getName(), datetime);
+        return String.format("Ban[Mask=%s BannedBy=%s Channel=%s DateTime=%s]", hostmask.getMask(), bannedBy.getNick(), channel.getName(), datetime);
     }
 
 }
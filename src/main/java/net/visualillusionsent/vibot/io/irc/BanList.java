@@ -0,0 +1,244 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Ban List<br>
+ * One of the mask lists of a {@link Channel} (bans, ban exceptions or invite exceptions), indexed so a {@code nick!user@host} can be checked
+ * against thousands of masks without trying each one.
+ * <p>
+ * Each mask is filed under the literal end of its host (ie: .example.com), the literal start of its host (ie: 192.168.1.) or its nick,
+ * whichever it has first. A check only looks up the keys the host and nick being checked could match, then tries the few masks found there.
+ * Masks with none of those, like {@code *!ident@*}, are always tried.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+final class BanList {
+    private final char mode;
+    private final CaseMapping casemapping;
+    private final LinkedHashMap<String, Ban> entries = new LinkedHashMap<String, Ban>();
+    private final HashMap<String, List<Ban>> bySuffix = new HashMap<String, List<Ban>>();
+    private final HashMap<String, List<Ban>> byPrefix = new HashMap<String, List<Ban>>();
+    private final HashMap<String, List<Ban>> byNick = new HashMap<String, List<Ban>>();
+    private final List<Ban> unindexed = new ArrayList<Ban>();
+
+    BanList(char mode, CaseMapping casemapping) {
+        this.mode = mode;
+        this.casemapping = casemapping;
+    }
+
+    /**
+     * Gets the channel mode of the list
+     * 
+     * @return the mode (ie: b)
+     */
+    final char getMode() {
+        return mode;
+    }
+
+    /**
+     * Adds an entry, replacing any entry with the same mask
+     * 
+     * @param ban
+     *            the {@link Ban} to add
+     */
+    final synchronized void add(Ban ban) {
+        Ban old = entries.put(casemapping.toLowerCase(ban.getMask()), ban);
+        if (old != null) {
+            unindex(old);
+        }
+        HostMask mask = ban.getHostMask();
+        String key;
+        if ((key = mask.getHostSuffix()) != null) {
+            file(bySuffix, key, ban);
+        }
+        else if ((key = mask.getHostPrefix()) != null) {
+            file(byPrefix, key, ban);
+        }
+        else if ((key = mask.getLiteralNick()) != null) {
+            file(byNick, key, ban);
+        }
+        else {
+            unindexed.add(ban);
+        }
+    }
+
+    /**
+     * Removes the entry for a mask
+     * 
+     * @param mask
+     *            the mask
+     * @return the removed {@link Ban}, or {@code null} if there was no entry
+     */
+    final synchronized Ban remove(String mask) {
+        Ban ban = entries.remove(casemapping.toLowerCase(mask));
+        if (ban != null) {
+            unindex(ban);
+        }
+        return ban;
+    }
+
+    /**
+     * Removes every entry, for when the list is about to be sent again
+     */
+    final synchronized void clear() {
+        entries.clear();
+        bySuffix.clear();
+        byPrefix.clear();
+        byNick.clear();
+        unindexed.clear();
+    }
+
+    /**
+     * Checks if any entry matches a {@code nick!user@host}
+     * 
+     * @param hostmask
+     *            the {@code nick!user@host}
+     * @return {@code true} if matched
+     */
+    final synchronized boolean matches(String hostmask) {
+        return find(hostmask, null);
+    }
+
+    /**
+     * Gets every entry that matches a {@code nick!user@host}
+     * 
+     * @param hostmask
+     *            the {@code nick!user@host}
+     * @return the matching {@link Ban}s
+     */
+    final synchronized List<Ban> getMatching(String hostmask) {
+        List<Ban> matching = new ArrayList<Ban>();
+        find(hostmask, matching);
+        return matching;
+    }
+
+    /**
+     * Gets every entry
+     * 
+     * @return an unmodifiable {@link List} of {@link Ban}s
+     */
+    final synchronized List<Ban> getEntries() {
+        return Collections.unmodifiableList(new ArrayList<Ban>(entries.values()));
+    }
+
+    /**
+     * Looks for matching entries, stopping at the first unless they are all wanted
+     */
+    private final boolean find(String hostmask, List<Ban> matching) {
+        String lower = casemapping.toLowerCase(hostmask);
+        int bang = lower.indexOf('!');
+        int at = lower.lastIndexOf('@');
+        String host = at < 0 ? "" : lower.substring(at + 1);
+
+        if (!bySuffix.isEmpty()) {
+            if (check(bySuffix.get(host), lower, matching)) {
+                return true;
+            }
+            for (int index = 1; index < host.length(); index++) {
+                if (HostMask.isSeparator(host.charAt(index)) && check(bySuffix.get(host.substring(index)), lower, matching)) {
+                    return true;
+                }
+            }
+        }
+        if (!byPrefix.isEmpty()) {
+            for (int index = 0; index < host.length(); index++) {
+                if (HostMask.isSeparator(host.charAt(index)) && check(byPrefix.get(host.substring(0, index + 1)), lower, matching)) {
+                    return true;
+                }
+            }
+        }
+        if (!byNick.isEmpty() && check(byNick.get(bang < 0 ? lower : lower.substring(0, bang)), lower, matching)) {
+            return true;
+        }
+        return check(unindexed, lower, matching);
+    }
+
+    private final boolean check(List<Ban> bans, String hostmask, List<Ban> matching) {
+        if (bans != null) {
+            for (Ban ban : bans) {
+                if (ban.getHostMask().matchesLower(hostmask)) {
+                    if (matching == null) {
+                        return true;
+                    }
+                    matching.add(ban);
+                }
+            }
+        }
+        return false;
+    }
+
+    private final void unindex(Ban ban) {
+        HostMask mask = ban.getHostMask();
+        String key;
+        if ((key = mask.getHostSuffix()) != null) {
+            unfile(bySuffix, key, ban);
+        }
+        else if ((key = mask.getHostPrefix()) != null) {
+            unfile(byPrefix, key, ban);
+        }
+        else if ((key = mask.getLiteralNick()) != null) {
+            unfile(byNick, key, ban);
+        }
+        else {
+            removeSame(unindexed, ban);
+        }
+    }
+
+    private static final void file(HashMap<String, List<Ban>> index, String key, Ban ban) {
+        List<Ban> bans = index.get(key);
+        if (bans == null) {
+            bans = new ArrayList<Ban>(1);
+            index.put(key, bans);
+        }
+        bans.add(ban);
+    }
+
+    private static final void unfile(HashMap<String, List<Ban>> index, String key, Ban ban) {
+        List<Ban> bans = index.get(key);
+        if (bans != null && removeSame(bans, ban) && bans.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Removes a {@link Ban} by reference, as different {@link Ban}s can be equal
+     */
+    private static final boolean removeSame(List<Ban> bans, Ban ban) {
+        for (int index = 0; index < bans.size(); index++) {
+            if (bans.get(index) == ban) {
+                bans.remove(index);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public final String toString() {
+        return String.format("BanList[Mode=%s Entries=%d]", mode, entries.size());
+    }
+}
@@ -0,0 +1,160 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+import net.visualillusionsent.vibot.io.configuration.NetworkConfig;
+
+/**
+ * Blocking IRC Transport<br>
+ * The classic {@link Socket} transport, using a dedicated {@link IRCInput} thread to read from the server
+ * and a dedicated {@link IRCOutput} thread to consume the outgoing message queue.
+ * <p>
+ * Kept as a fallback for when the {@link NIOTransport} has been disabled with {@code Use-NIO=false}
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class BlockingTransport extends IRCTransport {
+    private final Socket socket;
+    private final BufferedReader breader;
+    private final OutputStream output;
+    private final WriteMetrics metrics;
+    private final IRCInput input_thread;
+    private final IRCOutput output_thread;
+
+    /**
+     * Constructs a new {@code BlockingTransport} and connects to the network's server
+     * 
+     * @param irc_conn
+     *            the {@link IRCConnection} this transport belongs to
+     * @throws IOException
+     *             if it was not possible to connect to the server
+     */
+    BlockingTransport(IRCConnection irc_conn) throws IOException {
+        super(irc_conn);
+        NetworkConfig config = irc_conn.getConfig();
+        this.metrics = irc_conn.getWriteMetrics();
+        this.socket = new Socket(config.getServer(), config.getServerPort());
+
+        //Set the encoding and open socket
+        this.breader = new BufferedReader(new InputStreamReader(socket.getInputStream(), config.getEncoding()));
+        this.output = new BufferedOutputStream(new FilterOutputStream(socket.getOutputStream()) {
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+                metrics.written();
+            }
+        }, OutputBuffer.BUFFER_SIZE);
+        this.input_thread = new IRCInput(this);
+        this.output_thread = new IRCOutput(irc_conn);
+    }
+
+    @Override
+    public final String readLine() throws IOException {
+        return breader.readLine();
+    }
+
+    @Override
+    public final void writeLine(ByteBuffer line) throws IOException {
+        int length = line.remaining();
+        synchronized (output) {
+            // Written through once the buffer fills
+            output.write(line.array(), line.arrayOffset() + line.position(), length);
+        }
+        line.position(line.limit());
+        metrics.lineQueued(length);
+    }
+
+    @Override
+    public final void flush() throws IOException {
+        synchronized (output) {
+            output.flush();
+        }
+        metrics.flushed();
+    }
+
+    @Override
+    public final void start() {
+        try {
+            // This makes the socket timeout on read operations after 3 minutes.
+            socket.setSoTimeout(PING_INTERVAL);
+        }
+        catch (IOException ioe) {
+            // Keep reading without a timeout
+        }
+        input_thread.start();
+        output_thread.start();
+    }
+
+    @Override
+    public final synchronized void dispose() {
+        input_thread.dispose();
+        output_thread.dispose();
+    }
+
+    @Override
+    public final void close() throws IOException {
+        breader.close();
+        output.close();
+        socket.close();
+    }
+
+    @Override
+    public final InetAddress getLocalAddress() {
+        return socket.getLocalAddress();
+    }
+
+    @Override
+    public final int getLocalPort() {
+        return socket.getLocalPort();
+    }
+
+    @Override
+    public final void wakeup() {
+        // IRCOutput is woken by the OutboundQueue itself
+    }
+
+    /**
+     * Gets the {@link BufferedReader} for the {@link IRCInput}
+     * 
+     * @return the reader
+     */
+    final BufferedReader getReader() {
+        return breader;
+    }
+
+    /**
+     * Gets the {@link IRCConnection} this transport belongs to
+     * 
+     * @return the {@link IRCConnection}
+     */
+    final IRCConnection getConnection() {
+        return irc_conn;
+    }
+}
@@ -0,0 +1,295 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import net.visualillusionsent.vibot.VIBot;
+import net.visualillusionsent.vibot.io.logging.BotLogMan;
+
+/**
+ * Capabilities<br>
+ * Negotiates IRCv3 capabilities (CAP LS 302, REQ and END) for an {@link IRCConnection} and keeps track of what the server offered and enabled.
+ * <p>
+ * The bot asks for {@link #DEFAULTS}, along with anything a plugin has asked for with {@link #request(String)}. Capabilities are only ever
+ * requested if the server offers them, so it is safe to ask for something a server might not support.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class Capabilities {
+
+    /**
+     * The capabilities the bot requests itself
+     */
+    public static final List<String> DEFAULTS = Collections.unmodifiableList(Arrays.asList(
+            "multi-prefix", //
+            "extended-join", //
+            "away-notify", //
+            "account-notify", //
+            "chghost", //
+            "server-time", //
+            "batch", //
+            "userhost-in-names" //
+            ));
+
+    /**
+     * Leaves plenty of room for the CAP REQ command and the server's reply within a single line
+     */
+    private static final int MAX_REQUEST_LENGTH = 400;
+
+    private static final Set<String> requested = new CopyOnWriteArraySet<String>(DEFAULTS);
+
+    private final IRCConnection irc_conn;
+    private final ConcurrentHashMap<String, String> available = new ConcurrentHashMap<String, String>();
+    private final Set<String> enabled = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private volatile boolean negotiating;
+    private int pending;
+
+    Capabilities(IRCConnection irc_conn) {
+        this.irc_conn = irc_conn;
+    }
+
+    /**
+     * Asks for a capability on every network, for plugins that need something the bot does not ask for itself.<br>
+     * Networks that are already connected are asked straight away if their server offers it.
+     * 
+     * @param capability
+     *            the name of the capability (ie: znc.in/playback)
+     */
+    public static final void request(String capability) {
+        String name = capability.toLowerCase();
+        if (requested.add(name)) {
+            for (IRCConnection irc_conn : VIBot.getConnections()) {
+                irc_conn.getCapabilities().requestOffered(Collections.singletonList(name));
+            }
+        }
+    }
+
+    /**
+     * Gets the capabilities asked for on every network
+     * 
+     * @return the requested capabilities
+     */
+    public static final Set<String> getRequested() {
+        return Collections.unmodifiableSet(requested);
+    }
+
+    /**
+     * Checks if a capability has been enabled on this connection
+     * 
+     * @param capability
+     *            the name of the capability (ie: multi-prefix)
+     * @return {@code true} if enabled
+     */
+    public final boolean isEnabled(String capability) {
+        return enabled.contains(capability);
+    }
+
+    /**
+     * Checks if the server offered a capability
+     * 
+     * @param capability
+     *            the name of the capability (ie: multi-prefix)
+     * @return {@code true} if offered
+     */
+    public final boolean isAvailable(String capability) {
+        return available.containsKey(capability);
+    }
+
+    /**
+     * Gets the value the server offered a capability with (ie: the mechanisms for sasl)
+     * 
+     * @param capability
+     *            the name of the capability
+     * @return the value, an empty string if it has no value, or {@code null} if not offered
+     */
+    public final String getValue(String capability) {
+        return available.get(capability);
+    }
+
+    /**
+     * Gets the capabilities enabled on this connection
+     * 
+     * @return the enabled capabilities
+     */
+    public final Set<String> getEnabled() {
+        return Collections.unmodifiableSet(enabled);
+    }
+
+    /**
+     * Checks if capabilities are still being negotiated, holding back registration
+     * 
+     * @return {@code true} if negotiating
+     */
+    public final boolean isNegotiating() {
+        return negotiating;
+    }
+
+    /**
+     * Starts negotiating, forgetting anything from an earlier connection
+     */
+    final void start() {
+        available.clear();
+        enabled.clear();
+        pending = 0;
+        negotiating = true;
+        irc_conn.sendRawLine("CAP LS 302");
+    }
+
+    /**
+     * Stops negotiating without sending CAP END, for servers that registered us without negotiating
+     */
+    final void abort() {
+        negotiating = false;
+        pending = 0;
+    }
+
+    /**
+     * Processes a CAP message from the server
+     * 
+     * @param message
+     *            the message, as {@code CAP <nick> <subcommand> [*] :<capabilities>}
+     */
+    final synchronized void process(IrcMessage message) {
+        String subcommand = message.getParam(1).toUpperCase();
+        // A * before the list means there are more lines to come
+        boolean more = message.getParamCount() > 3 && message.isParam(2, "*");
+        List<String> capabilities = split(message.getTrailing());
+
+        switch (subcommand) {
+            case "LS":
+            case "NEW":
+                List<String> names = new ArrayList<String>(capabilities.size());
+                for (String capability : capabilities) {
+                    int equals = capability.indexOf('=');
+                    String name = equals < 0 ? capability : capability.substring(0, equals);
+                    available.put(name, equals < 0 ? "" : capability.substring(equals + 1));
+                    names.add(name);
+                }
+                if (subcommand.equals("NEW")) {
+                    requestOffered(names);
+                }
+                else if (!more && negotiating) {
+                    requestOffered(available.keySet());
+                    if (pending == 0) {
+                        end();
+                    }
+                }
+                break;
+            case "ACK":
+                for (String capability : capabilities) {
+                    if (capability.startsWith("-")) {
+                        enabled.remove(capability.substring(1));
+                    }
+                    else {
+                        enabled.add(capability);
+                    }
+                }
+                BotLogMan.info("Capabilities enabled: ".concat(enabled.toString()));
+                answered(more);
+                break;
+            case "NAK":
+                BotLogMan.warning("Capabilities refused: ".concat(capabilities.toString()));
+                answered(more);
+                break;
+            case "DEL":
+                for (String capability : capabilities) {
+                    available.remove(capability);
+                    enabled.remove(capability);
+                }
+                break;
+            default:
+                // LIST and anything newer, nothing to do
+                break;
+        }
+    }
+
+    /**
+     * Requests the wanted capabilities out of those offered that are not already enabled
+     * 
+     * @param offered
+     *            the offered capabilities
+     */
+    final synchronized void requestOffered(Iterable<String> offered) {
+        StringBuilder builder = new StringBuilder();
+        for (String capability : offered) {
+            if (!requested.contains(capability) || enabled.contains(capability) || !available.containsKey(capability)) {
+                continue;
+            }
+            if (builder.length() + capability.length() >= MAX_REQUEST_LENGTH) {
+                sendRequest(builder);
+            }
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(capability);
+        }
+        if (builder.length() > 0) {
+            sendRequest(builder);
+        }
+    }
+
+    private final void sendRequest(StringBuilder builder) {
+        if (negotiating) {
+            pending++;
+        }
+        irc_conn.sendRawLine("CAP REQ :".concat(builder.toString()));
+        builder.setLength(0);
+    }
+
+    /**
+     * Called once the server answers a request, finishing negotiation when every request has been answered
+     * 
+     * @param more
+     *            whether the server has more of its answer to send
+     */
+    private final void answered(boolean more) {
+        if (!more && negotiating && --pending <= 0) {
+            end();
+        }
+    }
+
+    private final void end() {
+        negotiating = false;
+        pending = 0;
+        irc_conn.sendRawLine("CAP END");
+    }
+
+    private static final List<String> split(String capabilities) {
+        List<String> list = new ArrayList<String>();
+        for (String capability : capabilities.split(" ")) {
+            if (!capability.isEmpty()) {
+                list.add(capability);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public final String toString() {
+        return String.format("Capabilities[Enabled=%s Available=%s]", enabled, available.keySet());
+    }
+}
@@ -0,0 +1,141 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+/**
+ * Case Mapping<br>
+ * The ways a server can compare nicks and channel names without regard to case, as advertised by the CASEMAPPING token of RPL_ISUPPORT.
+ * <p>
+ * Under rfc1459 the characters {}|^ are the lower case of []\~, and under strict-rfc1459 {}| are the lower case of []\.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public enum CaseMapping {
+    ASCII("ascii", 'Z'), //
+    RFC1459("rfc1459", '^'), //
+    STRICT_RFC1459("strict-rfc1459", ']'), //
+    ;
+
+    private final String name;
+    private final char upperLast;
+
+    private CaseMapping(String name, char upperLast) {
+        this.name = name;
+        this.upperLast = upperLast;
+    }
+
+    /**
+     * Gets the name the server advertises the case mapping by
+     * 
+     * @return the name (ie: rfc1459)
+     */
+    public final String getName() {
+        return name;
+    }
+
+    /**
+     * Converts a nick or channel name to lower case, for comparing or indexing
+     * 
+     * @param text
+     *            the nick or channel name
+     * @return the lower case text, which is the same {@link String} if it was already lower case
+     */
+    public final String toLowerCase(String text) {
+        int index = 0;
+        int length = text.length();
+        while (index < length && !isUpper(text.charAt(index))) {
+            index++;
+        }
+        if (index == length) {
+            return text;
+        }
+        char[] chars = text.toCharArray();
+        for (; index < length; index++) {
+            if (isUpper(chars[index])) {
+                // A-Z and []\~ map on to a-z and {}|^ the same way
+                chars[index] += 'a' - 'A';
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Compares two nicks or channel names without regard to case
+     * 
+     * @param first
+     *            the first nick or channel name
+     * @param second
+     *            the second nick or channel name
+     * @return {@code true} if they are the same
+     */
+    public final boolean equals(String first, String second) {
+        if (first.length() != second.length()) {
+            return false;
+        }
+        for (int index = 0; index < first.length(); index++) {
+            char a = first.charAt(index), b = second.charAt(index);
+            if (a != b && fold(a) != fold(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hashes a nick or channel name without regard to case, so names that are {@link #equals(String, String)} hash the same
+     * 
+     * @param text
+     *            the nick or channel name
+     * @return the hash
+     */
+    public final int hashCode(String text) {
+        int hash = 0;
+        for (int index = 0; index < text.length(); index++) {
+            hash = 31 * hash + fold(text.charAt(index));
+        }
+        return hash;
+    }
+
+    private final boolean isUpper(char ch) {
+        return ch >= 'A' && ch <= upperLast;
+    }
+
+    private final char fold(char ch) {
+        return isUpper(ch) ? (char) (ch + ('a' - 'A')) : ch;
+    }
+
+    /**
+     * Gets the {@code CaseMapping} for the name a server advertised
+     * 
+     * @param name
+     *            the name (ie: rfc1459)
+     * @return the {@code CaseMapping}, or {@link #RFC1459} if the name is not known or {@code null} as RFC 1459 is the default
+     */
+    public static final CaseMapping fromName(String name) {
+        if (name != null) {
+            for (CaseMapping mapping : values()) {
+                if (mapping.name.equalsIgnoreCase(name)) {
+                    return mapping;
+                }
+            }
+        }
+        return RFC1459;
+    }
+}
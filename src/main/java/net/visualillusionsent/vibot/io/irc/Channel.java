@@ -17,11 +17,9 @@
  */
 package net.visualillusionsent.vibot.io.irc;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import net.visualillusionsent.vibot.VIBot;
 import net.visualillusionsent.vibot.io.logging.BotLogMan;
@@ -47,55 +45,56 @@ public final class Channel implements Cloneable {
     private final IRCConnection irc_conn;
 
     /**
-     * The {@link Topic} for the {@code Channel}
+     * The {@link CaseMapping} nicks are compared with
      */
-    private Topic topic;
+    private final CaseMapping casemapping;
 
     /**
-     * The {@link ArrayList} of {@link User}s for the {@code Channel}
+     * The {@link Membership}s of the {@link User}s in the {@code Channel}, found by nick under the {@link CaseMapping}
      */
-    private final ArrayList<User> users;
+    private final MemberTable members;
 
     /**
-     * The {@link ArrayList} of {@link User}s being ignored in the {@code Channel}
+     * The latest {@link ChannelSnapshot}, which every read goes through
      */
-    private final ArrayList<User> ignored;
+    private volatile ChannelSnapshot snapshot;
 
     /**
-     * The {@link ArrayList} of banned {@link User}s
+     * The {@link BanList}s of bans (+b), ban exceptions (+e) and invite exceptions (+I)
      */
-    private final ArrayList<Ban> bans;
+    private final BanList bans, exceptions, invites;
 
     /**
-     * The {@link ArrayList} of {@link ChannelMode}s
+     * The {@link BanList}s of every list mode, by mode index
      */
-    private final ArrayList<ChannelMode> modes;
+    private final BanList[] lists;
 
     /**
-     * The {@link HashMap} of the {@link VIBot} modes
+     * The flag and setting modes that are set, a bit for each mode index
      */
-    private final HashMap<String, Boolean> botModes;
+    private long modes;
 
     /**
-     * Whether the {@code Channel} is muted or not
+     * The parameters of the setting modes that are set (ie: the key), by mode index
      */
-    private boolean muted = false;
+    private final String[] modeParams;
 
     /**
-     * CONSOLE {@code Channel} instance
+     * The {@link Membership} status bits of the {@link VIBot} in the {@code Channel}
      */
-    public static final Channel CONSOLE;
+    private volatile int botStatus;
 
     /**
-     * The default {@link Map} of allowed {@link VIBot} modes
+     * Whether the {@code Channel} is muted or not
      */
-    private static final Map<String, Boolean> allowedBotModes;
+    private volatile boolean muted = false;
+
+    /**
+     * CONSOLE {@code Channel} instance
+     */
+    public static final Channel CONSOLE;
 
     static {
-        HashMap<String, Boolean> temp = new HashMap<String, Boolean>();
-        temp.put("OP", Boolean.FALSE);
-        temp.put("VOICE", Boolean.FALSE);
-        allowedBotModes = Collections.unmodifiableMap(temp);
         CONSOLE = new Channel("CONSOLE", null);
     }
 
@@ -112,12 +111,23 @@ public final class Channel implements Cloneable {
     public Channel(String name, IRCConnection irc_conn) {
         this.name = name;
         this.irc_conn = irc_conn;
-        this.users = new ArrayList<User>();
-        this.ignored = new ArrayList<User>();
-        this.modes = new ArrayList<ChannelMode>();
-        this.bans = new ArrayList<Ban>();
-        this.botModes = new HashMap<String, Boolean>(allowedBotModes.size());
-        botModes.putAll(allowedBotModes);
+        this.casemapping = irc_conn != null ? irc_conn.getISupport().getCaseMapping() : CaseMapping.RFC1459;
+        this.members = new MemberTable(casemapping);
+        this.modeParams = new String[ChannelSnapshot.MODE_INDEXES];
+        this.lists = new BanList[ChannelSnapshot.MODE_INDEXES];
+        this.bans = getBanList('b');
+        this.exceptions = getBanList('e');
+        this.invites = getBanList('I');
+        this.snapshot = new ChannelSnapshot(this);
+    }
+
+    /**
+     * Gets the latest {@link ChannelSnapshot} of the {@code Channel}, for reading several things that need to agree with each other
+     * 
+     * @return the {@link ChannelSnapshot}
+     */
+    public final ChannelSnapshot getSnapshot() {
+        return snapshot;
     }
 
     /**
@@ -137,12 +147,45 @@ public final class Channel implements Cloneable {
      * @return {@link User} if found, {@code null} otherwise
      */
     public final User getUser(String name) {
-        for (User user : users) {
-            if (user.getNick().equals(name)) {
-                return user;
-            }
-        }
-        return null;
+        return snapshot.getUser(name);
+    }
+
+    /**
+     * Returns the {@link Membership} of the {@link User} with the given name
+     * 
+     * @param name
+     *            the name of the {@link User}
+     * @return {@link Membership} if found, {@code null} otherwise
+     */
+    public final Membership getMembership(String name) {
+        return snapshot.getMembership(name);
+    }
+
+    /**
+     * Gets the {@link IRCConnection} of the network the {@code Channel} is on
+     * 
+     * @return the {@link IRCConnection} or {@code null} for the CONSOLE {@code Channel}
+     */
+    public final IRCConnection getConnection() {
+        return irc_conn;
+    }
+
+    /**
+     * Gets how nicks and masks are compared in the {@code Channel}
+     * 
+     * @return the {@link CaseMapping}
+     */
+    final CaseMapping getCaseMapping() {
+        return casemapping;
+    }
+
+    /**
+     * Gets the membership modes of the network the {@code Channel} is on
+     * 
+     * @return the {@link PrefixTable}
+     */
+    final PrefixTable getPrefixes() {
+        return irc_conn != null ? irc_conn.getISupport().getPrefixes() : PrefixTable.DEFAULT;
     }
 
     /**
@@ -151,7 +194,7 @@ public final class Channel implements Cloneable {
      * @return the topic for the {@code Channel}
      */
     public final Topic getTopic() {
-        return topic;
+        return snapshot.getTopic();
     }
 
     /**
@@ -160,8 +203,49 @@ public final class Channel implements Cloneable {
      * @param user
      *            the {@link User} to be added
      */
-    public final void addUser(User user) {
-        users.add(user);
+    public final synchronized void addUser(User user) {
+        addUser(user, 0);
+    }
+
+    /**
+     * Adds a {@link User} to the {@code Channel}, or updates their status if they are already in it
+     * 
+     * @param user
+     *            the {@link User} to be added
+     * @param status
+     *            the status bits of the {@link User} in the {@code Channel}
+     * @return the {@link Membership} of the {@link User}
+     */
+    final synchronized Membership addUser(User user, int status) {
+        Membership membership = putUser(user, status);
+        publishMembers();
+        return membership;
+    }
+
+    /**
+     * Adds a {@link User} to the {@code Channel} without publishing a new {@link ChannelSnapshot}, for adding many at once
+     * 
+     * @param user
+     *            the {@link User} to be added
+     * @param status
+     *            the status bits of the {@link User} in the {@code Channel}
+     * @return the {@link Membership} of the {@link User}
+     * @see #publishMembers()
+     */
+    final synchronized Membership putUser(User user, int status) {
+        String nick = user.getNick();
+        Membership membership = members.get(nick);
+        if (membership != null) {
+            if (membership.getUser() == user) {
+                membership.setStatus(status);
+                return membership;
+            }
+            membership.getUser().removeMembership(membership);
+        }
+        membership = new Membership(this, user, status);
+        members.put(nick, membership);
+        user.addMembership(membership);
+        return membership;
     }
 
     /**
@@ -170,8 +254,33 @@ public final class Channel implements Cloneable {
      * @param user
      *            the {@link User} to be removed
      */
-    public final void removeUser(User user) {
-        users.remove(user);
+    public final synchronized void removeUser(User user) {
+        if (user != null) {
+            Membership membership = members.remove(user.getNick());
+            if (membership != null) {
+                membership.getUser().removeMembership(membership);
+                publishMembers();
+            }
+        }
+    }
+
+    /**
+     * Removes every {@link User} from the {@code Channel}, for when the {@link VIBot} leaves it
+     */
+    final synchronized void removeAllUsers() {
+        for (int index = 0; index < members.size(); index++) {
+            Membership membership = members.getAt(index);
+            membership.getUser().removeMembership(membership);
+        }
+        members.clear();
+        publishMembers();
+    }
+
+    /**
+     * Publishes a new {@link ChannelSnapshot} with the current members
+     */
+    final synchronized void publishMembers() {
+        snapshot = snapshot.withMembers(members);
     }
 
     /**
@@ -183,7 +292,24 @@ public final class Channel implements Cloneable {
      *            the new name for the {@link User}
      */
     public final void renameUser(User user, String newnick) {
-        users.get(users.indexOf(user)).setNick(newnick);
+        renameUser(user.getNick(), newnick);
+    }
+
+    /**
+     * Renames a {@link User} in the {@code Channel}
+     * 
+     * @param oldnick
+     *            the current name of the {@link User}
+     * @param newnick
+     *            the new name for the {@link User}
+     */
+    public final synchronized void renameUser(String oldnick, String newnick) {
+        Membership membership = members.remove(oldnick);
+        if (membership != null) {
+            membership.getUser().setNick(newnick);
+            members.put(newnick, membership);
+            publishMembers();
+        }
     }
 
     /**
@@ -192,8 +318,8 @@ public final class Channel implements Cloneable {
      * @param topic
      *            the {@link Topic} to be set
      */
-    public final void setTopic(Topic topic) {
-        this.topic = topic;
+    public final synchronized void setTopic(Topic topic) {
+        snapshot = snapshot.withTopic(topic);
     }
 
     /**
@@ -214,7 +340,16 @@ public final class Channel implements Cloneable {
      * @return an unmodifiable {@link List} of {@link User}s
      */
     public final List<User> getUsers() {
-        return Collections.unmodifiableList(users);
+        return snapshot.getUsers();
+    }
+
+    /**
+     * Gets an unmodifiable {@link List} of the {@link Membership}s of all {@link User}s in this channel
+     * 
+     * @return an unmodifiable {@link List} of {@link Membership}s
+     */
+    public final List<Membership> getMemberships() {
+        return snapshot.getMemberships();
     }
 
     /**
@@ -222,14 +357,14 @@ public final class Channel implements Cloneable {
      * 
      * @param message
      *            the message to send to the {@code Channel}
+     * @return the {@link EnqueueResult}
      */
-    public final void sendMessage(String message) {
+    public final EnqueueResult sendMessage(String message) {
         if (this.name.equals("CONSOLE")) {
             BotLogMan.consoleMessage(message);
+            return EnqueueResult.ACCEPTED;
         }
-        else {
-            irc_conn.sendMessage(name, message);
-        }
+        return irc_conn.sendMessage(name, message);
     }
 
     /**
@@ -237,14 +372,14 @@ public final class Channel implements Cloneable {
      * 
      * @param action
      *            the action to send the {@code Channel}
+     * @return the {@link EnqueueResult}
      */
-    public final void sendAction(String action) {
+    public final EnqueueResult sendAction(String action) {
         if (this.name.equals("CONSOLE")) {
             BotLogMan.consoleMessage(VIBot.getBotNick().concat(" ").concat(action));
+            return EnqueueResult.ACCEPTED;
         }
-        else {
-            irc_conn.sendAction(name, action);
-        }
+        return irc_conn.sendAction(name, action);
     }
 
     /**
@@ -278,7 +413,7 @@ public final class Channel implements Cloneable {
      * @return {@code true} if {@link User} is being ignored, {@code false} otherwise
      */
     public final boolean isUserIgnored(User user) {
-        return ignored.contains(user);
+        return snapshot.getIgnoreList().contains(user);
     }
 
     /**
@@ -287,8 +422,11 @@ public final class Channel implements Cloneable {
      * @param user
      *            the {@link User} to ignore
      */
-    public final void ignoreUser(User user) {
-        ignored.add(user);
+    public final synchronized void ignoreUser(User user) {
+        List<User> last = snapshot.getIgnoreList();
+        User[] ignored = last.toArray(new User[last.size() + 1]);
+        ignored[last.size()] = user;
+        snapshot = snapshot.withIgnored(Arrays.asList(ignored));
     }
 
     /**
@@ -297,9 +435,21 @@ public final class Channel implements Cloneable {
      * @param user
      *            the {@link User} to unignore
      */
-    public final void unIgnoreUser(User user) {
+    public final synchronized void unIgnoreUser(User user) {
         if (isUserIgnored(user)) {
-            ignored.remove(user);
+            List<User> last = snapshot.getIgnoreList();
+            User[] ignored = new User[last.size() - 1];
+            int index = 0;
+            boolean removed = false;
+            for (User ignore : last) {
+                if (removed || !ignore.equals(user)) {
+                    ignored[index++] = ignore;
+                }
+                else {
+                    removed = true;
+                }
+            }
+            snapshot = snapshot.withIgnored(Arrays.asList(ignored));
         }
     }
 
@@ -309,7 +459,67 @@ public final class Channel implements Cloneable {
      * @return an unmodifiable {@link List} of ignored {@link User}s
      */
     public final List<User> getIgnoreList() {
-        return Collections.unmodifiableList(ignored);
+        return snapshot.getIgnoreList();
+    }
+
+    /**
+     * Checks if a flag or setting mode is set
+     * 
+     * @param mode
+     *            the mode letter (ie: m)
+     * @return {@code true} if set, {@code false} otherwise
+     */
+    public final boolean hasMode(char mode) {
+        return snapshot.hasMode(mode);
+    }
+
+    /**
+     * Checks if a {@link ChannelMode} is set
+     * 
+     * @param mode
+     *            the {@link ChannelMode}
+     * @return {@code true} if set, {@code false} otherwise
+     */
+    public final boolean hasMode(ChannelMode mode) {
+        return hasMode(mode.getLetter());
+    }
+
+    /**
+     * Gets the parameter of a setting mode
+     * 
+     * @param mode
+     *            the mode letter (ie: k)
+     * @return the parameter, or {@code null} if the mode is not set or has no parameter
+     */
+    public final String getModeParameter(char mode) {
+        return snapshot.getModeParameter(mode);
+    }
+
+    /**
+     * Gets the flag and setting modes that are set
+     * 
+     * @return the mode letters (ie: +klnt), without their parameters
+     */
+    public final String getModes() {
+        return snapshot.getModes();
+    }
+
+    /**
+     * Gets the key (+k) needed to join the {@code Channel}
+     * 
+     * @return the key, or {@code null} if there is none
+     */
+    public final String getKey() {
+        return snapshot.getKey();
+    }
+
+    /**
+     * Gets the most {@link User}s allowed in the {@code Channel} (+l)
+     * 
+     * @return the limit, or {@code 0} if there is none
+     */
+    public final int getLimit() {
+        return snapshot.getLimit();
     }
 
     /**
@@ -318,51 +528,242 @@ public final class Channel implements Cloneable {
      * @param mode
      *            the {@link ChannelMode} to add
      */
-    public void addChanMode(ChannelMode mode) {
-        if (!modes.contains(mode)) {
-            this.modes.add(mode);
-        }
+    public synchronized void addChanMode(ChannelMode mode) {
+        applyMode(mode.getLetter(), true, null);
+        publishModes();
     }
 
-    public void removeChannelMode(ChannelMode mode) {
-        if (modes.contains(mode)) {
-            modes.remove(mode);
-        }
+    /**
+     * Removes a {@link ChannelMode} from the list of modes
+     * 
+     * @param mode
+     *            the {@link ChannelMode} to remove
+     */
+    public synchronized void removeChannelMode(ChannelMode mode) {
+        applyMode(mode.getLetter(), false, null);
+        publishModes();
     }
 
     public boolean acceptsExternalMessages() {
-        return !modes.contains(ChannelMode.NO_EXTERNAL_MESSAGES);
+        return !hasMode(ChannelMode.NO_EXTERNAL_MESSAGES);
     }
 
     public boolean isPrivate() {
-        return modes.contains(ChannelMode.PRIVATE);
+        return hasMode(ChannelMode.PRIVATE);
     }
 
-    public void addBan(Ban ban) {
-        if (!bans.contains(ban)) {
-            bans.add(ban);
-        }
+    /**
+     * Checks if the {@code Channel} is secret (+s)
+     * 
+     * @return {@code true} if so, {@code false} otherwise
+     */
+    public boolean isSecret() {
+        return hasMode(ChannelMode.SECRET);
+    }
+
+    /**
+     * Checks if the {@code Channel} is invite only (+i)
+     * 
+     * @return {@code true} if so, {@code false} otherwise
+     */
+    public boolean isInviteOnly() {
+        return hasMode(ChannelMode.INVITE_ONLY);
+    }
+
+    /**
+     * Checks if the {@code Channel} is moderated (+m)
+     * 
+     * @return {@code true} if so, {@code false} otherwise
+     */
+    public boolean isModerated() {
+        return hasMode(ChannelMode.MODERATED);
     }
 
-    public void removeBan(Ban ban) {
-        if (bans.contains(ban)) {
-            bans.remove(ban);
+    /**
+     * Checks if the {@code Channel} is topic protected, only ops may change the topic (+t)
+     * 
+     * @return {@code true} if so, {@code false} otherwise
+     */
+    public boolean isTopicProtected() {
+        return hasMode(ChannelMode.TOPIC_PROTECTED);
+    }
+
+    /**
+     * Sets or unsets a flag or setting mode, without publishing a new {@link ChannelSnapshot}
+     * 
+     * @param mode
+     *            the mode letter
+     * @param adding
+     *            {@code true} to set, {@code false} to unset
+     * @param param
+     *            the parameter, or {@code null} if none
+     */
+    final synchronized void applyMode(char mode, boolean adding, String param) {
+        int index = ChannelSnapshot.modeIndex(mode);
+        if (index < 0) {
+            return;
+        }
+        if (adding) {
+            modeParams[index] = param;
+            modes |= 1L << index;
+        }
+        else {
+            modes &= ~(1L << index);
+            modeParams[index] = null;
         }
     }
 
+    /**
+     * Unsets every flag and setting mode, for when the full set of modes is about to be sent again, without publishing a new
+     * {@link ChannelSnapshot}
+     */
+    final synchronized void resetModes() {
+        modes = 0;
+        Arrays.fill(modeParams, null);
+    }
+
+    /**
+     * Publishes a new {@link ChannelSnapshot} with the current flag and setting modes
+     */
+    final synchronized void publishModes() {
+        snapshot = snapshot.withModes(modes, modeParams);
+    }
+
+    /**
+     * Publishes a new {@link ChannelSnapshot} with the current bans, ban exceptions and invite exceptions
+     */
+    final synchronized void publishLists() {
+        snapshot = snapshot.withLists(bans.getEntries(), exceptions.getEntries(), invites.getEntries());
+    }
+
+    public synchronized void addBan(Ban ban) {
+        bans.add(ban);
+        publishLists();
+    }
+
+    public synchronized void removeBan(Ban ban) {
+        bans.remove(ban.getMask());
+        publishLists();
+    }
+
+    /**
+     * Gets the bans that apply to a nick, by the {@link User}'s full nick!user@host if they are in the {@code Channel}
+     * 
+     * @param nick
+     *            the nick
+     * @return the {@link Ban}s, or {@code null} if there are none
+     */
     public Ban[] getBansFor(String nick) {
-        ArrayList<Ban> nickbans = new ArrayList<Ban>();
-        for (Ban ban : bans) {
-            if (ban.getBanned().equals(nick)) {
-                nickbans.add(ban);
-            }
-        }
+        User user = getUser(nick);
+        List<Ban> nickbans = bans.getMatching(user != null ? user.getHostMask() : nick.concat("!*@*"));
         if (!nickbans.isEmpty()) {
-            return nickbans.toArray(new Ban[0]);
+            return nickbans.toArray(new Ban[nickbans.size()]);
         }
         return null;
     }
 
+    /**
+     * Checks if a nick!user@host is banned from the {@code Channel}, taking ban exceptions into account
+     * 
+     * @param hostmask
+     *            the nick!user@host to check
+     * @return {@code true} if banned, {@code false} otherwise
+     */
+    public final boolean isBanned(String hostmask) {
+        return bans.matches(hostmask) && !exceptions.matches(hostmask);
+    }
+
+    /**
+     * Checks if a {@link User} is banned from the {@code Channel}, taking ban exceptions into account
+     * 
+     * @param user
+     *            the {@link User} to check
+     * @return {@code true} if banned, {@code false} otherwise
+     */
+    public final boolean isBanned(User user) {
+        return isBanned(user.getHostMask());
+    }
+
+    /**
+     * Checks if a nick!user@host matches a ban exception (+e) in the {@code Channel}
+     * 
+     * @param hostmask
+     *            the nick!user@host to check
+     * @return {@code true} if excepted, {@code false} otherwise
+     */
+    public final boolean isBanExcepted(String hostmask) {
+        return exceptions.matches(hostmask);
+    }
+
+    /**
+     * Checks if a nick!user@host matches an invite exception (+I) in the {@code Channel}, letting them in while it is invite only
+     * 
+     * @param hostmask
+     *            the nick!user@host to check
+     * @return {@code true} if excepted, {@code false} otherwise
+     */
+    public final boolean isInviteExcepted(String hostmask) {
+        return invites.matches(hostmask);
+    }
+
+    /**
+     * Gets the bans (+b) of the {@code Channel}
+     * 
+     * @return an unmodifiable {@link List} of {@link Ban}s
+     */
+    public final List<Ban> getBans() {
+        return snapshot.getBans();
+    }
+
+    /**
+     * Gets the ban exceptions (+e) of the {@code Channel}
+     * 
+     * @return an unmodifiable {@link List} of {@link Ban}s
+     */
+    public final List<Ban> getBanExceptions() {
+        return snapshot.getBanExceptions();
+    }
+
+    /**
+     * Gets the invite exceptions (+I) of the {@code Channel}
+     * 
+     * @return an unmodifiable {@link List} of {@link Ban}s
+     */
+    public final List<Ban> getInviteExceptions() {
+        return snapshot.getInviteExceptions();
+    }
+
+    /**
+     * Gets the entries of a list mode of the {@code Channel}
+     * 
+     * @param mode
+     *            the mode letter (ie: b)
+     * @return an unmodifiable {@link List} of {@link Ban}s
+     */
+    public final List<Ban> getListEntries(char mode) {
+        int index = ChannelSnapshot.modeIndex(mode);
+        BanList list = index >= 0 ? lists[index] : null;
+        return list != null ? list.getEntries() : Collections.<Ban> emptyList();
+    }
+
+    /**
+     * Gets the {@link BanList} for a list mode, creating it the first time it is asked for
+     * 
+     * @param mode
+     *            the mode (ie: b)
+     * @return the {@link BanList}, or {@code null} if not a mode letter
+     */
+    final synchronized BanList getBanList(char mode) {
+        int index = ChannelSnapshot.modeIndex(mode);
+        if (index < 0) {
+            return null;
+        }
+        if (lists[index] == null) {
+            lists[index] = new BanList(mode, casemapping);
+        }
+        return lists[index];
+    }
+
     /**
      * Set the mode of a channel. This method attempts to set the mode of a
      * channel. This may require the bot to have operator status on the channel.
@@ -496,28 +897,59 @@ public final class Channel implements Cloneable {
         irc_conn.sendRawLine("KICK ".concat(name).concat(" ").concat(user.getNick()).concat(" :").concat(reason));
     }
 
+    /**
+     * Gets the {@link Membership} status bits of the {@link VIBot} in the {@code Channel}
+     * 
+     * @return the status bits
+     */
+    public final int getBotStatus() {
+        return botStatus;
+    }
+
+    /**
+     * Sets all of the {@link Membership} status bits of the {@link VIBot} in the {@code Channel}, as given by NAMES
+     * 
+     * @param status
+     *            the status bits
+     */
+    final void setBotStatus(int status) {
+        botStatus = status;
+    }
+
+    /**
+     * Gives or takes a {@link Membership} status bit of the {@link VIBot} in the {@code Channel}
+     * 
+     * @param status
+     *            the status bit
+     * @param give
+     *            {@code true} to give, {@code false} to take
+     */
+    final synchronized void setBotStatus(int status, boolean give) {
+        botStatus = give ? botStatus | status : botStatus & ~status;
+    }
+
     public boolean isBotOp() {
-        return botModes.get("OP").booleanValue();
+        return (botStatus & Membership.AT_LEAST_OP) != 0;
     }
 
     public void opBot() {
-        botModes.put("OP", Boolean.TRUE);
+        setBotStatus(Membership.OP, true);
     }
 
     public void deOpBot() {
-        botModes.put("OP", Boolean.FALSE);
+        setBotStatus(Membership.OP, false);
     }
 
     public boolean isBotVoice() {
-        return botModes.get("VOICE").booleanValue();
+        return (botStatus & Membership.VOICE) != 0;
     }
 
     public void voiceBot() {
-        botModes.put("VOICE", Boolean.TRUE);
+        setBotStatus(Membership.VOICE, true);
     }
 
     public void deVoiceBot() {
-        botModes.put("VOICE", Boolean.FALSE);
+        setBotStatus(Membership.VOICE, false);
     }
 
     /**
@@ -541,7 +973,8 @@ public final class Channel implements Cloneable {
         if (!Boolean.valueOf(muted).equals(Boolean.valueOf(other.isMuted()))) {
             return false;
         }
-        if (!topic.equals(other.getTopic())) {
+        Topic topic = getTopic();
+        if (topic != null ? !topic.equals(other.getTopic()) : other.getTopic() != null) {
             return false;
         }
         return true;
@@ -554,10 +987,11 @@ public final class Channel implements Cloneable {
     public final int hashcode() {
         int hash = 7;
         hash = 31 * hash + name.hashCode();
-        hash = 31 * hash + (topic != null ? topic.hashCode() : 0);
+        ChannelSnapshot current = snapshot;
+        hash = 31 * hash + (current.getTopic() != null ? current.getTopic().hashCode() : 0);
         hash = 31 * hash + Boolean.valueOf(muted).hashCode();
-        hash = 31 * hash + users.hashCode();
-        hash = 31 * hash + ignored.hashCode();
+        hash = 31 * hash + current.getMemberships().hashCode();
+        hash = 31 * hash + current.getIgnoreList().hashCode();
         return hash;
     }
 }
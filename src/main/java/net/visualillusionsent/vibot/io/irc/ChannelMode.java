@@ -18,23 +18,56 @@
 package net.visualillusionsent.vibot.io.irc;
 
 /**
- * Channel Modes enum
+ * Channel Modes enum<br>
+ * The well known flag and setting modes of a {@link Channel}, by their letter. Membership modes are in the {@link PrefixTable} and list modes
+ * are kept as {@link Ban}s.
  * 
  * @since 1.0
  * @version 1.0
  * @author Jason (darkdiplomat)
  */
 public enum ChannelMode {
-    INVITE_ONLY, //
-    KEYED, //
-    MODERATED, //
-    NO_EXTERNAL_MESSAGES, //
-    PRIVATE, //
-    SECRET, //
-    TOPIC_PROTECTED, //
-    USER_OP, //
-    USER_DEOP, //
-    USER_VOICE, //
-    USER_DEVOICE, //
+    INVITE_ONLY('i'), //
+    KEYED('k'), //
+    LIMITED('l'), //
+    MODERATED('m'), //
+    NO_EXTERNAL_MESSAGES('n'), //
+    PRIVATE('p'), //
+    SECRET('s'), //
+    TOPIC_PROTECTED('t'), //
+    ;
 
+    private static final ChannelMode[] byLetter = new ChannelMode[128];
+
+    static {
+        for (ChannelMode mode : values()) {
+            byLetter[mode.letter] = mode;
+        }
+    }
+
+    private final char letter;
+
+    private ChannelMode(char letter) {
+        this.letter = letter;
+    }
+
+    /**
+     * Gets the letter of the mode
+     * 
+     * @return the letter (ie: k)
+     */
+    public final char getLetter() {
+        return letter;
+    }
+
+    /**
+     * Gets the {@code ChannelMode} for a letter
+     * 
+     * @param letter
+     *            the letter (ie: k)
+     * @return the {@code ChannelMode}, or {@code null} if not a well known mode
+     */
+    public static final ChannelMode fromLetter(char letter) {
+        return letter < 128 ? byLetter[letter] : null;
+    }
 }
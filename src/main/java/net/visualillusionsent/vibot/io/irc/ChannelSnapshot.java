@@ -0,0 +1,348 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Channel Snapshot<br>
+ * An immutable view of a {@link Channel} (members, modes, topic, ignores and mask lists) as it was at one moment.
+ * <p>
+ * The {@link Channel} publishes a new {@code ChannelSnapshot} each time it changes, sharing every part that did not change with the one
+ * before, so reading one never needs a lock and never sees a half made change. Each has a version one higher than the last, so a plugin can
+ * tell if anything changed since it last looked. The {@link Membership}s in it are the live ones, so their status is always the current
+ * status.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class ChannelSnapshot {
+
+    /**
+     * The number of mode indexes, one for each letter in either case
+     */
+    static final int MODE_INDEXES = 52;
+
+    private final Channel channel;
+    private final long version;
+    private final MemberTable members;
+    private final List<Membership> memberships;
+    private final List<User> users;
+    private final List<User> ignored;
+    private final Topic topic;
+    private final long modes;
+    private final String[] modeParams;
+    private final List<Ban> bans, exceptions, invites;
+
+    /**
+     * Constructs the first, empty, {@code ChannelSnapshot} of a {@link Channel}
+     * 
+     * @param channel
+     *            the {@link Channel}
+     */
+    ChannelSnapshot(Channel channel) {
+        this.channel = channel;
+        this.version = 0;
+        this.members = new MemberTable(channel.getCaseMapping());
+        this.memberships = Collections.emptyList();
+        this.users = Collections.emptyList();
+        this.ignored = Collections.emptyList();
+        this.topic = null;
+        this.modes = 0;
+        this.modeParams = new String[MODE_INDEXES];
+        this.bans = Collections.emptyList();
+        this.exceptions = Collections.emptyList();
+        this.invites = Collections.emptyList();
+    }
+
+    private ChannelSnapshot(ChannelSnapshot last, MemberTable members, List<Membership> memberships, List<User> users, List<User> ignored, Topic topic, long modes, String[] modeParams, List<Ban> bans, List<Ban> exceptions, List<Ban> invites) {
+        this.channel = last.channel;
+        this.version = last.version + 1;
+        this.members = members;
+        this.memberships = memberships;
+        this.users = users;
+        this.ignored = ignored;
+        this.topic = topic;
+        this.modes = modes;
+        this.modeParams = modeParams;
+        this.bans = bans;
+        this.exceptions = exceptions;
+        this.invites = invites;
+    }
+
+    /**
+     * Makes the next {@code ChannelSnapshot} with new members
+     * 
+     * @param live
+     *            the {@link Channel}'s own {@link MemberTable}, which is copied
+     * @return the next {@code ChannelSnapshot}
+     */
+    final ChannelSnapshot withMembers(MemberTable live) {
+        MemberTable copy = live.copy();
+        List<User> users = Collections.unmodifiableList(Arrays.asList(copy.getUsers()));
+        return new ChannelSnapshot(this, copy, copy.asList(), users, ignored, topic, modes, modeParams, bans, exceptions, invites);
+    }
+
+    /**
+     * Makes the next {@code ChannelSnapshot} with new ignored {@link User}s
+     * 
+     * @param ignored
+     *            the ignored {@link User}s, which must not be changed afterwards
+     * @return the next {@code ChannelSnapshot}
+     */
+    final ChannelSnapshot withIgnored(List<User> ignored) {
+        return new ChannelSnapshot(this, members, memberships, users, Collections.unmodifiableList(ignored), topic, modes, modeParams, bans, exceptions, invites);
+    }
+
+    /**
+     * Makes the next {@code ChannelSnapshot} with a new {@link Topic}
+     * 
+     * @param topic
+     *            the {@link Topic}
+     * @return the next {@code ChannelSnapshot}
+     */
+    final ChannelSnapshot withTopic(Topic topic) {
+        return new ChannelSnapshot(this, members, memberships, users, ignored, topic, modes, modeParams, bans, exceptions, invites);
+    }
+
+    /**
+     * Makes the next {@code ChannelSnapshot} with new flag and setting modes
+     * 
+     * @param modes
+     *            the bits of the modes that are set
+     * @param modeParams
+     *            the parameters of the modes that are set, which are copied
+     * @return the next {@code ChannelSnapshot}
+     */
+    final ChannelSnapshot withModes(long modes, String[] modeParams) {
+        return new ChannelSnapshot(this, members, memberships, users, ignored, topic, modes, modeParams.clone(), bans, exceptions, invites);
+    }
+
+    /**
+     * Makes the next {@code ChannelSnapshot} with new mask lists
+     * 
+     * @param bans
+     *            the bans, unmodifiable
+     * @param exceptions
+     *            the ban exceptions, unmodifiable
+     * @param invites
+     *            the invite exceptions, unmodifiable
+     * @return the next {@code ChannelSnapshot}
+     */
+    final ChannelSnapshot withLists(List<Ban> bans, List<Ban> exceptions, List<Ban> invites) {
+        return new ChannelSnapshot(this, members, memberships, users, ignored, topic, modes, modeParams, bans, exceptions, invites);
+    }
+
+    /**
+     * Gets the {@link Channel} this is a snapshot of
+     * 
+     * @return the {@link Channel}
+     */
+    public final Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets the version of the snapshot, which goes up by one each time the {@link Channel} changes
+     * 
+     * @return the version
+     */
+    public final long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the {@link Membership} of the {@link User} with the given name
+     * 
+     * @param name
+     *            the name of the {@link User}
+     * @return {@link Membership} if found, {@code null} otherwise
+     */
+    public final Membership getMembership(String name) {
+        if (name == null) {
+            return null;
+        }
+        return members.get(name);
+    }
+
+    /**
+     * Gets the {@link User} with the given name
+     * 
+     * @param name
+     *            the name of the {@link User}
+     * @return {@link User} if found, {@code null} otherwise
+     */
+    public final User getUser(String name) {
+        Membership membership = getMembership(name);
+        return membership != null ? membership.getUser() : null;
+    }
+
+    /**
+     * Gets the {@link Membership}s of all {@link User}s in the {@link Channel}
+     * 
+     * @return an unmodifiable {@link List} of {@link Membership}s
+     */
+    public final List<Membership> getMemberships() {
+        return memberships;
+    }
+
+    /**
+     * Gets all {@link User}s in the {@link Channel}
+     * 
+     * @return an unmodifiable {@link List} of {@link User}s
+     */
+    public final List<User> getUsers() {
+        return users;
+    }
+
+    /**
+     * Gets the ignored {@link User}s of the {@link Channel}
+     * 
+     * @return an unmodifiable {@link List} of {@link User}s
+     */
+    public final List<User> getIgnoreList() {
+        return ignored;
+    }
+
+    /**
+     * Gets the {@link Topic} of the {@link Channel}
+     * 
+     * @return the {@link Topic}, or {@code null} if not known
+     */
+    public final Topic getTopic() {
+        return topic;
+    }
+
+    /**
+     * Checks if a flag or setting mode is set
+     * 
+     * @param mode
+     *            the mode letter (ie: m)
+     * @return {@code true} if set, {@code false} otherwise
+     */
+    public final boolean hasMode(char mode) {
+        int index = modeIndex(mode);
+        return index >= 0 && (modes & (1L << index)) != 0;
+    }
+
+    /**
+     * Gets the parameter of a setting mode
+     * 
+     * @param mode
+     *            the mode letter (ie: k)
+     * @return the parameter, or {@code null} if the mode is not set or has no parameter
+     */
+    public final String getModeParameter(char mode) {
+        int index = modeIndex(mode);
+        return index >= 0 ? modeParams[index] : null;
+    }
+
+    /**
+     * Gets the flag and setting modes that are set
+     * 
+     * @return the mode letters (ie: +klnt), without their parameters
+     */
+    public final String getModes() {
+        StringBuilder builder = new StringBuilder(Long.bitCount(modes) + 1).append('+');
+        for (int index = 0; index < MODE_INDEXES; index++) {
+            if ((modes & (1L << index)) != 0) {
+                builder.append((char) (index < 26 ? 'a' + index : 'A' + index - 26));
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets the key (+k) needed to join the {@link Channel}
+     * 
+     * @return the key, or {@code null} if there is none
+     */
+    public final String getKey() {
+        return getModeParameter(ChannelMode.KEYED.getLetter());
+    }
+
+    /**
+     * Gets the most {@link User}s allowed in the {@link Channel} (+l)
+     * 
+     * @return the limit, or {@code 0} if there is none
+     */
+    public final int getLimit() {
+        String limit = getModeParameter(ChannelMode.LIMITED.getLetter());
+        if (limit != null) {
+            try {
+                return Integer.parseInt(limit);
+            }
+            catch (NumberFormatException nfe) {
+                // Not a limit we understand
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the bans (+b) of the {@link Channel}
+     * 
+     * @return an unmodifiable {@link List} of {@link Ban}s
+     */
+    public final List<Ban> getBans() {
+        return bans;
+    }
+
+    /**
+     * Gets the ban exceptions (+e) of the {@link Channel}
+     * 
+     * @return an unmodifiable {@link List} of {@link Ban}s
+     */
+    public final List<Ban> getBanExceptions() {
+        return exceptions;
+    }
+
+    /**
+     * Gets the invite exceptions (+I) of the {@link Channel}
+     * 
+     * @return an unmodifiable {@link List} of {@link Ban}s
+     */
+    public final List<Ban> getInviteExceptions() {
+        return invites;
+    }
+
+    /**
+     * Gets the index of a mode letter, a to z then A to Z
+     * 
+     * @param mode
+     *            the mode letter
+     * @return the index, or {@code -1} if not a letter
+     */
+    static final int modeIndex(char mode) {
+        if (mode >= 'a' && mode <= 'z') {
+            return mode - 'a';
+        }
+        if (mode >= 'A' && mode <= 'Z') {
+            return mode - 'A' + 26;
+        }
+        return -1;
+    }
+
+    @Override
+    public final String toString() {
+        return String.format("ChannelSnapshot[Channel=%s Version=%d Users=%d Modes=%s]", channel.getName(), version, users.size(), getModes());
+    }
+}
@@ -0,0 +1,99 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Command Names<br>
+ * A fixed set of upper case command names (ie: PRIVMSG or WALLOPS), for finding which of them the command of an {@link IrcMessage} is
+ * without copying it out or upper casing it.
+ * <p>
+ * The names are grouped by their length and first letter, so only a name or two is ever compared, and {@link IrcMessage#getCommand(CommandNames)}
+ * hands back the name from the set itself, ready to be used as a map key.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class CommandNames {
+
+    /**
+     * A set with no names
+     */
+    public static final CommandNames NONE = new CommandNames(Arrays.<String> asList());
+
+    private static final int BUCKETS = 64;
+    private final String[][] buckets = new String[BUCKETS][];
+
+    /**
+     * Constructs a new {@code CommandNames}
+     * 
+     * @param names
+     *            the command names, in upper case
+     */
+    public CommandNames(Collection<String> names) {
+        for (String name : names) {
+            if (name.isEmpty()) {
+                continue;
+            }
+            int index = bucket(name.length(), name.charAt(0));
+            String[] bucket = buckets[index];
+            if (bucket == null) {
+                bucket = new String[] { name };
+            }
+            else {
+                bucket = Arrays.copyOf(bucket, bucket.length + 1);
+                bucket[bucket.length - 1] = name;
+            }
+            buckets[index] = bucket;
+        }
+    }
+
+    /**
+     * Finds the name matching part of some text, ignoring case
+     * 
+     * @param text
+     *            the text
+     * @param start
+     *            the index the name starts at
+     * @param end
+     *            the index the name ends at (exclusive)
+     * @return the name from the set, or {@code null} if it is not one of them
+     */
+    final String find(String text, int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return null;
+        }
+        String[] bucket = buckets[bucket(length, text.charAt(start))];
+        if (bucket != null) {
+            for (String name : bucket) {
+                if (name.length() == length && text.regionMatches(true, start, name, 0, length)) {
+                    return name;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final int bucket(int length, char first) {
+        return (length * 31 + Character.toUpperCase(first)) & (BUCKETS - 1);
+    }
+}
@@ -0,0 +1,138 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.nio.charset.Charset;
+
+import net.visualillusionsent.vibot.io.configuration.NetworkConfig;
+
+/**
+ * Flood Control<br>
+ * An ircd style penalty scheduler for the lines sent to a server.
+ * <p>
+ * Every line sent moves a penalty clock forward by the {@code Message-Delay} plus {@code Flood-Byte-Penalty} for each byte of the line.
+ * The penalty clock never falls behind the current time, and a line may be sent as long as it would not put the clock more than
+ * {@code Flood-Window} ahead of the current time. An idle connection can therefore send a burst of lines straight away,
+ * and is only slowed down to the sustained rate once it gets close to the server's flood limit.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class FloodControl {
+    private final long linePenalty;
+    private final long bytePenalty;
+    private final long window;
+    private final Charset charset;
+    private final boolean utf8;
+    private long clock = 0;
+
+    /**
+     * Constructs a new {@code FloodControl} for a network
+     * 
+     * @param config
+     *            the {@link NetworkConfig} of the network
+     */
+    FloodControl(NetworkConfig config) {
+        this.linePenalty = config.getMessageDelay();
+        this.bytePenalty = config.getFloodBytePenalty();
+        this.window = config.getFloodWindow();
+        this.charset = Charset.forName(config.getEncoding());
+        this.utf8 = charset.name().equals("UTF-8");
+    }
+
+    /**
+     * Gets how long to wait before the line can be sent without going over the flood window
+     * 
+     * @param line
+     *            the line to be sent (without the trailing \r\n)
+     * @param now
+     *            the current time in milliseconds
+     * @return milliseconds to wait, {@code 0} if the line can be sent now
+     */
+    public final synchronized long delayFor(String line, long now) {
+        if (clock <= now) {
+            // Nothing owed, any line may go
+            return 0;
+        }
+        long over = clock + cost(line) - now - window;
+        if (over <= 0) {
+            return 0;
+        }
+        // A line costing more than the whole window still goes once the clock has caught up
+        return Math.min(over, clock - now);
+    }
+
+    /**
+     * Charges a line that has been sent to the server
+     * 
+     * @param bytes
+     *            the length in bytes of the line that was sent (including the trailing \r\n)
+     * @param now
+     *            the current time in milliseconds
+     */
+    public final synchronized void charge(int bytes, long now) {
+        clock = Math.max(clock, now) + linePenalty + bytePenalty * bytes;
+    }
+
+    /**
+     * Gets the penalty for sending a line
+     * 
+     * @param line
+     *            the line (without the trailing \r\n)
+     * @return the penalty in milliseconds
+     */
+    public final long cost(String line) {
+        return linePenalty + bytePenalty * byteLength(line);
+    }
+
+    /**
+     * Gets the length of the line on the wire, including the trailing \r\n
+     * 
+     * @param line
+     *            the line (without the trailing \r\n)
+     * @return the length in bytes
+     */
+    private final int byteLength(String line) {
+        if (utf8) {
+            int bytes = 2;
+            for (int index = 0; index < line.length(); index++) {
+                char ch = line.charAt(index);
+                if (ch < 0x80) {
+                    bytes++;
+                }
+                else if (ch < 0x800) {
+                    bytes += 2;
+                }
+                else if (Character.isHighSurrogate(ch)) {
+                    // The pair is 4 bytes, the low surrogate adds nothing
+                    bytes += 4;
+                    index++;
+                }
+                else {
+                    bytes += 3;
+                }
+            }
+            return bytes;
+        }
+        else if (charset.newEncoder().maxBytesPerChar() == 1.0F) {
+            return line.length() + 2;
+        }
+        return line.getBytes(charset).length + 2;
+    }
+}
@@ -0,0 +1,223 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+/**
+ * Host Mask<br>
+ * A compiled {@code nick!user@host} mask, as used by bans, ban exceptions and invite exceptions. {@code *} matches any number of characters
+ * and {@code ?} matches any one character.
+ * <p>
+ * Masks are normalized the way servers do it, so {@code nick} is {@code nick!*@*} and {@code *@host} is {@code *!*@host}, and compared
+ * without regard to case under the network's {@link CaseMapping}.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class HostMask {
+    private static final String SEPARATORS = ".:/";
+
+    private final String mask;
+    private final String nick, user, host;
+    private final String pattern;
+    private final String lowerNick, lowerHost;
+    private final CaseMapping casemapping;
+
+    /**
+     * Compiles a mask
+     * 
+     * @param mask
+     *            the mask (ie: *!*@*.example.com)
+     * @param casemapping
+     *            the {@link CaseMapping} of the network
+     */
+    public HostMask(String mask, CaseMapping casemapping) {
+        this.mask = mask;
+        this.casemapping = casemapping;
+
+        int bang = mask.indexOf('!');
+        int at = mask.indexOf('@', bang + 1);
+        if (bang < 0 && at < 0) {
+            nick = mask;
+            user = "*";
+            host = "*";
+        }
+        else if (bang < 0) {
+            nick = "*";
+            user = mask.substring(0, at);
+            host = mask.substring(at + 1);
+        }
+        else if (at < 0) {
+            nick = mask.substring(0, bang);
+            user = mask.substring(bang + 1);
+            host = "*";
+        }
+        else {
+            nick = mask.substring(0, bang);
+            user = mask.substring(bang + 1, at);
+            host = mask.substring(at + 1);
+        }
+        this.lowerNick = casemapping.toLowerCase(nick.isEmpty() ? "*" : nick);
+        this.lowerHost = casemapping.toLowerCase(host.isEmpty() ? "*" : host);
+        this.pattern = lowerNick.concat("!").concat(casemapping.toLowerCase(user.isEmpty() ? "*" : user)).concat("@").concat(lowerHost);
+    }
+
+    /**
+     * Gets the mask as it was given
+     * 
+     * @return the mask
+     */
+    public final String getMask() {
+        return mask;
+    }
+
+    /**
+     * Gets the nick part of the mask
+     * 
+     * @return the nick part
+     */
+    public final String getNick() {
+        return nick;
+    }
+
+    /**
+     * Gets the user (login) part of the mask
+     * 
+     * @return the user part
+     */
+    public final String getUser() {
+        return user;
+    }
+
+    /**
+     * Gets the host part of the mask
+     * 
+     * @return the host part
+     */
+    public final String getHost() {
+        return host;
+    }
+
+    /**
+     * Checks if a {@code nick!user@host} matches the mask
+     * 
+     * @param hostmask
+     *            the {@code nick!user@host} to check
+     * @return {@code true} if it matches
+     */
+    public final boolean matches(String hostmask) {
+        return matchesLower(casemapping.toLowerCase(hostmask));
+    }
+
+    /**
+     * Checks if a {@code nick!user@host} that is already in lower case matches the mask
+     */
+    final boolean matchesLower(String hostmask) {
+        int ti = 0, pi = 0, star = -1, mark = 0;
+        while (ti < hostmask.length()) {
+            if (pi < pattern.length()) {
+                char pc = pattern.charAt(pi);
+                if (pc == '*') {
+                    star = pi++;
+                    mark = ti;
+                    continue;
+                }
+                if (pc == '?' || pc == hostmask.charAt(ti)) {
+                    pi++;
+                    ti++;
+                    continue;
+                }
+            }
+            if (star < 0) {
+                return false;
+            }
+            // Let the last * take one more character and try again
+            pi = star + 1;
+            ti = ++mark;
+        }
+        while (pi < pattern.length() && pattern.charAt(pi) == '*') {
+            pi++;
+        }
+        return pi == pattern.length();
+    }
+
+    /**
+     * Gets the literal end of the host part, from its first separator (ie: .example.com for *.example.com), or the whole host if it has no
+     * wildcards. Any host the mask matches ends with it, starting at one of its own separators or at its start.
+     * 
+     * @return the host suffix, or {@code null} if there is none to index by
+     */
+    final String getHostSuffix() {
+        int wild = lastWildcard(lowerHost);
+        if (wild < 0) {
+            return lowerHost;
+        }
+        for (int index = wild + 1; index < lowerHost.length(); index++) {
+            if (SEPARATORS.indexOf(lowerHost.charAt(index)) >= 0) {
+                return lowerHost.substring(index);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the literal start of the host part, up to and including its last separator (ie: 192.168.1. for 192.168.1.*). Any host the mask
+     * matches starts with it, ending at one of its own separators.
+     * 
+     * @return the host prefix, or {@code null} if there is none to index by
+     */
+    final String getHostPrefix() {
+        int wild = firstWildcard(lowerHost);
+        for (int index = (wild < 0 ? lowerHost.length() : wild) - 1; index >= 0; index--) {
+            if (SEPARATORS.indexOf(lowerHost.charAt(index)) >= 0) {
+                return lowerHost.substring(0, index + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the nick part in lower case if it has no wildcards
+     * 
+     * @return the nick, or {@code null} if it has wildcards
+     */
+    final String getLiteralNick() {
+        return firstWildcard(lowerNick) < 0 ? lowerNick : null;
+    }
+
+    /**
+     * Checks if a character separates the parts of a host (ie: the dots)
+     */
+    static final boolean isSeparator(char ch) {
+        return SEPARATORS.indexOf(ch) >= 0;
+    }
+
+    private static final int firstWildcard(String text) {
+        int star = text.indexOf('*'), query = text.indexOf('?');
+        return star < 0 ? query : query < 0 ? star : Math.min(star, query);
+    }
+
+    private static final int lastWildcard(String text) {
+        return Math.max(text.lastIndexOf('*'), text.lastIndexOf('?'));
+    }
+
+    @Override
+    public final String toString() {
+        return mask;
+    }
+}
@@ -26,30 +26,47 @@
  */
 package net.visualillusionsent.vibot.io.irc;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.visualillusionsent.utils.DateUtils;
 import net.visualillusionsent.utils.IPAddressUtils;
 import net.visualillusionsent.utils.UtilityException;
 import net.visualillusionsent.vibot.CommandParser;
-import net.visualillusionsent.vibot.Queue;
 import net.visualillusionsent.vibot.VIBot;
+import net.visualillusionsent.vibot.api.events.CancellableEvent;
 import net.visualillusionsent.vibot.api.events.EventManager;
+import net.visualillusionsent.vibot.api.events.irc.ChannelMessage;
+import net.visualillusionsent.vibot.api.events.irc.Connect;
+import net.visualillusionsent.vibot.api.events.irc.Ctcp;
+import net.visualillusionsent.vibot.api.events.irc.Invite;
+import net.visualillusionsent.vibot.api.events.irc.Join;
+import net.visualillusionsent.vibot.api.events.irc.Kick;
+import net.visualillusionsent.vibot.api.events.irc.ModeChange;
+import net.visualillusionsent.vibot.api.events.irc.NetJoin;
+import net.visualillusionsent.vibot.api.events.irc.NickChange;
+import net.visualillusionsent.vibot.api.events.irc.Notice;
+import net.visualillusionsent.vibot.api.events.irc.Numeric;
+import net.visualillusionsent.vibot.api.events.irc.Part;
+import net.visualillusionsent.vibot.api.events.irc.PrivateMessage;
+import net.visualillusionsent.vibot.api.events.irc.Quit;
+import net.visualillusionsent.vibot.api.events.irc.TopicChange;
+import net.visualillusionsent.vibot.io.IdentServer;
 import net.visualillusionsent.vibot.io.ReconnectionThread;
 import net.visualillusionsent.vibot.io.configuration.BotConfig;
+import net.visualillusionsent.vibot.io.configuration.NetworkConfig;
 import net.visualillusionsent.vibot.io.dcc.DccChat;
 import net.visualillusionsent.vibot.io.dcc.DccFileTransfer;
 import net.visualillusionsent.vibot.io.dcc.DccManager;
@@ -59,50 +76,196 @@ import net.visualillusionsent.vibot.io.exception.VIBotException;
 import net.visualillusionsent.vibot.io.logging.BotLogMan;
 
 /**
+ * IRC Connection<br>
+ * A connection to a single IRC network. Each network the {@link VIBot} is on has its own {@code IRCConnection},
+ * with its own {@link NetworkConfig}, nick, {@link Channel}s and outgoing message queue.
+ * 
  * @since 1.0
  * @version 1.0
  * @author Jason (darkdiplomat)
  */
 public final class IRCConnection {
     private final VIBot bot;
+    private final NetworkConfig config;
     private final String channelPrefixes = "#";
-    private final Queue out_Queue;
+    private final OutboundQueue out_Queue;
+    private final FloodControl flood;
+    private final ISupport isupport = new ISupport();
+    private final Capabilities capabilities = new Capabilities(this);
+    private final LineSplitter splitter;
+    private final IrcMessage incoming = new IrcMessage();
+    private final HashMap<String, CommandHandler> commands = new HashMap<String, CommandHandler>();
+    private final CommandNames commandNames;
+    private final ReplyHandler[] replies = new ReplyHandler[1000];
+    private final WriteMetrics metrics = new WriteMetrics();
     private final DccManager dccManager;
-    private final ArrayList<String> netsplitusers = new ArrayList<String>();
-    private Socket socket;
-    private BufferedReader breader;
-    private BufferedWriter bwriter;
-    private IRCInput input_thread;
-    private IRCOutput output_thread;
+    private final NetsplitTracker netsplits;
+    private final StringInterner interner = new StringInterner(4096);
+    private boolean lineCancelled;
+    private IRCTransport transport;
+    private int identPort = -1;
     private InetAddress dccInetAddress;
-    private ArrayList<Channel> channels;
+    private final ConcurrentHashMap<String, Channel> channels = new ConcurrentHashMap<String, Channel>();
+    private final ConcurrentHashMap<String, User> users = new ConcurrentHashMap<String, User>();
     private boolean connected = false;
     private volatile boolean disposed = false;
-    private static IRCConnection lockdown;
+    private volatile String nick;
+    private volatile Thread reader;
+    private volatile String userhost;
 
     /**
      * The maximum length of any line that is sent via the IRC protocol.<br>
      * The IRC RFC specifies that line lengths, including the trailing \r\n must
      * not exceed 512 bytes. Hence, there is currently no option to change this
-     * value in VIBot. All lines greater than this length will be truncated
-     * before being sent to the IRC server.
+     * value in VIBot. Messages greater than this length will be split and all
+     * other lines will be truncated before being sent to the IRC server.
      */
     public static final short MAX_LINE_LENGTH = 512;
 
-    public IRCConnection(VIBot bot, Socket socket, BufferedReader breader, BufferedWriter bwriter) {
-        if (lockdown != null) {
-            throw new IllegalStateException("Only one IRCConnection instance may be created at a time.");
-        }
+    /**
+     * The query token on our own WHOX requests, to tell their replies apart from any a plugin asked for
+     */
+    private static final String WHOX_TOKEN = "152";
+
+    /**
+     * Constructs a new {@code IRCConnection}
+     * 
+     * @param bot
+     *            the {@link VIBot} instance
+     * @param config
+     *            the {@link NetworkConfig} of the network to connect to
+     */
+    public IRCConnection(VIBot bot, NetworkConfig config) {
         this.bot = bot;
-        this.socket = socket;
-        this.breader = breader;
-        this.bwriter = bwriter;
-        this.out_Queue = new Queue();
-        this.input_thread = new IRCInput(this);
-        this.output_thread = new IRCOutput(this);
-        this.channels = new ArrayList<Channel>();
+        this.config = config;
+        this.nick = config.getBotName();
+        this.out_Queue = new OutboundQueue(config.getQueueCapacity());
+        this.flood = new FloodControl(config);
+        this.splitter = new LineSplitter(Charset.forName(config.getEncoding()));
         this.dccManager = new DccManager(this);
-        lockdown = this;
+        this.netsplits = new NetsplitTracker(config.getNetsplitExpire() * 1000);
+        registerHandlers();
+        this.commandNames = new CommandNames(commands.keySet());
+    }
+
+    /**
+     * Gets the name of the network this {@code IRCConnection} is for
+     * 
+     * @return the network name
+     */
+    public final String getNetworkName() {
+        return config.getName();
+    }
+
+    /**
+     * Gets the {@link NetworkConfig} of the network this {@code IRCConnection} is for
+     * 
+     * @return the {@link NetworkConfig}
+     */
+    public final NetworkConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns the current nick of the {@link VIBot} on this network.
+     * <b>Note:</b> that if you have just changed your nick,
+     * this method will still return the old nick until confirmation
+     * of the nick change is received from the server.
+     * 
+     * @return The current nick of the {@link VIBot}.
+     */
+    public final String getNick() {
+        return nick;
+    }
+
+    /**
+     * Attempt to change the current nick (nickname) of the bot on this network.
+     * After confirmation of a successful nick change, the getNick method will return the new nick.
+     * 
+     * @param newNick
+     *            The new nick to use.
+     */
+    public final void changeNick(String newNick) {
+        if (newNick == null) {
+            throw new NullPointerException("Nick cannot be null");
+        }
+        else if (newNick.trim().isEmpty()) {
+            throw new IllegalArgumentException("Nick cannot be empty");
+        }
+        sendRawLine("NICK ".concat(newNick));
+    }
+
+    /**
+     * Identify the bot with NickServ on this network, using the configured NickServ password
+     * 
+     * @see VIBot#identify()
+     */
+    public final void identify() {
+        String nickserv_pass = config.getNickServPassword();
+        if (nickserv_pass != null && !nickserv_pass.isEmpty()) {
+            sendRawLine("NICKSERV IDENTIFY ".concat(nickserv_pass));
+        }
+    }
+
+    /**
+     * Joins a {@link Channel}.
+     * 
+     * @param channel
+     *            The name of the channel to join (eg "#vi_irc"), optionally followed by a space and the key.
+     */
+    public final void join(String channel) {
+        if (channel == null) {
+            throw new NullPointerException("Channel cannot be null");
+        }
+        else if (!channel.startsWith("#")) {
+            throw new IllegalArgumentException("Channel must start with #");
+        }
+        sendRawLine("JOIN ".concat(channel));
+    }
+
+    /**
+     * Parts a {@link Channel} with a reason.
+     * 
+     * @param channel
+     *            The name of the channel to leave.
+     * @param reason
+     *            The reason for leaving, or {@code null} for no reason.
+     */
+    public final void part(String channel, String reason) {
+        if (channel == null) {
+            throw new NullPointerException("Channel cannot be null");
+        }
+        else if (!channel.startsWith("#")) {
+            throw new IllegalArgumentException("Channel must start with '#'");
+        }
+        if (reason != null && !reason.trim().isEmpty()) {
+            sendRawLine("PART ".concat(channel).concat(" :").concat(reason));
+        }
+        else {
+            sendRawLine("PART ".concat(channel));
+        }
+    }
+
+    /**
+     * Sends an invitation to join a channel.
+     * 
+     * @param channel
+     *            The channel you are inviting the user to join.
+     * @param nick
+     *            The nick of the user to invite
+     */
+    public final void sendInvite(Channel channel, String nick) {
+        sendRawLine("INVITE ".concat(nick).concat(" :").concat(channel.getName()));
+    }
+
+    /**
+     * Quits from the IRC server with a reason.
+     * 
+     * @param reason
+     *            The reason for quitting the server.
+     */
+    public final void quitServer(String reason) {
+        sendRawLine("QUIT :".concat(reason));
     }
 
     /**
@@ -126,11 +289,12 @@ public final class IRCConnection {
      *            The name of the channel or user nick to send to.
      * @param message
      *            The message to send.
+     * @return the {@link EnqueueResult}
      * @see Colors
      * @code.derivative PircBot
      */
-    public final void sendMessage(String target, String message) {
-        addToQueue("PRIVMSG ".concat(target).concat(" :").concat(message));
+    public final EnqueueResult sendMessage(String target, String message) {
+        return addToQueue("PRIVMSG ".concat(target).concat(" :").concat(message));
     }
 
     /**
@@ -140,10 +304,11 @@ public final class IRCConnection {
      *            The name of the channel or user nick to send to.
      * @param action
      *            The action to send.
+     * @return the {@link EnqueueResult}
      * @code.derivative PircBot
      */
-    public final void sendAction(String target, String action) {
-        sendCTCPCommand(target, "ACTION ".concat(action));
+    public final EnqueueResult sendAction(String target, String action) {
+        return sendCTCPCommand(target, "ACTION ".concat(action));
     }
 
     /**
@@ -153,9 +318,10 @@ public final class IRCConnection {
      *            The name of the channel or user nick to send to.
      * @param notice
      *            The notice to send.
+     * @return the {@link EnqueueResult}
      */
-    public final void sendNotice(String target, String notice) {
-        addToQueue("NOTICE ".concat(target).concat(" :").concat(notice));
+    public final EnqueueResult sendNotice(String target, String notice) {
+        return addToQueue("NOTICE ".concat(target).concat(" :").concat(notice));
     }
 
     /**
@@ -170,38 +336,95 @@ public final class IRCConnection {
      *            The name of the channel or user to send the CTCP message to.
      * @param command
      *            The CTCP command to send.
+     * @return the {@link EnqueueResult}
      */
-    public final void sendCTCPCommand(String target, String command) {
-        addToQueue("PRIVMSG ".concat(target).concat(" :\u0001").concat(command).concat("\u0001"));
+    public final EnqueueResult sendCTCPCommand(String target, String command) {
+        return addToQueue("PRIVMSG ".concat(target).concat(" :\u0001").concat(command).concat("\u0001"));
     }
 
     /**
      * Sends a raw line to the IRC server as soon as possible, bypassing the
      * outgoing message queue.
+     * <p>
+     * A PRIVMSG or NOTICE longer than the server will relay is split into several
+     * lines on word boundaries, anything else is truncated to {@link #MAX_LINE_LENGTH} bytes.
      * 
      * @param raw_line
      *            The raw line to send to the IRC server.
      */
     public final void sendRawLine(String raw_line) {
+        writeRawLine(raw_line);
+        flushOutput();
+    }
+
+    /**
+     * Writes a raw line to the transport without flushing it, so that it can be batched up with the lines after it
+     * 
+     * @param raw_line
+     *            The raw line to send to the IRC server.
+     * @see #sendRawLine(String)
+     */
+    final void writeRawLine(String raw_line) {
         if (raw_line == null) {
             throw new NullPointerException("raw_line cannot be null");
         }
-        if (raw_line.length() > MAX_LINE_LENGTH - 2) {
-            raw_line = raw_line.substring(0, MAX_LINE_LENGTH - 2);
-        }
 
-        synchronized (bwriter) {
-            try {
-                bwriter.write(raw_line.concat("\r\n"));
-                bwriter.flush();
-                if (!raw_line.startsWith("PONG :")) {
-                    BotLogMan.outgoing(raw_line);
+        try {
+            synchronized (splitter) {
+                splitter.reset(raw_line, relayPrefixLength());
+                while (splitter.next()) {
+                    ByteBuffer bytes = splitter.bytes();
+                    int length = bytes.remaining();
+                    transport.writeLine(bytes);
+                    // The server counts every line, queued or not
+                    flood.charge(length, System.currentTimeMillis());
+                    if (!raw_line.startsWith("PONG :")) {
+                        BotLogMan.outgoing(splitter.line());
+                    }
                 }
             }
-            catch (Exception e) {
-                // Silent response - just lose the line.
-            }
         }
+        catch (Exception e) {
+            // Silent response - just lose the line.
+        }
+    }
+
+    /**
+     * Sends everything batched up by the transport to the server
+     */
+    final void flushOutput() {
+        try {
+            transport.flush();
+        }
+        catch (Exception e) {
+            // Silent response - the transport will notice it has been disconnected.
+        }
+    }
+
+    /**
+     * Gets the counters for what has been written to the server
+     * 
+     * @return the {@link WriteMetrics}
+     */
+    public final WriteMetrics getWriteMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the length of the :nick!user@host prefix the server adds when relaying a message from the bot.<br>
+     * Until the server has shown the bot its own user and host, the longest possible host is assumed.
+     * 
+     * @return the prefix length in bytes
+     */
+    private final int relayPrefixLength() {
+        String mask = userhost;
+        if (mask == null) {
+            // ~login@ and a 63 character host
+            mask = config.getLogin();
+            return nick.length() + mask.length() + 68;
+        }
+        // :nick!user@host and the space after it
+        return nick.length() + mask.length() + 3;
     }
 
     /**
@@ -218,71 +441,191 @@ public final class IRCConnection {
     public final synchronized void dispose() {
         disposed = true;
         connected = false;
-        input_thread.dispose();
-        output_thread.dispose();
-        lockdown = null;
+        if (transport != null) {
+            transport.dispose();
+        }
+        unregisterIdent();
     }
 
-    public final synchronized void addToQueue(String line) {
-        out_Queue.add(line);
+    /**
+     * Adds a line to the outgoing message queue. Lines sent while handling a line from the server go in the {@link MessageLane#REPLY} lane,
+     * lines sent from any other thread go in the {@link MessageLane#BULK} lane, and control commands always go in the {@link MessageLane#CONTROL} lane.
+     * 
+     * @param line
+     *            the raw line to queue
+     * @return the {@link EnqueueResult}
+     */
+    public final EnqueueResult addToQueue(String line) {
+        return addToQueue(line, MessageLane.forLine(line, Thread.currentThread() == reader));
+    }
+
+    /**
+     * Adds a line to a lane of the outgoing message queue
+     * 
+     * @param line
+     *            the raw line to queue
+     * @param lane
+     *            the {@link MessageLane} to queue the line in
+     * @return the {@link EnqueueResult}
+     */
+    public final EnqueueResult addToQueue(String line, MessageLane lane) {
+        EnqueueResult result = out_Queue.add(line, lane);
+        if (result.isQueued() && transport != null) {
+            transport.wakeup();
+        }
+        return result;
     }
 
     String getQueueNext() {
-        return out_Queue.next();
+        return config.coalesceMessages() ? out_Queue.next(coalesceLimit(), isupport) : out_Queue.next();
+    }
+
+    String pollQueue() {
+        return config.coalesceMessages() ? out_Queue.poll(coalesceLimit(), isupport) : out_Queue.poll();
+    }
+
+    /**
+     * Gets how long a coalesced line may be, leaving room for the :nick!user@host prefix the server adds when relaying it
+     * 
+     * @return the maximum length
+     */
+    private final int coalesceLimit() {
+        return MAX_LINE_LENGTH - 2 - relayPrefixLength();
+    }
+
+    boolean hasQueued() {
+        return !out_Queue.isEmpty();
+    }
+
+    FloodControl getFloodControl() {
+        return flood;
+    }
+
+    /**
+     * Gets the shared copy of a hostname or login, so the {@link User}s that have the same one share it
+     * 
+     * @param text
+     *            the hostname or login
+     * @return the shared copy
+     */
+    final String intern(String text) {
+        return interner.intern(text);
+    }
+
+    /**
+     * Gets the features the server has advertised with RPL_ISUPPORT
+     * 
+     * @return the {@link ISupport}
+     */
+    public final ISupport getISupport() {
+        return isupport;
+    }
+
+    /**
+     * Gets the IRCv3 capabilities negotiated with the server
+     * 
+     * @return the {@link Capabilities}
+     */
+    public final Capabilities getCapabilities() {
+        return capabilities;
     }
 
     public void start() {
-        input_thread.start();
-        output_thread.start();
+        transport.start();
     }
 
     public InetAddress getInetAddress() {
-        if (socket != null) {
-            return socket.getLocalAddress();
+        if (transport != null) {
+            return transport.getLocalAddress();
         }
         return null;
     }
 
     void disconnected() {
         if (!disposed) {
-            BotLogMan.warning("Disconnected from server...");
+            BotLogMan.warning("Disconnected from server: ".concat(config.getServer()).concat(" (").concat(config.getName()).concat(")..."));
             connected = false;
-            new ReconnectionThread(bot).start();
+            new ReconnectionThread(this).start();
         }
     }
 
-    void closeSocket() throws IOException {
-        breader.close();
-        bwriter.close();
-        socket.close();
+    /**
+     * Gets the {@link User} known by a nick on this network
+     * 
+     * @param nick
+     *            the nick of the {@link User}
+     * @return the {@link User}, or {@code null} if they are not in any of the {@link Channel}s the {@link VIBot} is in
+     */
+    public final User getUser(String nick) {
+        return users.get(userKey(nick));
     }
 
-    BufferedReader getReader() {
-        return breader;
+    private final String userKey(String nick) {
+        return isupport.getCaseMapping().toLowerCase(nick);
     }
 
     /**
-     * Remove a user from all channels in our memory.
+     * Gets the one {@link User} for a nick, adding them to the registry if they are not already known.<br>
+     * The login and hostname are updated if they are given.
      */
-    private final void removeUserAll(String sourceNick) {
-        synchronized (channels) {
-            for (Channel channel : channels) {
-                User user = channel.getUser(sourceNick);
-                if (user != null) {
-                    channel.removeUser(user);
-                }
-            }
+    private final User internUser(String nick, String login, String hostname) {
+        String key = userKey(nick);
+        User user = users.get(key);
+        if (user == null) {
+            user = new User(nick, null, null, this);
+            users.put(key, user);
+        }
+        if (login != null && !login.isEmpty()) {
+            user.setLogin(login);
+        }
+        if (hostname != null && !hostname.isEmpty()) {
+            user.setHost(hostname);
+        }
+        return user;
+    }
+
+    /**
+     * Drops a user from the registry once they are no longer in any channel we are in.
+     */
+    private final void forgetUser(User user) {
+        if (user.getMemberships().isEmpty()) {
+            users.remove(userKey(user.getNick()), user);
+        }
+    }
+
+    /**
+     * Remove a user from the channels they are in and from the registry.
+     */
+    private final void removeUser(User user) {
+        for (Channel channel : user.getChannels()) {
+            channel.removeUser(user);
         }
+        users.remove(userKey(user.getNick()), user);
     }
 
     /**
-     * Rename a user if they appear in any of the channels we know about.
+     * Rename a user in the channels they are in and in the registry.
      */
     private final void renameUser(User user, String newNick) {
-        synchronized (channels) {
-            for (Channel channel : channels) {
-                channel.renameUser(user, newNick);
-            }
+        String oldNick = user.getNick();
+        for (Channel channel : user.getChannels()) {
+            channel.renameUser(oldNick, newNick);
+        }
+        user.setNick(newNick);
+        if (users.remove(userKey(oldNick), user)) {
+            users.put(userKey(newNick), user);
+        }
+    }
+
+    /**
+     * Removes a channel we have left, along with any users we no longer share a channel with.
+     */
+    private final void removeChannel(Channel channel) {
+        channels.remove(channelKey(channel.getName()), channel);
+        List<User> members = channel.getUsers();
+        channel.removeAllUsers();
+        for (User member : members) {
+            forgetUser(member);
         }
     }
 
@@ -290,24 +633,53 @@ public final class IRCConnection {
      * Removes all channels from our memory of users.
      */
     private final void removeAllChannels() {
-        synchronized (channels) {
-            channels = new ArrayList<Channel>();
+        for (Channel channel : channels.values()) {
+            channel.removeAllUsers();
         }
+        channels.clear();
+        users.clear();
     }
 
+    private final String channelKey(String chan) {
+        return isupport.getCaseMapping().toLowerCase(chan);
+    }
+
+    /**
+     * Gets a {@link Channel} on this network
+     * 
+     * @param chan
+     *            the name of the {@link Channel}
+     * @return the {@link Channel}, or {@code null} if not known
+     */
     public final Channel getChannel(String chan) {
-        synchronized (channels) {
-            for (Channel channel : channels) {
-                if (channel.getName().equals(chan)) {
-                    return channel;
-                }
+        if (chan == null) {
+            return null;
+        }
+        return channels.get(channelKey(chan));
+    }
+
+    /**
+     * Gets a {@link Channel}, adding it if it is not already known
+     */
+    private final Channel getOrAddChannel(String chan) {
+        Channel channel = getChannel(chan);
+        if (channel == null) {
+            Channel added = new Channel(chan, this);
+            channel = channels.putIfAbsent(channelKey(chan), added);
+            if (channel == null) {
+                channel = added;
             }
         }
-        return null;
+        return channel;
     }
 
-    final List<Channel> getChannels() {
-        return Collections.unmodifiableList(channels);
+    /**
+     * Gets a snapshot of the {@link Channel}s known on this network, which does not change as {@link Channel}s are joined and left
+     * 
+     * @return an unmodifiable {@link List} of {@link Channel}s
+     */
+    public final List<Channel> getChannels() {
+        return Collections.unmodifiableList(new ArrayList<Channel>(channels.values()));
     }
 
     /**
@@ -328,78 +700,88 @@ public final class IRCConnection {
             throw new IOException("The VIBot is already connected to an IRC server.  Disconnect first.");
         }
 
-        // Clear everything we may have know about channels.
+        // Open the connection to the server if it has not been opened already.
+        if (transport == null) {
+            openTransport();
+        }
+
+        // Clear everything we may have know about channels and the server.
         removeAllChannels();
+        isupport.clear();
+        netsplits.clear();
+        userhost = null;
 
         // Attempt to join the server.
-        if (BotConfig.getServerPassword() != null && !BotConfig.getServerPassword().isEmpty()) {
-            sendRawLine("PASS ".concat(BotConfig.getServerPassword()));
+        if (config.getServerPassword() != null && !config.getServerPassword().isEmpty()) {
+            sendRawLine("PASS ".concat(config.getServerPassword()));
         }
 
-        String nick = BotConfig.getBotName();
+        // Registration is held back until capabilities have been negotiated
+        capabilities.start();
+
+        String nick = config.getBotName();
         sendRawLine("NICK ".concat(nick));
-        sendRawLine("USER " + BotConfig.getLogin() + " 8 * :" + bot.getRealName());
+        sendRawLine("USER " + config.getLogin() + " 8 * :" + bot.getRealName());
 
         // Read stuff back from the server to see if we connected.
         String line = null;
         int tries = 1;
-        while ((line = breader.readLine()) != null) {
+        while ((line = transport.readLine()) != null) {
 
             handleLine(line);
 
-            int firstSpace = line.indexOf(" ");
-            int secondSpace = line.indexOf(" ", firstSpace + 1);
-            if (secondSpace >= 0) {
-                String code = line.substring(firstSpace + 1, secondSpace);
-
-                if (code.equals("004")) {
+            // handleLine has left the line parsed
+            int code = incoming.getNumeric();
+            if (code >= 0) {
+                if (code == 1) {
+                    // Registered, so the server is not going to negotiate if it has not already
+                    capabilities.abort();
+                }
+                else if (code == 4) {
                     // We're connected to the server.
                     break;
                 }
-                else if (code.equals("433")) {
-                    if (BotConfig.autoNickChange()) {
+                else if (code == 433) {
+                    if (config.autoNickChange()) {
                         tries++;
-                        nick = BotConfig.getBotName().concat("_").concat(String.valueOf(tries));
+                        nick = config.getBotName().concat("_").concat(String.valueOf(tries));
                         sendRawLine("NICK " + nick);
                     }
                     else {
-                        socket.close();
+                        transport.close();
                         throw new NickAlreadyInUseException(line);
                     }
                 }
-                else if (code.equals("439")) {
-                    // No action required.
+                else if (code == 439 || (code == 421 && incoming.isParam(1, "CAP"))) {
+                    // No action required, servers without capabilities may not know CAP.
                 }
-                else if (code.startsWith("5") || code.startsWith("4")) {
-                    socket.close();
+                else if (code >= 400 && code < 600) {
+                    transport.close();
                     throw new IRCException("Could not log into the IRC server: " + line);
                 }
             }
-            bot.setNick(nick, this);
+            this.nick = nick;
 
         }
         connected = true;
 
         //Identify
-        String nickserv_pass = BotConfig.getNickServPassword();
-        if (nickserv_pass != null && !nickserv_pass.isEmpty()) {
-            sendRawLine("NICKSERV IDENTIFY ".concat(BotConfig.getNickServPassword()));
-        }
-
-        BotLogMan.info("Logged onto server: ".concat(BotConfig.getServer()));
+        identify();
 
-        // This makes the socket timeout on read operations after 3 minutes.
-        socket.setSoTimeout(180000);
+        BotLogMan.info("Logged onto server: ".concat(config.getServer()).concat(" (").concat(config.getName()).concat(")"));
 
-        // Now start the IRCInput/IRCOutput to read all other lines from the server.
+        // Now start the transport to read all other lines from the server.
         start();
 
         //Join pre-defined channels
-        for (String chan : BotConfig.getChannels()) {
-            bot.join(chan);
+        for (String chan : config.getChannels()) {
+            if (!chan.isEmpty()) {
+                join(chan);
+            }
         }
 
-        EventManager.activateConnectEvent();
+        EventManager.activateConnectEvent(this);
+        EventManager.post(new Connect(this));
     }
 
     /**
@@ -414,155 +796,270 @@ public final class IRCConnection {
      * @throws VIBotException
      */
     public void handleLine(String line) throws VIBotException {
+        reader = Thread.currentThread();
         BotLogMan.incoming("Handling Line-".concat(line));
 
+        if (!incoming.parse(line)) {
+            // We don't know what this line means.
+            //this.onUnknown(line);
+            return;
+        }
+
+        // Every line moves netsplits along, even the PINGs on a quiet network
+        deliverNetJoins();
+        lineCancelled = false;
+
         // Check for server pings.
-        if (line.startsWith("PING ")) {
+        if (incoming.isCommand("PING")) {
             // Respond to the ping and return immediately.
             // logger.log(BotLevel.SERVERPING, line);
-            this.sendRawLine("PONG ".concat(line.substring(5)));
+            this.sendRawLine("PONG ".concat(incoming.getRawParams()));
             return;
         }
 
-        String sourceNick = "";
-        String sourceLogin = "";
-        String sourceHostname = "";
+        if (incoming.isNumeric()) {
+            ReplyHandler handler = replies[incoming.getNumeric()];
+            if (handler != null) {
+                handler.handle(incoming);
+            }
+            if (EventManager.hasSubscribers(Numeric.class)) {
+                EventManager.post(new Numeric(this, incoming));
+            }
+        }
+        else {
+            processCommand();
+        }
 
-        StringTokenizer tokenizer = new StringTokenizer(line);
-        String senderInfo = tokenizer.nextToken();
-        String command = tokenizer.nextToken();
-        String target = null;
+        // Plugins see every line, including those the VIBot does not deal with itself, but not those a plugin dropped
+        if (!lineCancelled) {
+            EventManager.activateRawHandlers(this, incoming);
+        }
+    }
 
-        int exclamation = senderInfo.indexOf("!");
-        int at = senderInfo.indexOf("@");
-        if (senderInfo.startsWith(":")) {
-            if (exclamation > 0 && at > 0 && exclamation < at) {
-                sourceNick = senderInfo.substring(1, exclamation);
-                sourceLogin = senderInfo.substring(exclamation + 1, at);
-                sourceHostname = senderInfo.substring(at + 1);
-            }
-            else {
-                if (tokenizer.hasMoreTokens()) {
-                    String token = command;
+    /**
+     * Posts a {@link CancellableEvent} for the line being handled, and if a plugin cancels it the rest of the line's handling is skipped
+     * 
+     * @param event
+     *            the {@link CancellableEvent}
+     * @return {@code true} if cancelled
+     */
+    private final boolean cancelled(CancellableEvent event) {
+        lineCancelled = EventManager.post(event);
+        return lineCancelled;
+    }
 
-                    int code = -1;
-                    try {
-                        code = Integer.parseInt(token);
-                    }
-                    catch (NumberFormatException e) {
-                        // Keep the existing value.
-                    }
+    /**
+     * Handles the command in the line that was just read, after working out the {@link Channel} and {@link User} it is for
+     */
+    private final void processCommand() {
+        // Servers and nicks without a login and hostname only have a nick, the login and hostname are only copied out when needed
+        String sourceNick = incoming.getNick();
+        String target = incoming.getParam(0);
+
+        if (incoming.hasHost() && incoming.isNick(this.nick)) {
+            // Remember how the server sees us, for working out how long relayed messages will be
+            userhost = incoming.getUser().concat("@").concat(incoming.getHost());
+        }
 
-                    if (code != -1) {
-                        String errorStr = token;
-                        String response = line.substring(line.indexOf(errorStr, senderInfo.length()) + 4, line.length());
-                        this.processServerResponse(code, response);
-                        // Return from the method.
-                        return;
-                    }
-                    else {
-                        // This is not a server response.
-                        // It must be a nick without login and hostname.
-                        // (or maybe a NOTICE or suchlike from the server)
-                        sourceNick = senderInfo;
-                        target = token;
-                    }
-                }
-                else {
-                    // We don't know what this line means.
-                    //this.onUnknown(line);
-                    // Return from the method;
-                    return;
-                }
-            }
+        String command = incoming.getCommand(commandNames);
+        CommandHandler handler = command != null ? commands.get(command) : null;
+        if (handler == null) {
+            // If we reach this point, then we've found something that the
+            // VIBot Doesn't currently deal with.
+            //this.onUnknown(line);
+            return;
         }
 
-        command = command.toUpperCase();
-        if (sourceNick.startsWith(":")) {
-            sourceNick = sourceNick.substring(1);
+        Channel channel = null;
+        if (!target.isEmpty() && channelPrefixes.indexOf(target.charAt(0)) >= 0) {
+            channel = getOrAddChannel(target);
         }
-        if (target == null) {
-            target = tokenizer.nextToken();
+
+        User user = users.get(userKey(sourceNick));
+        if (user == null) {
+            // Someone we do not share a channel with (or the server)
+            user = new User(sourceNick, incoming.getHost(), incoming.getUser(), this);
         }
-        if (target.startsWith(":")) {
-            target = target.substring(1);
+        else if (user.hasNoHost() && incoming.hasHost()) {
+            // Fill in what WHO has not told us yet
+            user.setLogin(incoming.getUser());
+            user.setHost(incoming.getHost());
         }
+        handler.handle(sourceNick, target, channel, user);
+    }
 
-        Channel channel = null;
-        try {
-            if (channelPrefixes.indexOf(target.charAt(0)) >= 0) {
-                channel = getChannel(target);
-                if (channel == null) {
-                    channel = new Channel(target, this);
-                    channels.add(channel);
-                }
+    /**
+     * Gives or takes a membership mode for a nick in a channel
+     */
+    private final void setStatus(Channel channel, String member, int status, boolean give) {
+        if (member.equals(this.nick)) {
+            channel.setBotStatus(status, give);
+            return;
+        }
+        Membership membership = channel.getMembership(member);
+        if (membership != null) {
+            if (give) {
+                membership.addStatus(status);
+            }
+            else {
+                membership.removeStatus(status);
             }
         }
-        catch (Exception e) {}
+    }
 
-        User user = null;
-        if (channel != null) {
-            user = channel.getUser(sourceNick);
-        }
+    /**
+     * Applies the modes of a MODE line or RPL_CHANNELMODEIS to a {@link Channel}, using the {@link ModeType}s from RPL_ISUPPORT to know which
+     * modes take a parameter. The mode string is read in place, so only the parameters are copied out.
+     * 
+     * @param channel
+     *            the {@link Channel} the modes are for
+     * @param message
+     *            the line
+     * @param first
+     *            the index of the parameter with the mode string, the mode parameters following it
+     * @param setBy
+     *            the {@link User} changing the modes, or {@code null} for RPL_CHANNELMODEIS
+     * @return the {@link ModeChanges} that were applied
+     */
+    private final ModeChanges applyChannelModes(Channel channel, IrcMessage message, int first, User setBy) {
+        int length = message.getParamLength(first);
+        ModeChanges changes = new ModeChanges(length);
+        PrefixTable prefixes = isupport.getPrefixes();
+        boolean adding = true, settings = false, lists = false;
+        int p = first + 1;
+
+        for (int i = 0; i < length; i++) {
+            char mode = message.getParamChar(first, i);
+            if (mode == '+' || mode == '-') {
+                adding = mode == '+';
+                continue;
+            }
 
-        if (user == null) {
-            user = new User("", sourceNick, sourceHostname, sourceLogin, this);
-            if (channel != null) {
-                channel.addUser(user);
+            ModeType type = isupport.getModeType(mode);
+            String param = null;
+            if (type.takesParameter(adding)) {
+                if (p >= message.getParamCount()) {
+                    // The server left it off, nothing to apply
+                    continue;
+                }
+                param = message.getParam(p++);
+            }
+
+            switch (type) {
+                case PREFIX:
+                    // A membership mode (op, voice...) for the nick in the parameter
+                    setStatus(channel, param, prefixes.getModeBit(mode), adding);
+                    break;
+                case LIST:
+                    BanList list = channel.getBanList(mode);
+                    if (list != null) {
+                        if (adding) {
+                            list.add(new Ban(channel, param, setBy, formatDateTime(message.getTime())));
+                        }
+                        else {
+                            list.remove(param);
+                        }
+                    }
+                    break;
+                default:
+                    channel.applyMode(mode, adding, param);
+                    break;
             }
+            changes.add(mode, adding, param);
+            settings |= type != ModeType.LIST && type != ModeType.PREFIX;
+            lists |= type == ModeType.LIST;
+        }
+        // Once for the whole line, rather than for every mode
+        if (settings) {
+            channel.publishModes();
+        }
+        if (lists) {
+            channel.publishLists();
+        }
+        return changes;
+    }
+
+    /**
+     * Hands over the joins of any netsplits that have healed as one netjoin event each
+     */
+    private final void deliverNetJoins() {
+        List<NetsplitTracker.Split> healed = netsplits.poll(System.currentTimeMillis());
+        if (healed == null) {
+            return;
         }
-        // Check for CTCP requests.
-        switch (command) {
-            case "PRIVMSG":
-                if (line.indexOf(":\u0001") > 0 && line.endsWith("\u0001")) {
-                    String request = line.substring(line.indexOf(":\u0001") + 2, line.length() - 1).trim();
+        for (NetsplitTracker.Split split : healed) {
+            BotLogMan.join("Netsplit between " + split.getServers() + " is over, " + split.getRejoined().size() + " joins");
+            EventManager.activateNetJoinEvent(this, split.getServers(), split.getRejoined());
+            EventManager.post(new NetJoin(this, split.getServers(), split.getRejoined()));
+        }
+    }
 
-                    switch (request) {
+    /**
+     * Registers the handlers for the commands and numeric replies the VIBot deals with itself
+     */
+    private final void registerHandlers() {
+        register("PRIVMSG", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
+                String text = incoming.getTrailing();
+                if (text.length() > 1 && text.charAt(0) == '\u0001' && text.endsWith("\u0001")) {
+                    String request = text.substring(1, text.length() - 1).trim();
+                    int space = request.indexOf(' ');
+                    String command = (space < 0 ? request : request.substring(0, space)).toUpperCase();
+                    String argument = space < 0 ? "" : request.substring(space + 1);
+                    if (EventManager.hasSubscribers(Ctcp.class) && cancelled(new Ctcp(IRCConnection.this, user, channel, command, argument))) {
+                        return;
+                    }
+
+                    switch (command) {
                         case "VERSION":
                             // VERSION request
-                            this.sendRawLine("NOTICE " + sourceNick + " :\u0001VERSION " + bot.getVersion() + "\u0001");
+                            sendRawLine("NOTICE " + sourceNick + " :\u0001VERSION " + bot.getVersion() + "\u0001");
                             break;
                         case "ACTION":
                             // ACTION request
                             break;
                         case "PING":
                             // PING request
-                            this.sendRawLine("NOTICE " + sourceNick + " :\u0001PING " + request.substring(5) + "\u0001");
-                            //this.onPing(sourceNick, sourceLogin, sourceHostname, target, request.substring(5));
-                            BotLogMan.ping(request.substring(5));
+                            sendRawLine("NOTICE " + sourceNick + " :\u0001PING " + argument + "\u0001");
+                            //onPing(sourceNick, incoming.getUser(), incoming.getHost(), target, argument);
+                            BotLogMan.ping(argument);
                             break;
                         case "TIME":
                             // TIME request
-                            this.sendRawLine("NOTICE " + sourceNick + " :\u0001TIME " + new Date().toString() + "\u0001");
-                            //this.onTime(sourceNick, sourceLogin, sourceHostname, target);
+                            sendRawLine("NOTICE " + sourceNick + " :\u0001TIME " + new Date().toString() + "\u0001");
+                            //onTime(sourceNick, incoming.getUser(), incoming.getHost(), target);
                             break;
                         case "FINGER":
-                            this.sendRawLine("NOTICE " + sourceNick + " :\u0001FINGER " + bot.getFinger() + "\u0001");
+                            sendRawLine("NOTICE " + sourceNick + " :\u0001FINGER " + bot.getFinger() + "\u0001");
                             break;
-                        default:
-                            if ((tokenizer = new StringTokenizer(request)).countTokens() >= 5 && tokenizer.nextToken().equals("DCC")) {
+                        case "DCC":
+                            if (new StringTokenizer(request).countTokens() >= 5) {
                                 // This is a DCC request.
-                                user = new User("", sourceNick, sourceHostname, sourceLogin, this);
-                                user.setHost(sourceHostname);
-                                user.setLogin(sourceLogin);
+                                user = new User(sourceNick, incoming.getHost(), incoming.getUser(), IRCConnection.this);
+                                user.setHost(incoming.getHost());
+                                user.setLogin(incoming.getUser());
                                 boolean success = dccManager.processRequest(user, request);
                                 if (!success) {
                                     // The DccManager didn't know what to do with the line.
-                                    //this.onUnknown(line);
+                                    //onUnknown(line);
                                 }
                             }
-                            else {
-                                // An unknown CTCP message - ignore it.
-                                //this.onUnknown(line);
-                            }
+                            break;
+                        default:
+                            // An unknown CTCP message - plugins may know it
                             break;
                     }
                 }
                 else if (channel != null) {
                     // This is a normal message to a channel.
-                    String message = line.substring(line.indexOf(" :") + 2);
+                    String message = text;
+                    if (EventManager.hasSubscribers(ChannelMessage.class) && cancelled(new ChannelMessage(channel, user, message))) {
+                        // A plugin has dropped it
+                        return;
+                    }
                     if (message.startsWith(String.valueOf(BotConfig.getCommandPrefix()))) {
-                        if ((!channel.isMuted() && !channel.isUserIgnored(user)) || (user.isBotOwner() || user.isOp())) {
+                        if ((!channel.isMuted() && !channel.isUserIgnored(user)) || (user.isBotOwner() || user.hasStatus(channel, Membership.AT_LEAST_OP))) {
                             String[] args = message.substring(1).split(" ");
                             boolean cont = CommandParser.parseBotCommand(channel, user, args);
                             try {
@@ -573,12 +1070,16 @@ public final class IRCConnection {
                     }
                     else {
                         EventManager.activateChannelMessageEvent(channel, user, message);
-                        BotLogMan.channelMessage("[" + channel.getName() + "] <" + user.getPrefix() + user.getNick() + "> " + message);
+                        BotLogMan.channelMessage("[" + channel.getName() + "] <" + user.getPrefix(channel) + user.getNick() + "> " + message);
                     }
                 }
                 else {
                     // This is a private message to us.
-                    String message = line.substring(line.indexOf(" :") + 2);
+                    String message = text;
+                    if (EventManager.hasSubscribers(PrivateMessage.class) && cancelled(new PrivateMessage(user, message))) {
+                        // A plugin has dropped it
+                        return;
+                    }
                     if (message.startsWith(String.valueOf(BotConfig.getCommandPrefix()))) {
                         String[] args = message.substring(1).split(" ");
                         boolean cont = CommandParser.parseBotCommand(null, user, args);
@@ -589,471 +1090,477 @@ public final class IRCConnection {
                     }
                     else {
                         EventManager.activatePrivateMessageEvent(user, message);
-                        BotLogMan.privateMessage("<" + user.getPrefix() + user.getNick() + "> " + message);
+                        BotLogMan.privateMessage("<" + user.getNick() + "> " + message);
                     }
                 }
-                break;
-            case "JOIN":
+            }
+        });
+        register("JOIN", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
                 // Someone is joining a channel.
-                if (!sourceNick.equals(bot.getNick())) {
-                    if (channel.getUser(sourceNick) == null) {
+                if (!sourceNick.equals(nick)) {
+                    user = internUser(sourceNick, incoming.getUser(), incoming.getHost());
+                    if (channel.getMembership(sourceNick) == null) {
                         channel.addUser(user);
                     }
-                    if(!netsplitusers.contains(sourceNick)){
-                		EventManager.activateJoinEvent(channel, user);
-                		BotLogMan.join("[" + channel.getName() + "] " + sourceNick + " has joined.");
-                	}
-                    else{
-                    	netsplitusers.remove(sourceNick);
+                    if (incoming.getParamCount() > 2 && capabilities.isEnabled("extended-join")) {
+                        // JOIN <channel> <account> :<real name>
+                        String account = incoming.getParam(1);
+                        user.setAccount(account.equals("*") ? null : account);
+                        user.setRealName(incoming.getTrailing());
+                    }
+                    if (!netsplits.rejoined(userKey(sourceNick), channel.getMembership(sourceNick), System.currentTimeMillis())) {
+                        EventManager.activateJoinEvent(channel, user);
+                        EventManager.post(new Join(channel, user));
+                        BotLogMan.join("[" + channel.getName() + "] " + sourceNick + " has joined.");
                     }
                 }
                 else {
                     channel.sendMessage(BotConfig.getJoinMessage());
                 }
-                break;
-            case "PART":
+            }
+        });
+        register("PART", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
                 // Someone is parting from a channel.
-                if (sourceNick.equals(bot.getNick())) {
-                    channels.remove(channel);
+                if (sourceNick.equals(nick)) {
+                    removeChannel(channel);
                 }
                 else {
-                    user = channel.getUser(sourceNick);
                     channel.removeUser(user);
+                    forgetUser(user);
                 }
                 EventManager.activatePartEvent(channel, user);
-                if (user != null) {
-                    BotLogMan.part("[" + channel.getName() + "] " + user.getNick() + " has parted.");
-                }
-                break;
-            case "NICK":
+                EventManager.post(new Part(channel, user));
+                BotLogMan.part("[" + channel.getName() + "] " + user.getNick() + " has parted.");
+            }
+        });
+        register("NICK", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
                 // Somebody is changing their nick.
                 String newNick = target;
-                if (sourceNick.equals(bot.getNick())) {
+                if (sourceNick.equals(nick)) {
                     // Update our nick if it was us that changed nick.
-                    bot.setNick(newNick, this);
+                    nick = newNick;
                 }
                 else {
-                    user = getUser(sourceNick);
-                    this.renameUser(user, newNick);
+                    renameUser(user, newNick);
                 }
-                //this.onNickChange(sourceNick, sourceLogin, sourceHostname, newNick);
-                break;
-            case "NOTICE":
+                EventManager.post(new NickChange(IRCConnection.this, user, sourceNick, newNick));
+            }
+        });
+        register("NOTICE", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
                 // Someone is sending a notice.
-                //this.onNotice(sourceNick, sourceLogin, sourceHostname, target, line.substring(line.indexOf(" :") + 2));
-                BotLogMan.notice(line);
-                break;
-            case "QUIT":
+                if (EventManager.hasSubscribers(Notice.class) && cancelled(new Notice(IRCConnection.this, user, channel, incoming.getTrailing()))) {
+                    return;
+                }
+                BotLogMan.notice(incoming.getRaw());
+            }
+        });
+        register("QUIT", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
                 // Someone has quit from the IRC server.
-                if (line.substring(line.indexOf(" :") + 2).contains("*.net *.split")) {
-                    netsplitusers.add(sourceNick);
+                String batch = incoming.getTag("batch");
+                String servers = batch != null ? netsplits.getBatch(batch) : null;
+                if (servers == null) {
+                    servers = NetsplitTracker.getServers(incoming.getTrailing());
+                }
+                if (servers != null && !sourceNick.equals(nick)) {
+                    netsplits.quit(servers, userKey(sourceNick), System.currentTimeMillis());
                 }
-                if (sourceNick.equals(bot.getNick())) {
-                    this.removeAllChannels();
+                // The channels have to be taken before the user is removed from them
+                Quit quit = EventManager.hasSubscribers(Quit.class) ? new Quit(IRCConnection.this, user, incoming.getTrailing(), user.getChannels(), servers) : null;
+                if (sourceNick.equals(nick)) {
+                    removeAllChannels();
                 }
                 else {
-                    this.removeUserAll(sourceNick);
+                    removeUser(user);
                 }
-                //this.onQuit(sourceNick, sourceLogin, sourceHostname, line.substring(line.indexOf(" :") + 2));
-                break;
-            case "KICK":
+                if (quit != null) {
+                    EventManager.post(quit);
+                }
+            }
+        });
+        register("KICK", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
                 // Somebody has been kicked from a channel.
-                String recipient = tokenizer.nextToken();
+                String recipient = incoming.getParam(1);
                 User kicked = channel.getUser(recipient);
-                if (recipient.equals(bot.getNick())) {
-                    channels.remove(channel);
+                if (recipient.equals(nick)) {
+                    removeChannel(channel);
                 }
-                else {
+                else if (kicked != null) {
                     channel.removeUser(kicked);
+                    forgetUser(kicked);
                 }
-                EventManager.activateKickEvent(channel, kicked, user, line.substring(line.indexOf(" :") + 2));
-                break;
-            case "MODE":
+                String reason = incoming.getParamCount() > 2 ? incoming.getTrailing() : "";
+                EventManager.activateKickEvent(channel, kicked, user, reason);
+                EventManager.post(new Kick(channel, kicked, user, reason));
+            }
+        });
+        register("MODE", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
                 // Somebody is changing the mode on a channel or user.
-                String mode = line.substring(line.indexOf(target, 2) + target.length() + 1);
-                if (mode.startsWith(":")) {
-                    mode = mode.substring(1);
+                if (channel != null) {
+                    ModeChanges changes = applyChannelModes(channel, incoming, 1, user);
+                    if (changes.size() > 0) {
+                        EventManager.activateModeChangeEvent(channel, user, changes);
+                        EventManager.post(new ModeChange(channel, user, changes));
+                    }
                 }
-                this.processMode(target, sourceNick, sourceLogin, sourceHostname, mode);
-                break;
-            case "TOPIC":
+            }
+        });
+        register("TOPIC", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
                 // Someone is changing the topic.
-                Topic topic = new Topic(line.substring(line.indexOf(" :") + 2));
+                Topic topic = new Topic(incoming.getTrailing());
                 try {
-                    topic.setDate(DateUtils.longToDate(System.currentTimeMillis()));
+                    topic.setDate(DateUtils.longToDate(incoming.getTime()));
                 }
                 catch (UtilityException e) {}
 
                 topic.setSetBy(sourceNick);
                 channel.setTopic(topic);
-                break;
-            case "INVITE":
+                EventManager.post(new TopicChange(channel, user, topic));
+            }
+        });
+        register("INVITE", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
                 // Somebody is inviting somebody else into a channel.
-                //this.onInvite(target, sourceNick, sourceLogin, sourceHostname, line.substring(line.indexOf(" :") + 2));
-                System.out.println(String.format("%s %s %s %s %s", target, sourceNick, sourceLogin, sourceHostname, line.substring(line.indexOf(" :") + 2))); //Debug
-                break;
-            default:
-                // If we reach this point, then we've found something that the
-                // VIBot Doesn't currently deal with.
-                //this.onUnknown(line);
-                break;
-        }
-    }
-
-    /**
-     * Called when the mode of a channel is set. We process this in order to
-     * call the appropriate onOp, onDeop, etc method before finally calling the
-     * override-able onMode method.
-     * <p>
-     * Note that this method is private and is not intended to appear in the javadoc generated documentation.
-     * 
-     * @param target
-     *            The channel or nick that the mode operation applies to.
-     * @param sourceNick
-     *            The nick of the user that set the mode.
-     * @param sourceLogin
-     *            The login of the user that set the mode.
-     * @param sourceHostname
-     *            The hostname of the user that set the mode.
-     * @param mode
-     *            The mode that has been set.
-     */
-    private final void processMode(String target, String sourceNick, String sourceLogin, String sourceHostname, String mode) {
-
-        if (channelPrefixes.indexOf(target.charAt(0)) >= 0) {
-            // The mode of a channel is being changed.
-            Channel channel = getChannel(target);
-            StringTokenizer tok = new StringTokenizer(mode);
-            String[] params = new String[tok.countTokens()];
-
-            int t = 0;
-            while (tok.hasMoreTokens()) {
-                params[t] = tok.nextToken();
-                t++;
+                EventManager.post(new Invite(IRCConnection.this, user, incoming.getParam(1)));
             }
+        });
+        register("CAP", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
+                // Capability negotiation
+                capabilities.process(incoming);
+            }
+        });
+        register("AWAY", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
+                // Someone has gone away or come back (away-notify)
+                user.setAway(incoming.getParamCount() > 0);
+            }
+        });
+        register("ACCOUNT", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
+                // Someone has logged in or out of their account (account-notify)
+                user.setAccount(target.equals("*") ? null : target);
+            }
+        });
+        register("CHGHOST", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
+                // Someone's login or hostname has changed (chghost)
+                String newLogin = target, newHost = incoming.getParam(1);
+                if (sourceNick.equals(nick)) {
+                    userhost = newLogin.concat("@").concat(newHost);
+                }
+                user.setLogin(newLogin);
+                user.setHost(newHost);
+            }
+        });
+        register("BATCH", new CommandHandler() {
+            @Override
+            void handle(String sourceNick, String target, Channel channel, User user) {
+                // A batch of related lines is starting or ending (batch)
+                if (target.startsWith("+")) {
+                    // BATCH +<reference> netsplit|netjoin <server> <server>
+                    String type = incoming.getParam(1);
+                    if ((type.equalsIgnoreCase("netsplit") || type.equalsIgnoreCase("netjoin")) && incoming.getParamCount() > 3) {
+                        netsplits.startBatch(target.substring(1), type.equalsIgnoreCase("netjoin"), incoming.getParam(2), incoming.getParam(3));
+                    }
+                }
+                else if (target.startsWith("-")) {
+                    netsplits.endBatch(target.substring(1));
+                }
+            }
+        });
 
-            char pn = ' ';
-            int p = 1;
-
-            for (int i = 0; i < params[0].length(); i++) {
-                char atPos = params[0].charAt(i);
-
-                switch (atPos) {
-                    case '+':
-                    case '-':
-                        pn = atPos;
-                        break;
-                    case 'b':
-                        if (pn == '+') {
-                            // onSetChannelBan(channel, sourceNick, sourceLogin,
-                            // sourceHostname,params[p]);
-
-                        }
-                        else {
-                            // onRemoveChannelBan(channel, sourceNick, sourceLogin,
-                            // sourceHostname, params[p]);
-                        }
-                        p++;
-                        break;
-
-                    case 'i':
-                        if (pn == '+') {
-                            // onSetInviteOnly(channel, sourceNick, sourceLogin,
-                            // sourceHostname);
-                        }
-                        else {
-                            // onRemoveInviteOnly(channel, sourceNick, sourceLogin,
-                            // sourceHostname);
-                        }
-                        break;
-
-                    case 'k':
-                        if (pn == '+') {
-                            // onSetChannelKey(channel, sourceNick, sourceLogin,
-                            // sourceHostname, params[p]);
-                        }
-                        else {
-                            // onRemoveChannelKey(channel, sourceNick, sourceLogin,
-                            // sourceHostname, params[p]);
-                        }
-                        p++;
-                        break;
-
-                    case 'l':
-                        if (pn == '+') {
-                            // onSetChannelLimit(channel, sourceNick, sourceLogin,
-                            // sourceHostname, Integer.parseInt(params[p]));
-                        }
-                        else {
-                            // onRemoveChannelLimit(channel, sourceNick,
-                            // sourceLogin, sourceHostname);
-                        }
-                        p++;
-                        break;
-
-                    case 'm':
-                        if (pn == '+') {
-                            // onSetModerated(channel, sourceNick, sourceLogin,
-                            // sourceHostname);
-                        }
-                        else {
-                            // onRemoveModerated(channel, sourceNick, sourceLogin,
-                            // sourceHostname);
-                        }
-                        break;
-
-                    case 'n':
-                        if (pn == '+') {
-                            channel.addChanMode(ChannelMode.NO_EXTERNAL_MESSAGES);
-                        }
-                        else {
-                            channel.removeChannelMode(ChannelMode.NO_EXTERNAL_MESSAGES);
-                        }
-                        break;
-
-                    case 'o':
-                        if (pn == '+') {
-                            if (params[p].equals(bot.getNick())) {
-                                channel.opBot();
-                            }
-                            else {
-                                channel.getUser(params[p]).op();
-                            }
-                        }
-                        else {
-                            if (params[p].equals(bot.getNick())) {
-                                channel.deOpBot();
-                            }
-                            else {
-                                channel.getUser(params[p]).deOp();
-                            }
-                        }
-                        p++;
-                        break;
-
-                    case 'p':
-                        if (pn == '+') {
-                            // onSetPrivate(channel, sourceNick, sourceLogin,
-                            // sourceHostname);
-                        }
-                        else {
-                            // onRemovePrivate(channel, sourceNick, sourceLogin,
-                            // sourceHostname);
-                        }
-                        break;
-
-                    case 's':
-                        if (pn == '+') {
-                            // onSetSecret(channel, sourceNick, sourceLogin,
-                            // sourceHostname);
-                        }
-                        else {
-                            // onRemoveSecret(channel, sourceNick, sourceLogin,
-                            // sourceHostname);
-                        }
-                        break;
-
-                    case 't':
-                        if (pn == '+') {
-                            // onSetTopicProtection(channel, sourceNick,
-                            // sourceLogin, sourceHostname);
-                        }
-                        else {
-                            // onRemoveTopicProtection(channel, sourceNick,
-                            // sourceLogin, sourceHostname);
-                        }
-                        break;
-
-                    case 'v':
-                        if (pn == '+') {
-                            if (params[p].equals(bot.getNick())) {
-                                channel.voiceBot();
-                            }
-                            else {
-                                channel.getUser(params[p]).voice();
-                            }
-                        }
-                        else {
-                            if (params[p].equals(bot.getNick())) {
-                                channel.deVoiceBot();
-                            }
-                            else {
-                                channel.getUser(params[p]).deVoice();
-                            }
-                        }
-                        p++;
-                        break;
-
+        register(ReplyConstants.RPL_ISUPPORT, new ReplyHandler() {
+            @Override
+            void handle(IrcMessage response) {
+                // The features supported by the server
+                isupport.parse(response);
+            }
+        });
+        register(ReplyConstants.RPL_TOPIC, new ReplyHandler() {
+            @Override
+            void handle(IrcMessage response) {
+                // This is topic information about a channel we've just joined.
+                Topic to = new Topic(response.getTrailing());
+                Channel chan = getChannel(response.getParam(1));
+                if (chan != null) {
+                    chan.setTopic(to);
                 }
             }
-        }
-        else {
-            // The mode of a user is being changed.
-        }
-    }
+        });
+        register(ReplyConstants.RPL_TOPICINFO, new ReplyHandler() {
+            @Override
+            void handle(IrcMessage response) {
+                String setBy = response.getParam(2);
+                long date = 0;
+                try {
+                    date = Long.parseLong(response.getParam(3)) * 1000;
+                }
+                catch (NumberFormatException e) {
+                    // Stick with the default value of zero.
+                }
 
-    /**
-     * This method is called by the VIBot when a numeric response is received
-     * from the IRC server. We use this method to allow VIBot to process various
-     * responses from the server before then passing them on to the
-     * onServerResponse method.
-     * <p>
-     * Note that this method is private and should not appear in any of the javadoc generated documenation.
-     * 
-     * @param code
-     *            The three-digit numerical code for the response.
-     * @param response
-     *            The full response from the IRC server.
-     */
-    private final void processServerResponse(int code, String response) {
-        String[] parsed = response.split(" ");
-        int firstSpace = response.indexOf(' ');
-        int secondSpace = response.indexOf(' ', firstSpace + 1);
-        // int thirdSpace = response.indexOf(' ', secondSpace + 1);
-        int colon = response.indexOf(':');
-        String channel = response.substring(firstSpace + 1, secondSpace);
-        String topic = response.substring(colon + 1);
-        Channel chan;
-        ReplyConstants rc = ReplyConstants.fromCode(code);
-        if (rc != null) {
-            switch (rc) {
-                case RPL_LIST:
-                    // This is a bit of information about a channel.
-
-                    //                    int userCount = 0;
-                    //                    try {
-                    //                        userCount = Integer.parseInt(response.substring(secondSpace + 1, thirdSpace));
-                    //                    }
-                    //                    catch (NumberFormatException e) {
-                    //                        // Stick with the value of zero.
-                    //                    }
-
-                    //this.onChannelInfo(channel, userCount, topic);
-                    break;
+                Channel chan = getChannel(response.getParam(1));
+                if (chan == null || chan.getTopic() == null) {
+                    return;
+                }
+                // A new Topic, as the one already published may be being read
+                Topic topic = new Topic(chan.getTopic().getTopic());
+                try {
+                    topic.setDate(DateUtils.longToDate(date));
+                }
+                catch (UtilityException e) {}
 
-                case RPL_TOPIC:
-                    // This is topic information about a channel we've just joined.
-                    Topic to = new Topic(topic);
-                    chan = getChannel(channel);
-                    if (chan != null) {
-                        chan.setTopic(to);
+                topic.setSetBy(setBy);
+                chan.setTopic(topic);
+            }
+        });
+        register(ReplyConstants.RPL_NAMREPLY, new ReplyHandler() {
+            @Override
+            void handle(IrcMessage response) {
+                // This is a list of nicks in a channel that we've just joined.
+                // <nick> [=*@] <channel> :<names>, the channel type is left out by some servers
+                String channel = response.getParam(response.getParamCount() - 2);
+                Channel chan = getOrAddChannel(channel);
+                PrefixTable prefixes = isupport.getPrefixes();
+                String names = response.getTrailing();
+
+                for (int start = 0, end; start < names.length(); start = end + 1) {
+                    end = names.indexOf(' ', start);
+                    if (end < 0) {
+                        end = names.length();
                     }
-                    break;
-
-                case RPL_TOPICINFO:
-                    StringTokenizer tokenizer = new StringTokenizer(response);
-                    tokenizer.nextToken();
-                    channel = tokenizer.nextToken();
-                    String setBy = tokenizer.nextToken();
-                    long date = 0;
-                    try {
-                        date = Long.parseLong(tokenizer.nextToken()) * 1000;
+                    if (end == start) {
+                        continue;
                     }
-                    catch (NumberFormatException e) {
-                        // Stick with the default value of zero.
+                    String nick = names.substring(start, end);
+                    String login = null, host = null;
+                    int bang = nick.indexOf('!');
+                    if (bang > 0) {
+                        // nick!login@host from userhost-in-names
+                        int at = nick.indexOf('@', bang);
+                        if (at > 0) {
+                            login = nick.substring(bang + 1, at);
+                            host = nick.substring(at + 1);
+                        }
+                        nick = nick.substring(0, bang);
                     }
-
-                    chan = getChannel(channel);
-                    try {
-                        chan.getTopic().setDate(DateUtils.longToDate(date));
+                    // The status symbols in front of the nick, more than one with multi-prefix
+                    int status = 0, index = 0, bit;
+                    while (index < nick.length() && (bit = prefixes.getSymbolBit(nick.charAt(index))) != 0) {
+                        status |= bit;
+                        index++;
                     }
-                    catch (UtilityException e) {}
-
-                    chan.getTopic().setSetBy(setBy);
-                    break;
 
-                case RPL_NAMREPLY:
-                    // This is a list of nicks in a channel that we've just joined.
-                    int channelEndIndex = response.indexOf(" :");
-                    channel = response.substring(response.lastIndexOf(' ', channelEndIndex - 1) + 1, channelEndIndex);
-                    chan = getChannel(channel);
-                    if (chan == null) {
-                        chan = new Channel(channel, this);
+                    nick = nick.substring(index);
+                    if (nick.equals(IRCConnection.this.nick)) {
+                        chan.setBotStatus(status);
                     }
-                    tokenizer = new StringTokenizer(response.substring(response.indexOf(" :") + 2));
-
-                    while (tokenizer.hasMoreTokens()) {
-                        String nick = tokenizer.nextToken();
-                        String prefix = "";
-                        if (nick.contains("~")) {
-                            //User is an Owner of the IRC Server
-                            prefix += "~";
-                        }
-                        if (nick.contains("&")) {
-                            //User is an Admin of the IRC Server
-                            prefix += "&";
-                        }
-                        if (nick.contains("@")) {
-                            // User is an operator in this channel.
-                            prefix += "@";
-                        }
-                        if (nick.contains("%")) {
-                            // User is half-op in this channel.
-                            prefix += "%";
-                        }
-                        if (nick.contains("+")) {
-                            // User is voiced in this channel.
-                            prefix += "+";
-                        }
-
-                        nick = nick.substring(prefix.length());
-                        if (nick.equals(bot.getNick())) {
-                            if (prefix.contains("@")) {
-                                chan.opBot();
-                            }
-                            else if (prefix.contains("+")) {
-                                chan.voiceBot();
-                            }
-                        }
-                        else {
-                            chan.addUser(new User(prefix, nick, null, null, this));
-                        }
+                    else {
+                        chan.putUser(internUser(nick, login, host), status);
                     }
-                    channels.add(chan);
-
-                    break;
+                }
+                // Once for the whole reply, rather than for every nick
+                chan.publishMembers();
+            }
+        });
+        register(ReplyConstants.RPL_ENDOFNAMES, new ReplyHandler() {
+            @Override
+            void handle(IrcMessage response) {
+                String channel = response.getParam(1);
+                if (!capabilities.isEnabled("userhost-in-names")) {
+                    // NAMES did not tell us who everyone is
+                    whoChannel(channel);
+                }
+                addToQueue("MODE ".concat(channel)); //Get the modes and the Ban List now
+                addToQueue("MODE ".concat(channel).concat(" +b"));
+                Channel chan = getChannel(channel);
+                if (chan != null && chan.isBotOp()) {
+                    // Only ops can see the exception lists on most servers
+                    String listModes = isupport.getListModes();
+                    if (listModes.indexOf('e') >= 0) {
+                        addToQueue("MODE ".concat(channel).concat(" +e"));
+                    }
+                    if (listModes.indexOf('I') >= 0) {
+                        addToQueue("MODE ".concat(channel).concat(" +I"));
+                    }
+                }
+            }
+        });
+        register(ReplyConstants.RPL_WHOREPLY, new ReplyHandler() {
+            @Override
+            void handle(IrcMessage response) {
+                // <nick> <channel> <login> <host> <server> <nick> <flags> :<hops> <real name>
+                User curUser = getUser(response.getParam(5));
+                if (curUser != null) {
+                    curUser.setLogin(response.getParam(2));
+                    curUser.setHost(response.getParam(3));
+                    curUser.setAway(response.getParam(6).startsWith("G"));
+                    String realname = response.getTrailing();
+                    int space = realname.indexOf(' ');
+                    if (space >= 0) {
+                        curUser.setRealName(realname.substring(space + 1));
+                    }
+                }
+            }
+        });
+        register(ReplyConstants.RPL_WHOSPCRPL, new ReplyHandler() {
+            @Override
+            void handle(IrcMessage response) {
+                // <nick> <token> <channel> <login> <host> <nick> <flags> <account> :<real name>
+                if (!response.isParam(1, WHOX_TOKEN) || response.getParamCount() < 9) {
+                    // Someone else's WHOX query
+                    return;
+                }
+                User curUser = getUser(response.getParam(5));
+                if (curUser != null) {
+                    curUser.setLogin(response.getParam(3));
+                    curUser.setHost(response.getParam(4));
+                    curUser.setAway(response.getParam(6).startsWith("G"));
+                    curUser.setAccount(response.isParam(7, "0") ? null : response.getParam(7));
+                    curUser.setRealName(response.getTrailing());
+                }
+            }
+        });
+        register(ReplyConstants.RPL_CHANNELMODEIS, new ReplyHandler() {
+            @Override
+            void handle(IrcMessage response) {
+                // <nick> <channel> <modes> [<mode params>...]
+                Channel chan = getChannel(response.getParam(1));
+                if (chan != null) {
+                    // This is every flag and setting mode, so anything not in it is no longer set
+                    chan.resetModes();
+                    if (applyChannelModes(chan, response, 2, null).size() == 0) {
+                        // No modes at all, which still has to be seen
+                        chan.publishModes();
+                    }
+                }
+            }
+        });
+        register(ReplyConstants.RPL_BANLIST, new ListEntryHandler('b'));
+        register(ReplyConstants.RPL_EXCEPTLIST, new ListEntryHandler('e'));
+        register(ReplyConstants.RPL_INVITELIST, new ListEntryHandler('I'));
+        ReplyHandler listEnd = new ReplyHandler() {
+            @Override
+            void handle(IrcMessage response) {
+                // The whole list is in, so let it be seen
+                Channel chan = getChannel(response.getParam(1));
+                if (chan != null) {
+                    chan.publishLists();
+                }
+            }
+        };
+        register(ReplyConstants.RPL_ENDOFBANLIST, listEnd);
+        register(ReplyConstants.RPL_ENDOFEXCEPTLIST, listEnd);
+        register(ReplyConstants.RPL_ENDOFINVITELIST, listEnd);
+    }
 
-                case RPL_ENDOFNAMES:
-                    whoAllInChannel(getChannel(channel));
-                    addToQueue("MODE ".concat(channel).concat(" +b")); //Get the Ban List now
-                    break;
+    /**
+     * Registers the handler for a command
+     * 
+     * @param command
+     *            the command (ie: PRIVMSG)
+     * @param handler
+     *            the {@link CommandHandler}
+     */
+    private final void register(String command, CommandHandler handler) {
+        commands.put(command, handler);
+    }
 
-                case RPL_WHOREPLY:
-                    chan = getChannel(parsed[1]);
+    /**
+     * Registers the handler for a numeric reply
+     * 
+     * @param reply
+     *            the {@link ReplyConstants} of the reply
+     * @param handler
+     *            the {@link ReplyHandler}
+     */
+    private final void register(ReplyConstants reply, ReplyHandler handler) {
+        replies[reply.getCode()] = handler;
+    }
 
-                    //Setup user
-                    User curUser = chan.getUser(parsed[5]);
-                    curUser.setLogin(parsed[2]);
-                    curUser.setHost(parsed[3]);
-                    break;
+    /**
+     * Handles a command from the server or another user
+     */
+    private abstract class CommandHandler {
+
+        /**
+         * Handles the command
+         * 
+         * @param sourceNick
+         *            the nick (or server) the command is from
+         * @param target
+         *            the first parameter, usually the channel or nick the command is for
+         * @param channel
+         *            the {@link Channel} the command is for, or {@code null} if not for a channel
+         * @param user
+         *            the {@link User} the command is from
+         */
+        abstract void handle(String sourceNick, String target, Channel channel, User user);
+    }
 
-                case RPL_ENDOFWHO:
-                    break;
+    /**
+     * Handles an entry of a ban, ban exception or invite exception list
+     */
+    private final class ListEntryHandler extends ReplyHandler {
+        private final char mode;
 
-                case RPL_BANLIST:
-                    // This is a list of bans in a channel.
-                    chan = getChannel(parsed[1]);
-                    //Index 2 = nick!user@host Index 3 = user who banned Index 4 = timestamp
-                    String[] userInfo = parsed[2].split("!");
-                    String[] userHostLogin = userInfo[1].split("@");
-                    String userNick = userInfo[0];
-                    User banned = new User("", userNick, userHostLogin[1], userHostLogin[0], this);
-                    String dateTime = "1-Jan-1970 00:00:00";
-                    try {
-                        dateTime = DateUtils.longToDateTime(Long.parseLong(parsed[4])).toString();
-                    }
-                    catch (NumberFormatException e1) {}
-                    catch (UtilityException e1) {}
-                    Ban ban = new Ban(chan, banned, new User("", parsed[3], null, null, this), dateTime);
-                    chan.addBan(ban);
-                    break;
+        ListEntryHandler(char mode) {
+            this.mode = mode;
+        }
 
-                default:
-                    break;
+        @Override
+        void handle(IrcMessage response) {
+            // <nick> <channel> <mask> [<set by> <timestamp>]
+            Channel chan = getChannel(response.getParam(1));
+            if (chan == null) {
+                return;
+            }
+            String dateTime = "1-Jan-1970 00:00:00";
+            try {
+                // Sent in seconds, like RPL_TOPICINFO
+                dateTime = formatDateTime(Long.parseLong(response.getParam(4)) * 1000);
             }
+            catch (NumberFormatException e1) {}
+            Ban ban = new Ban(chan, response.getParam(2), new User(response.getParam(3), null, null, IRCConnection.this), dateTime);
+            chan.getBanList(mode).add(ban);
         }
     }
 
+    /**
+     * Handles a numeric reply from the server
+     */
+    private abstract class ReplyHandler {
+
+        /**
+         * Handles the reply
+         * 
+         * @param response
+         *            the response from the IRC server, the first parameter being the nick it was sent to
+         */
+        abstract void handle(IrcMessage response);
+    }
+
     /**
      * Sends a file to another user. Resuming is supported. The other user must
      * be able to connect directly to your bot to be able to receive the file.
@@ -1174,39 +1681,73 @@ public final class IRCConnection {
         return dccInetAddress;
     }
 
-    private User getUser(String nick) {
-        User user = null;
-
-        for (Channel chan : channels) {
-            user = chan.getUser(nick);
-            if (user != null) {
-                break;
-            }
+    /**
+     * Formats the time of a ban list entry
+     */
+    private static final String formatDateTime(long time) {
+        try {
+            return DateUtils.longToDateTime(time).toString();
+        }
+        catch (UtilityException e) {
+            return "1-Jan-1970 00:00:00";
         }
-        return user;
     }
 
-    private final void whoAllInChannel(Channel channel) {
-        for (User user : channel.getUsers()) {
-            addToQueue("WHO ".concat(user.getNick()));
+    /**
+     * Asks who is in a channel with a single WHO, so the replies fill in everyone's login and hostname as they arrive.<br>
+     * WHOX is used where the server supports it, which also gives the account and real name.
+     */
+    private final void whoChannel(String channel) {
+        if (isupport.has("WHOX")) {
+            addToQueue("WHO ".concat(channel).concat(" %tcnuhraf,").concat(WHOX_TOKEN));
+        }
+        else {
+            addToQueue("WHO ".concat(channel));
         }
     }
 
     public void reconnect() throws IOException {
-        input_thread.dispose();
-        output_thread.dispose();
-
-        // Connect to the server.
-        socket = new Socket(BotConfig.getServer(), BotConfig.getServerPort());
-        BotLogMan.info("Connecting to server...");
-
-        //Set the encoding and open socket
-        breader = new BufferedReader(new InputStreamReader(socket.getInputStream(), BotConfig.getEncoding()));
-        bwriter = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), BotConfig.getEncoding()));
+        if (transport != null) {
+            transport.dispose();
+        }
+        openTransport();
+        connect();
+    }
 
-        input_thread = new IRCInput(this);
-        output_thread = new IRCOutput(this);
+    /**
+     * Opens a new {@link IRCTransport} to the network's server, starting the {@link IdentServer} first if needed and registering the
+     * network's login with it
+     * 
+     * @throws IOException
+     *             if it was not possible to connect to the server
+     */
+    private final void openTransport() throws IOException {
+        unregisterIdent();
+        boolean ident = BotConfig.useIdentServer();
+        if (ident) {
+            try {
+                IdentServer.listen();
+            }
+            catch (IOException ioe) {
+                BotLogMan.warning("IdentServer Failed: ", ioe);
+                ident = false;
+            }
+        }
+        BotLogMan.info("Connecting to server: ".concat(config.getServer()).concat(" (").concat(config.getName()).concat(")..."));
+        transport = IRCTransport.open(this);
+        if (ident) {
+            identPort = transport.getLocalPort();
+            IdentServer.register(identPort, config.getServerPort(), config.getLogin());
+        }
+    }
 
-        connect();
+    /**
+     * Forgets the connection registered with the {@link IdentServer}, if any
+     */
+    private final void unregisterIdent() {
+        if (identPort != -1) {
+            IdentServer.unregister(identPort, config.getServerPort());
+            identPort = -1;
+        }
     }
 }
@@ -43,18 +43,20 @@ import net.visualillusionsent.vibot.io.logging.BotLogMan;
  */
 public final class IRCInput extends Thread {
     private volatile boolean running = true;
+    private final BlockingTransport transport;
     private final IRCConnection irc_conn;
 
     /**
      * The InputThread reads lines from the IRC server and allows the VIBot to
      * handle them.
      * 
-     * @param irc_conn
-     *            An {@link IRCConnection} instance
+     * @param transport
+     *            The {@link BlockingTransport} to read from
      */
-    public IRCInput(IRCConnection irc_conn) {
+    public IRCInput(BlockingTransport transport) {
         super("IRCInput-Thread");
-        this.irc_conn = irc_conn;
+        this.transport = transport;
+        this.irc_conn = transport.getConnection();
     }
 
     /**
@@ -70,7 +72,7 @@ public final class IRCInput extends Thread {
     public void run() {
         try {
             while (running) {
-                BufferedReader breader = irc_conn.getReader();
+                BufferedReader breader = transport.getReader();
                 try {
                     String line = null;
                     while ((line = breader.readLine()) != null) {
@@ -102,7 +104,7 @@ public final class IRCInput extends Thread {
 
         // If we reach this point, then we must have disconnected.
         try {
-            irc_conn.closeSocket();
+            transport.close();
         }
         catch (Exception e) {
             // Just assume the socket was already closed.
@@ -118,7 +120,7 @@ public final class IRCInput extends Thread {
         running = false;
         interrupt();
         try {
-            irc_conn.closeSocket();
+            transport.close();
         }
         catch (Exception e) {
             // Just assume the socket was already closed.
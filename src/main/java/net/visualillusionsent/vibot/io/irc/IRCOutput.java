@@ -26,13 +26,11 @@
  */
 package net.visualillusionsent.vibot.io.irc;
 
-import net.visualillusionsent.vibot.io.configuration.BotConfig;
-
 /**
  * A Thread which is responsible for sending messages to the IRC server.
  * Messages are obtained from the outgoing message queue and sent immediately if
  * possible. If there is a flood of messages, then to avoid getting kicked from
- * a channel, we put a small delay between each one.
+ * the server, each one is held back until the {@link FloodControl} allows it.
  * 
  * @since 1.0
  * @version 1.0
@@ -62,13 +60,22 @@ public class IRCOutput extends Thread {
      */
     public void run() {
         try {
+            FloodControl flood = irc_conn.getFloodControl();
             while (true) {
-                // Small delay to prevent spamming of the channel
-                sleep(BotConfig.getMessageDelay());
-
-                String line = irc_conn.getQueueNext();
+                String line = irc_conn.pollQueue();
+                if (line == null) {
+                    // The queue has drained, send what has been batched up and wait for more
+                    irc_conn.flushOutput();
+                    line = irc_conn.getQueueNext();
+                }
                 if (line != null) {
-                    irc_conn.sendRawLine(line);
+                    // Only wait when getting close to the server's flood limit
+                    long wait;
+                    while ((wait = flood.delayFor(line, System.currentTimeMillis())) > 0) {
+                        irc_conn.flushOutput();
+                        sleep(wait);
+                    }
+                    irc_conn.writeRawLine(line);
                 }
                 else {
                     break;
@@ -0,0 +1,142 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * IRC Transport<br>
+ * The socket level half of an {@link IRCConnection}. A transport reads lines from the server and hands them to
+ * {@link IRCConnection#handleLine(String)}, and writes the lines given to it by {@link IRCConnection#sendRawLine(String)}
+ * and the outgoing message queue.
+ * <p>
+ * Before {@link #start()} is called, a transport works in a plain blocking fashion so that {@link IRCConnection#connect()} can read the registration replies itself.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public abstract class IRCTransport {
+
+    /**
+     * The number of milliseconds the server may stay silent before it is sent a PING
+     */
+    public static final int PING_INTERVAL = 180000;
+
+    /**
+     * The {@link IRCConnection} this transport belongs to
+     */
+    protected final IRCConnection irc_conn;
+
+    /**
+     * Constructs a new {@code IRCTransport}
+     * 
+     * @param irc_conn
+     *            the {@link IRCConnection} this transport belongs to
+     */
+    protected IRCTransport(IRCConnection irc_conn) {
+        this.irc_conn = irc_conn;
+    }
+
+    /**
+     * Reads a single line from the server, blocking until one is available.<br>
+     * Only valid before {@link #start()} has been called.
+     * 
+     * @return the line read, or {@code null} if the server closed the connection
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public abstract String readLine() throws IOException;
+
+    /**
+     * Writes a single encoded line to the server as soon as possible.<br>
+     * The line must already contain the trailing \r\n. The buffer is consumed and may be reused by the caller once this returns.
+     * 
+     * @param line
+     *            the encoded line to write
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public abstract void writeLine(ByteBuffer line) throws IOException;
+
+    /**
+     * Makes sure everything written so far is sent to the server.<br>
+     * Transports may batch lines up until they are flushed, or until their buffer is full.
+     * 
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public abstract void flush() throws IOException;
+
+    /**
+     * Starts the transport reading lines from the server and consuming the outgoing message queue
+     */
+    public abstract void start();
+
+    /**
+     * Stops the transport and closes the connection without the {@link IRCConnection} being told it was disconnected
+     */
+    public abstract void dispose();
+
+    /**
+     * Closes the underlying connection
+     * 
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public abstract void close() throws IOException;
+
+    /**
+     * Gets the local {@link InetAddress} of the connection
+     * 
+     * @return the local address or {@code null} if not connected
+     */
+    public abstract InetAddress getLocalAddress();
+
+    /**
+     * Gets the local port of the connection
+     * 
+     * @return the local port or {@code -1} if not connected
+     */
+    public abstract int getLocalPort();
+
+    /**
+     * Called when a line has been added to the outgoing message queue
+     */
+    public abstract void wakeup();
+
+    /**
+     * Opens a new transport to the network's server.<br>
+     * The selector based {@link NIOTransport} is used unless it has been disabled with the {@code Use-NIO} property,
+     * in which case the thread per direction {@link BlockingTransport} is used.
+     * 
+     * @param irc_conn
+     *            the {@link IRCConnection} the transport is for
+     * @return the opened {@code IRCTransport}
+     * @throws IOException
+     *             if it was not possible to connect to the server
+     */
+    static IRCTransport open(IRCConnection irc_conn) throws IOException {
+        if (irc_conn.getConfig().useNIO()) {
+            return new NIOTransport(irc_conn);
+        }
+        return new BlockingTransport(irc_conn);
+    }
+}
@@ -0,0 +1,209 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ISupport<br>
+ * Holds the features the server has advertised with RPL_ISUPPORT (005) for an {@link IRCConnection}
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class ISupport {
+    private final ConcurrentHashMap<String, String> tokens = new ConcurrentHashMap<String, String>();
+    private volatile Map<String, Integer> targmax = Collections.emptyMap();
+    private volatile int maxtargets = 1;
+    private volatile CaseMapping casemapping = CaseMapping.RFC1459;
+    private volatile PrefixTable prefixes = PrefixTable.DEFAULT;
+    private volatile ModeTable modes = ModeTable.DEFAULT;
+
+    ISupport() {
+    }
+
+    /**
+     * Parses a RPL_ISUPPORT response
+     * 
+     * @param message
+     *            the response, with the nick it was sent to as the first parameter
+     */
+    final void parse(IrcMessage message) {
+        // Skip the nick and the "are supported by this server" trailer
+        int count = message.hasTrailing() ? message.getParamCount() - 1 : message.getParamCount();
+        for (int index = 1; index < count; index++) {
+            String token = message.getParam(index);
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (token.startsWith("-")) {
+                tokens.remove(token.substring(1).toUpperCase());
+                continue;
+            }
+            int equals = token.indexOf('=');
+            if (equals < 0) {
+                tokens.put(token.toUpperCase(), "");
+            }
+            else {
+                tokens.put(token.substring(0, equals).toUpperCase(), token.substring(equals + 1));
+            }
+        }
+        update();
+    }
+
+    /**
+     * Forgets everything the server advertised, for when reconnecting
+     */
+    final void clear() {
+        tokens.clear();
+        update();
+    }
+
+    /**
+     * Recalculates the values that are looked up often
+     */
+    private final void update() {
+        Map<String, Integer> max = new HashMap<String, Integer>();
+        String value = tokens.get("TARGMAX");
+        if (value != null) {
+            for (String entry : value.split(",")) {
+                int colon = entry.indexOf(':');
+                if (colon <= 0) {
+                    continue;
+                }
+                String limit = entry.substring(colon + 1);
+                try {
+                    // No limit given means unlimited
+                    max.put(entry.substring(0, colon).toUpperCase(), limit.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(limit));
+                }
+                catch (NumberFormatException nfe) {
+                    // Ignore the bad entry
+                }
+            }
+        }
+        targmax = max;
+
+        int targets = 1;
+        value = tokens.get("MAXTARGETS");
+        if (value != null) {
+            try {
+                targets = value.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(value);
+            }
+            catch (NumberFormatException nfe) {
+                // Stick with one
+            }
+        }
+        maxtargets = targets;
+        casemapping = CaseMapping.fromName(tokens.get("CASEMAPPING"));
+        prefixes = PrefixTable.parse(tokens.get("PREFIX"));
+        modes = ModeTable.parse(tokens.get("CHANMODES"));
+    }
+
+    /**
+     * Checks if the server advertised a feature
+     * 
+     * @param key
+     *            the feature name (ie: TARGMAX)
+     * @return {@code true} if advertised
+     */
+    public final boolean has(String key) {
+        return tokens.containsKey(key.toUpperCase());
+    }
+
+    /**
+     * Gets the value of an advertised feature
+     * 
+     * @param key
+     *            the feature name (ie: TARGMAX)
+     * @return the value, an empty string if the feature has no value, or {@code null} if not advertised
+     */
+    public final String get(String key) {
+        return tokens.get(key.toUpperCase());
+    }
+
+    /**
+     * Gets the maximum number of targets a command can be sent to at once, from TARGMAX or MAXTARGETS
+     * 
+     * @param command
+     *            the command (ie: PRIVMSG)
+     * @return the maximum number of targets, {@code 1} if the server did not say
+     */
+    public final int getTargetMax(String command) {
+        Integer max = targmax.get(command);
+        if (max != null) {
+            return max.intValue();
+        }
+        return targmax.isEmpty() ? maxtargets : 1;
+    }
+
+    /**
+     * Gets the channel modes that are lists of masks (ie: bans), the first group of CHANMODES
+     * 
+     * @return the list modes (ie: beI), {@code b} if the server did not say
+     */
+    public final String getListModes() {
+        return modes.getListModes();
+    }
+
+    /**
+     * Gets the channel modes and their types, from CHANMODES
+     * 
+     * @return the {@link ModeTable}, {@link ModeTable#DEFAULT} if the server did not say
+     */
+    public final ModeTable getModes() {
+        return modes;
+    }
+
+    /**
+     * Gets the {@link ModeType} of a channel mode, from PREFIX and CHANMODES
+     * 
+     * @param mode
+     *            the mode (ie: k)
+     * @return the {@link ModeType}, {@link ModeType#FLAG} if the server did not list the mode
+     */
+    public final ModeType getModeType(char mode) {
+        return prefixes.getModeBit(mode) != 0 ? ModeType.PREFIX : modes.getType(mode);
+    }
+
+    /**
+     * Gets how the server compares nicks and channel names, from CASEMAPPING
+     * 
+     * @return the {@link CaseMapping}, {@link CaseMapping#RFC1459} if the server did not say
+     */
+    public final CaseMapping getCaseMapping() {
+        return casemapping;
+    }
+
+    /**
+     * Gets the channel membership modes and their prefix symbols, from PREFIX
+     * 
+     * @return the {@link PrefixTable}, {@link PrefixTable#DEFAULT} if the server did not say
+     */
+    public final PrefixTable getPrefixes() {
+        return prefixes;
+    }
+
+    @Override
+    public final String toString() {
+        return String.format("ISupport%s", tokens);
+    }
+}
@@ -0,0 +1,513 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.TimeZone;
+
+/**
+ * IRC Message<br>
+ * A reusable view of a single line from the server. The line is scanned once by {@link #parse(String)} and the tags, prefix, command and
+ * parameters are kept as offsets into it, so nothing is copied out until it is asked for.
+ * <p>
+ * An {@code IrcMessage} is reused for every line read by an {@link IRCConnection} and is only valid while that line is being handled.
+ * Copy out anything that needs to be kept.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class IrcMessage {
+
+    /**
+     * The most parameters kept separately, anything after is kept as part of the last parameter
+     */
+    public static final int MAX_PARAMS = 32;
+
+    private final int[] paramStart = new int[MAX_PARAMS];
+    private final int[] paramEnd = new int[MAX_PARAMS];
+    private SimpleDateFormat serverTime;
+    private String raw;
+    private int tagsEnd;
+    private int prefixEnd;
+    private int nickEnd;
+    private int userEnd;
+    private int commandStart;
+    private int commandEnd;
+    private int numeric;
+    private int paramCount;
+    private boolean trailing;
+
+    /**
+     * Constructs a new empty {@code IrcMessage}
+     */
+    public IrcMessage() {
+    }
+
+    /**
+     * Parses a line into this view
+     * 
+     * @param line
+     *            the line, without the trailing \r\n
+     * @return {@code true} if the line had a command; {@code false} if it was empty or only a prefix
+     */
+    public final boolean parse(String line) {
+        this.raw = line;
+        this.tagsEnd = -1;
+        this.prefixEnd = -1;
+        this.nickEnd = -1;
+        this.userEnd = -1;
+        this.numeric = -1;
+        this.paramCount = 0;
+        this.trailing = false;
+
+        int length = line.length();
+        int index = 0;
+        if (index < length && line.charAt(index) == '@') {
+            tagsEnd = endOfToken(line, index);
+            index = skipSpaces(line, tagsEnd);
+        }
+        if (index < length && line.charAt(index) == ':') {
+            prefixEnd = endOfToken(line, index);
+            for (int scan = index + 1; scan < prefixEnd; scan++) {
+                char ch = line.charAt(scan);
+                if (ch == '!' && nickEnd < 0) {
+                    nickEnd = scan;
+                }
+                else if (ch == '@' && userEnd < 0) {
+                    userEnd = scan;
+                }
+            }
+            index = skipSpaces(line, prefixEnd);
+        }
+
+        commandStart = index;
+        commandEnd = endOfToken(line, index);
+        if (commandEnd == commandStart) {
+            return false;
+        }
+        if (commandEnd - commandStart == 3) {
+            char a = line.charAt(commandStart), b = line.charAt(commandStart + 1), c = line.charAt(commandStart + 2);
+            if (a >= '0' && a <= '9' && b >= '0' && b <= '9' && c >= '0' && c <= '9') {
+                numeric = (a - '0') * 100 + (b - '0') * 10 + (c - '0');
+            }
+        }
+
+        index = skipSpaces(line, commandEnd);
+        while (index < length) {
+            if (line.charAt(index) == ':') {
+                paramStart[paramCount] = index + 1;
+                paramEnd[paramCount++] = length;
+                trailing = true;
+                break;
+            }
+            if (paramCount == MAX_PARAMS - 1) {
+                // Out of room, keep the rest together
+                paramStart[paramCount] = index;
+                paramEnd[paramCount++] = length;
+                break;
+            }
+            int end = endOfToken(line, index);
+            paramStart[paramCount] = index;
+            paramEnd[paramCount++] = end;
+            index = skipSpaces(line, end);
+        }
+        return true;
+    }
+
+    private static final int endOfToken(String line, int from) {
+        int end = line.indexOf(' ', from);
+        return end < 0 ? line.length() : end;
+    }
+
+    private static final int skipSpaces(String line, int from) {
+        while (from < line.length() && line.charAt(from) == ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Gets the whole line
+     * 
+     * @return the raw line
+     */
+    public final String getRaw() {
+        return raw;
+    }
+
+    /**
+     * Gets the IRCv3 message tags
+     * 
+     * @return the tags (without the leading @), or {@code null} if the line had none
+     */
+    public final String getTags() {
+        return tagsEnd < 0 ? null : raw.substring(1, tagsEnd);
+    }
+
+    /**
+     * Gets the value of an IRCv3 message tag, with any escaping undone
+     * 
+     * @param key
+     *            the tag key (ie: time)
+     * @return the value, an empty string if the tag has no value, or {@code null} if the line does not have the tag
+     */
+    public final String getTag(String key) {
+        int start = 1;
+        while (start < tagsEnd) {
+            int end = raw.indexOf(';', start);
+            if (end < 0 || end > tagsEnd) {
+                end = tagsEnd;
+            }
+            int length = key.length();
+            if (raw.startsWith(key, start) && (start + length == end || raw.charAt(start + length) == '=')) {
+                return start + length == end ? "" : unescape(raw.substring(start + length + 1, end));
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    private static final String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int index = 0; index < value.length(); index++) {
+            char ch = value.charAt(index);
+            if (ch != '\\') {
+                builder.append(ch);
+                continue;
+            }
+            if (++index == value.length()) {
+                // A lone backslash at the end is dropped
+                break;
+            }
+            switch (ch = value.charAt(index)) {
+                case ':':
+                    builder.append(';');
+                    break;
+                case 's':
+                    builder.append(' ');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                default:
+                    builder.append(ch);
+                    break;
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets when the server says the line was sent, from the server-time tag
+     * 
+     * @return the time in milliseconds, or the current time if the line does not have a valid server-time tag
+     */
+    public final long getTime() {
+        String time = getTag("time");
+        if (time != null) {
+            if (serverTime == null) {
+                serverTime = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+                serverTime.setTimeZone(TimeZone.getTimeZone("UTC"));
+            }
+            try {
+                return serverTime.parse(time).getTime();
+            }
+            catch (ParseException pe) {
+                // Fall back to now
+            }
+        }
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Checks if the line had a prefix
+     * 
+     * @return {@code true} if it had a prefix
+     */
+    public final boolean hasPrefix() {
+        return prefixEnd >= 0;
+    }
+
+    /**
+     * Checks if the prefix is a full nick!user@host
+     * 
+     * @return {@code true} if from a user with a full prefix
+     */
+    public final boolean isUserPrefix() {
+        return nickEnd > 0 && userEnd > nickEnd;
+    }
+
+    /**
+     * Gets the prefix
+     * 
+     * @return the prefix (without the leading :), or an empty string if the line had none
+     */
+    public final String getPrefix() {
+        return prefixEnd < 0 ? "" : raw.substring(prefixStart(), prefixEnd);
+    }
+
+    /**
+     * Gets the nick from the prefix, or the whole prefix for a server
+     * 
+     * @return the nick, or an empty string if the line had no prefix
+     */
+    public final String getNick() {
+        if (prefixEnd < 0) {
+            return "";
+        }
+        int end = nickEnd > 0 ? nickEnd : userEnd > 0 ? userEnd : prefixEnd;
+        return raw.substring(prefixStart(), end);
+    }
+
+    /**
+     * Checks if the nick in the prefix is the given nick, without copying it out
+     * 
+     * @param nick
+     *            the nick to check for
+     * @return {@code true} if the nick matches
+     */
+    public final boolean isNick(String nick) {
+        if (prefixEnd < 0) {
+            return false;
+        }
+        int end = nickEnd > 0 ? nickEnd : userEnd > 0 ? userEnd : prefixEnd;
+        return end - prefixStart() == nick.length() && raw.startsWith(nick, prefixStart());
+    }
+
+    /**
+     * Gets the user (login) from the prefix
+     * 
+     * @return the user, or an empty string if the prefix had none
+     */
+    public final String getUser() {
+        if (nickEnd < 0) {
+            return "";
+        }
+        return raw.substring(nickEnd + 1, userEnd > nickEnd ? userEnd : prefixEnd);
+    }
+
+    /**
+     * Gets the host from the prefix
+     * 
+     * @return the host, or an empty string if the prefix had none
+     */
+    public final String getHost() {
+        if (userEnd < 0) {
+            return "";
+        }
+        return raw.substring(userEnd + 1, prefixEnd);
+    }
+
+    /**
+     * Checks if the prefix has a host, without copying it out
+     * 
+     * @return {@code true} if {@link #getHost()} would not be empty
+     */
+    public final boolean hasHost() {
+        return userEnd >= 0 && userEnd + 1 < prefixEnd;
+    }
+
+    private final int prefixStart() {
+        return tagsEnd < 0 ? 1 : raw.indexOf(':', tagsEnd) + 1;
+    }
+
+    /**
+     * Gets the command, as sent by the server
+     * 
+     * @return the command
+     */
+    public final String getCommand() {
+        return raw.substring(commandStart, commandEnd);
+    }
+
+    /**
+     * Gets the command as one of a set of names, ignoring case, without copying it out
+     * 
+     * @param names
+     *            the {@link CommandNames} to look in
+     * @return the name from {@code names}, or {@code null} if the command is not one of them
+     */
+    public final String getCommand(CommandNames names) {
+        return names.find(raw, commandStart, commandEnd);
+    }
+
+    /**
+     * Checks if the command is the given command, ignoring case, without copying it out
+     * 
+     * @param command
+     *            the command to check for
+     * @return {@code true} if the command matches
+     */
+    public final boolean isCommand(String command) {
+        return commandEnd - commandStart == command.length() && raw.regionMatches(true, commandStart, command, 0, command.length());
+    }
+
+    /**
+     * Checks if the command is a three digit numeric reply
+     * 
+     * @return {@code true} if numeric
+     */
+    public final boolean isNumeric() {
+        return numeric >= 0;
+    }
+
+    /**
+     * Gets the numeric reply code
+     * 
+     * @return the code, or {@code -1} if the command is not numeric
+     */
+    public final int getNumeric() {
+        return numeric;
+    }
+
+    /**
+     * Gets the number of parameters, including the trailing one
+     * 
+     * @return the parameter count
+     */
+    public final int getParamCount() {
+        return paramCount;
+    }
+
+    /**
+     * Gets a parameter
+     * 
+     * @param index
+     *            the index of the parameter
+     * @return the parameter, or an empty string if there is no such parameter
+     */
+    public final String getParam(int index) {
+        if (index < 0 || index >= paramCount) {
+            return "";
+        }
+        return raw.substring(paramStart[index], paramEnd[index]);
+    }
+
+    /**
+     * Gets the length of a parameter, without copying it out
+     * 
+     * @param index
+     *            the index of the parameter
+     * @return the length, or {@code 0} if there is no such parameter
+     */
+    public final int getParamLength(int index) {
+        if (index < 0 || index >= paramCount) {
+            return 0;
+        }
+        return paramEnd[index] - paramStart[index];
+    }
+
+    /**
+     * Gets a character of a parameter, without copying it out
+     * 
+     * @param index
+     *            the index of the parameter
+     * @param offset
+     *            the offset of the character in the parameter
+     * @return the character
+     * @throws IndexOutOfBoundsException
+     *             if there is no such parameter or character
+     */
+    public final char getParamChar(int index, int offset) {
+        if (index < 0 || index >= paramCount || offset < 0 || offset >= paramEnd[index] - paramStart[index]) {
+            throw new IndexOutOfBoundsException(String.format("Param: %d Offset: %d", index, offset));
+        }
+        return raw.charAt(paramStart[index] + offset);
+    }
+
+    /**
+     * Checks if a parameter is the given value, without copying it out
+     * 
+     * @param index
+     *            the index of the parameter
+     * @param value
+     *            the value to check for
+     * @return {@code true} if the parameter matches
+     */
+    public final boolean isParam(int index, String value) {
+        if (index < 0 || index >= paramCount) {
+            return false;
+        }
+        return paramEnd[index] - paramStart[index] == value.length() && raw.startsWith(value, paramStart[index]);
+    }
+
+    /**
+     * Checks if the last parameter was a trailing (: prefixed) parameter
+     * 
+     * @return {@code true} if there is a trailing parameter
+     */
+    public final boolean hasTrailing() {
+        return trailing;
+    }
+
+    /**
+     * Gets the last parameter, which holds the message text of most commands
+     * 
+     * @return the last parameter, or an empty string if there are no parameters
+     */
+    public final String getTrailing() {
+        return getParam(paramCount - 1);
+    }
+
+    /**
+     * Gets the parameters from the given index on, joined with spaces
+     * 
+     * @param from
+     *            the index of the first parameter
+     * @return the joined parameters, or an empty string if there are none
+     */
+    public final String joinParams(int from) {
+        if (from >= paramCount) {
+            return "";
+        }
+        if (from == paramCount - 1) {
+            return getParam(from);
+        }
+        StringBuilder builder = new StringBuilder(raw.length() - paramStart[from]);
+        for (int index = from; index < paramCount; index++) {
+            if (index > from) {
+                builder.append(' ');
+            }
+            builder.append(raw, paramStart[index], paramEnd[index]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets everything after the command as it was sent
+     * 
+     * @return the raw parameters
+     */
+    public final String getRawParams() {
+        int start = skipSpaces(raw, commandEnd);
+        return raw.substring(start);
+    }
+
+    @Override
+    public final String toString() {
+        return raw;
+    }
+}
@@ -0,0 +1,213 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Line Splitter<br>
+ * Encodes raw lines for the server, keeping every line within the {@link IRCConnection#MAX_LINE_LENGTH} byte limit.
+ * <p>
+ * A PRIVMSG or NOTICE that is too long is split into continuation lines on word boundaries (or character boundaries if a word will not fit),
+ * leaving room for the :nick!user@host prefix the server adds when relaying the message. Anything else that is too long is cut short.
+ * The lines are encoded straight into a single reusable buffer, so a {@code LineSplitter} must only be used by one thread at a time.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+final class LineSplitter {
+    private final CharsetEncoder encoder;
+    private final ByteBuffer buffer = ByteBuffer.allocate(IRCConnection.MAX_LINE_LENGTH);
+    private String line;
+    private CharBuffer text;
+    private int headEnd;
+    private int next;
+    private int from;
+    private int to;
+    private int limit;
+    private boolean splittable;
+    private boolean done;
+
+    /**
+     * Constructs a new {@code LineSplitter}
+     * 
+     * @param charset
+     *            the {@link Charset} to encode with
+     */
+    LineSplitter(Charset charset) {
+        this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Starts splitting a line
+     * 
+     * @param raw_line
+     *            the line, without the trailing \r\n
+     * @param relayPrefix
+     *            the length in bytes of the prefix the server adds when relaying a message
+     */
+    final void reset(String raw_line, int relayPrefix) {
+        this.line = raw_line;
+        this.text = CharBuffer.wrap(raw_line);
+        this.done = false;
+        this.splittable = false;
+        this.headEnd = 0;
+        this.limit = IRCConnection.MAX_LINE_LENGTH - 2;
+
+        int space = -1;
+        if (raw_line.startsWith("PRIVMSG ")) {
+            space = 7;
+        }
+        else if (raw_line.startsWith("NOTICE ")) {
+            space = 6;
+        }
+        if (space > 0) {
+            int colon = raw_line.indexOf(" :", space + 1);
+            if (colon > space + 1) {
+                this.limit -= relayPrefix;
+                // CTCPs are cut short rather than split, a split would break the CTCP
+                if (colon + 2 == raw_line.length() || raw_line.charAt(colon + 2) != '\u0001') {
+                    this.headEnd = colon + 2;
+                    this.splittable = true;
+                }
+            }
+        }
+        this.next = headEnd;
+    }
+
+    /**
+     * Encodes the next line into the buffer
+     * 
+     * @return {@code true} if there was another line; {@code false} if the whole line has been encoded
+     */
+    final boolean next() {
+        if (done) {
+            return false;
+        }
+        if (splittable && encode(next, line.length()) == -1) {
+            // No room for any text at all
+            splittable = false;
+            headEnd = 0;
+            next = 0;
+        }
+        if (!splittable) {
+            // Cut short at the byte limit
+            encode(0, line.length());
+            done = true;
+            finish();
+            return true;
+        }
+
+        int end = text.position();
+        if (end == line.length()) {
+            done = true;
+        }
+        else {
+            int boundary = line.lastIndexOf(' ', end);
+            if (boundary > next) {
+                // Back up to the end of the last whole word
+                end = encode(next, boundary);
+                next = end + 1;
+            }
+            else if (end > next) {
+                next = end;
+            }
+            else {
+                // Not even a single character fits
+                done = true;
+                return false;
+            }
+            // A continuation never starts with, or is only, the spaces it was split at
+            while (next < line.length() && line.charAt(next) == ' ') {
+                next++;
+            }
+            if (next >= line.length()) {
+                done = true;
+            }
+        }
+        finish();
+        return true;
+    }
+
+    /**
+     * Gets the encoded line, including the trailing \r\n, ready to be written
+     * 
+     * @return the buffer holding the encoded line
+     */
+    final ByteBuffer bytes() {
+        return buffer;
+    }
+
+    /**
+     * Gets the line that was last encoded, for logging
+     * 
+     * @return the line, without the trailing \r\n
+     */
+    final String line() {
+        if (from == headEnd && to == line.length()) {
+            return line;
+        }
+        if (headEnd == 0) {
+            return line.substring(0, to);
+        }
+        return new StringBuilder(headEnd + to - from).append(line, 0, headEnd).append(line, from, to).toString();
+    }
+
+    /**
+     * Encodes the head of the line followed by part of the text into the buffer, stopping early if the limit is reached
+     * 
+     * @param start
+     *            the index of the text to start at
+     * @param end
+     *            the index of the text to stop at
+     * @return the index encoding stopped at, or {@code -1} if there was no room for the text
+     */
+    private final int encode(int start, int end) {
+        buffer.clear();
+        buffer.limit(limit);
+        encoder.reset();
+        if (headEnd > 0) {
+            text.limit(headEnd).position(0);
+            encoder.encode(text, buffer, false);
+            if (text.hasRemaining() || !buffer.hasRemaining()) {
+                return -1;
+            }
+        }
+        text.limit(end).position(start);
+        if (encoder.encode(text, buffer, true).isUnderflow()) {
+            encoder.flush(buffer);
+        }
+        from = start;
+        to = text.position();
+        return to;
+    }
+
+    /**
+     * Adds the trailing \r\n and readies the buffer for writing
+     */
+    private final void finish() {
+        buffer.limit(buffer.capacity());
+        buffer.put((byte) '\r').put((byte) '\n');
+        buffer.flip();
+    }
+}
@@ -0,0 +1,244 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Member Table<br>
+ * The {@link Membership}s of a {@link Channel}, found by nick without regard to case.
+ * <p>
+ * Kept as flat arrays rather than a map, so each member costs a few references instead of a map entry and a lower case copy of their nick.
+ * The {@link Membership}s are in one array, the nicks they were added under in another, and an open addressed table of positions in those
+ * arrays is probed with the {@link CaseMapping} hash of a nick.
+ * <p>
+ * Only the {@link Channel}'s own table is changed, and only while holding the {@link Channel}'s lock. The copies made for
+ * {@link ChannelSnapshot}s are never changed.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+final class MemberTable {
+    private final CaseMapping casemapping;
+    private Membership[] members;
+    private String[] keys;
+    private int[] index;
+    private int size;
+
+    /**
+     * Constructs a new empty {@code MemberTable}
+     * 
+     * @param casemapping
+     *            the {@link CaseMapping} nicks are compared with
+     */
+    MemberTable(CaseMapping casemapping) {
+        this(casemapping, new Membership[4], new String[4], new int[8], 0);
+    }
+
+    private MemberTable(CaseMapping casemapping, Membership[] members, String[] keys, int[] index, int size) {
+        this.casemapping = casemapping;
+        this.members = members;
+        this.keys = keys;
+        this.index = index;
+        this.size = size;
+    }
+
+    /**
+     * Gets the number of members
+     * 
+     * @return the number of members
+     */
+    final int size() {
+        return size;
+    }
+
+    /**
+     * Gets the {@link Membership} for a nick
+     * 
+     * @param nick
+     *            the nick
+     * @return the {@link Membership}, or {@code null} if not a member
+     */
+    final Membership get(String nick) {
+        int slot = find(nick);
+        return slot < 0 ? null : members[index[slot] - 1];
+    }
+
+    /**
+     * Gets the {@link Membership} at a position, for going through them all
+     * 
+     * @param position
+     *            the position, from {@code 0} to {@link #size()}
+     * @return the {@link Membership}
+     */
+    final Membership getAt(int position) {
+        return members[position];
+    }
+
+    /**
+     * Adds a {@link Membership} under a nick, replacing any under the same nick
+     * 
+     * @param nick
+     *            the nick
+     * @param membership
+     *            the {@link Membership}
+     * @return the replaced {@link Membership}, or {@code null} if there was none
+     */
+    final Membership put(String nick, Membership membership) {
+        int slot = find(nick);
+        if (slot >= 0) {
+            int position = index[slot] - 1;
+            Membership old = members[position];
+            members[position] = membership;
+            keys[position] = nick;
+            return old;
+        }
+        if (size == members.length) {
+            members = Arrays.copyOf(members, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        if ((size + 1) * 2 > index.length) {
+            rehash(index.length * 2);
+        }
+        members[size] = membership;
+        keys[size] = nick;
+        size++;
+        insert(nick, size);
+        return null;
+    }
+
+    /**
+     * Removes the {@link Membership} under a nick
+     * 
+     * @param nick
+     *            the nick
+     * @return the removed {@link Membership}, or {@code null} if not a member
+     */
+    final Membership remove(String nick) {
+        int slot = find(nick);
+        if (slot < 0) {
+            return null;
+        }
+        int position = index[slot] - 1;
+        Membership removed = members[position];
+        delete(slot);
+
+        // Fill the hole with the last member, so the arrays stay packed
+        int last = --size;
+        if (position != last) {
+            int moved = find(keys[last]);
+            members[position] = members[last];
+            keys[position] = keys[last];
+            index[moved] = position + 1;
+        }
+        members[last] = null;
+        keys[last] = null;
+        return removed;
+    }
+
+    /**
+     * Removes every {@link Membership}
+     */
+    final void clear() {
+        Arrays.fill(members, 0, size, null);
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(index, 0);
+        size = 0;
+    }
+
+    /**
+     * Makes a copy, trimmed to size, for a {@link ChannelSnapshot}
+     * 
+     * @return the copy
+     */
+    final MemberTable copy() {
+        return new MemberTable(casemapping, Arrays.copyOf(members, size), Arrays.copyOf(keys, size), index.clone(), size);
+    }
+
+    /**
+     * Gets the {@link Membership}s, only for a copy as it is a view of the array
+     * 
+     * @return an unmodifiable {@link List} of {@link Membership}s
+     */
+    final List<Membership> asList() {
+        return Collections.unmodifiableList(Arrays.asList(members).subList(0, size));
+    }
+
+    /**
+     * Gets the {@link User}s
+     * 
+     * @return the {@link User}s
+     */
+    final User[] getUsers() {
+        User[] users = new User[size];
+        for (int position = 0; position < size; position++) {
+            users[position] = members[position].getUser();
+        }
+        return users;
+    }
+
+    private final int find(String nick) {
+        int mask = index.length - 1;
+        for (int slot = spread(casemapping.hashCode(nick)) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            if (casemapping.equals(keys[index[slot] - 1], nick)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private final void insert(String nick, int entry) {
+        int mask = index.length - 1;
+        int slot = spread(casemapping.hashCode(nick)) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = entry;
+    }
+
+    /**
+     * Empties a slot, moving back any entries after it that would no longer be found past the gap
+     */
+    private final void delete(int slot) {
+        int mask = index.length - 1;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; index[next] != 0; next = (next + 1) & mask) {
+            int home = spread(casemapping.hashCode(keys[index[next] - 1])) & mask;
+            // Move it if its home is not between the gap and where it is now
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                index[gap] = index[next];
+                gap = next;
+            }
+        }
+        index[gap] = 0;
+    }
+
+    private final void rehash(int capacity) {
+        index = new int[capacity];
+        for (int position = 0; position < size; position++) {
+            insert(keys[position], position + 1);
+        }
+    }
+
+    private static final int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
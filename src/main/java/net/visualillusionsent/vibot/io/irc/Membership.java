@@ -0,0 +1,189 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+/**
+ * Membership<br>
+ * A {@link User} being in a {@link Channel}, along with their status (op, voice...) in that {@link Channel}
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class Membership {
+
+    /**
+     * Status bit for voice (+v)
+     */
+    public static final int VOICE = 1;
+
+    /**
+     * Status bit for half-op (+h)
+     */
+    public static final int HALFOP = 1 << 1;
+
+    /**
+     * Status bit for op (+o)
+     */
+    public static final int OP = 1 << 2;
+
+    /**
+     * Status bit for admin, or protected (+a)
+     */
+    public static final int ADMIN = 1 << 3;
+
+    /**
+     * Status bit for owner, or founder (+q)
+     */
+    public static final int OWNER = 1 << 4;
+
+    /**
+     * Status mask for op or higher
+     */
+    public static final int AT_LEAST_OP = OP | ADMIN | OWNER;
+
+    /**
+     * Status mask for half-op or higher
+     */
+    public static final int AT_LEAST_HALFOP = HALFOP | AT_LEAST_OP;
+
+    /**
+     * Status mask for voice or higher
+     */
+    public static final int AT_LEAST_VOICE = VOICE | AT_LEAST_HALFOP;
+
+    private final Channel channel;
+    private final User user;
+    private volatile int status;
+
+    Membership(Channel channel, User user, int status) {
+        this.channel = channel;
+        this.user = user;
+        this.status = status;
+    }
+
+    /**
+     * Gets the {@link Channel} the {@link User} is in
+     * 
+     * @return the {@link Channel}
+     */
+    public final Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Gets the {@link User} in the {@link Channel}
+     * 
+     * @return the {@link User}
+     */
+    public final User getUser() {
+        return user;
+    }
+
+    /**
+     * Gets the status of the {@link User} in the {@link Channel}, as bits for each membership mode
+     * 
+     * @return the status bits
+     * @see PrefixTable
+     */
+    public final int getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks if the {@link User} has any of the given status bits (ie: {@link #AT_LEAST_OP})
+     * 
+     * @param mask
+     *            the status bits to check for
+     * @return {@code true} if the {@link User} has any of them
+     */
+    public final boolean hasStatus(int mask) {
+        return (status & mask) != 0;
+    }
+
+    /**
+     * Gets the status prefix of the {@link User} in the {@link Channel} (ie: @ for op)
+     * 
+     * @return the prefix, empty if the {@link User} has no status
+     */
+    public final String getPrefix() {
+        return channel.getPrefixes().toSymbols(status);
+    }
+
+    /**
+     * Gets whether the {@link User} is a Channel Owner
+     * 
+     * @return {@code true} if owner, {@code false} otherwise
+     */
+    public final boolean isOwner() {
+        return (status & OWNER) != 0;
+    }
+
+    /**
+     * Gets whether the {@link User} is a Channel Admin
+     * 
+     * @return {@code true} if admin, {@code false} otherwise
+     */
+    public final boolean isAdmin() {
+        return (status & ADMIN) != 0;
+    }
+
+    /**
+     * Gets whether the {@link User} is a Channel Operator
+     * 
+     * @return {@code true} if op, {@code false} otherwise
+     */
+    public final boolean isOp() {
+        return (status & OP) != 0;
+    }
+
+    /**
+     * Gets whether the {@link User} is a Channel Half-Operator
+     * 
+     * @return {@code true} if half-op, {@code false} otherwise
+     */
+    public final boolean isHalfOp() {
+        return (status & HALFOP) != 0;
+    }
+
+    /**
+     * Gets whether the {@link User} has Voice in the Channel
+     * 
+     * @return {@code true} if voiced, {@code false} otherwise
+     */
+    public final boolean hasVoice() {
+        return (status & VOICE) != 0;
+    }
+
+    final void setStatus(int status) {
+        this.status = status;
+    }
+
+    final void addStatus(int bits) {
+        status |= bits;
+    }
+
+    final void removeStatus(int bits) {
+        status &= ~bits;
+    }
+
+    @Override
+    public final String toString() {
+        return String.format("Membership[Channel=%s User=%s Prefix=%s]", channel.getName(), user.getNick(), getPrefix());
+    }
+}
@@ -0,0 +1,86 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+/**
+ * The lanes of the {@link OutboundQueue}, in the order they are served
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public enum MessageLane {
+    /**
+     * Connection and channel control (PONG, QUIT, MODE, KICK, JOIN...), always sent first
+     */
+    CONTROL(false), //
+    /**
+     * Messages sent in reply to something received from the server, such as command replies
+     */
+    REPLY(true), //
+    /**
+     * Everything else, such as plugin output from other threads, sent last
+     */
+    BULK(false), //
+    ;
+
+    private final boolean replaceOldest;
+
+    private MessageLane(boolean replaceOldest) {
+        this.replaceOldest = replaceOldest;
+    }
+
+    /**
+     * Checks whether a full lane makes room for a new line by dropping the oldest line for the same target
+     * 
+     * @return {@code true} if replacing; {@code false} if new lines are dropped
+     */
+    public final boolean replacesOldest() {
+        return replaceOldest;
+    }
+
+    /**
+     * Gets the lane a raw line belongs in
+     * 
+     * @param raw_line
+     *            the raw line
+     * @param reply
+     *            whether the line is being sent in reply to a line from the server
+     * @return the {@code MessageLane}
+     */
+    static final MessageLane forLine(String raw_line, boolean reply) {
+        int end = raw_line.indexOf(' ');
+        String command = end < 0 ? raw_line : raw_line.substring(0, end);
+        switch (command.toUpperCase()) {
+            case "PONG":
+            case "PING":
+            case "QUIT":
+            case "MODE":
+            case "KICK":
+            case "NICK":
+            case "JOIN":
+            case "PART":
+            case "INVITE":
+            case "TOPIC":
+            case "NICKSERV":
+                return CONTROL;
+            default:
+                return reply ? REPLY : BULK;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+/**
+ * Mode Changes<br>
+ * The modes changed by one MODE line, in the order they were given
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class ModeChanges {
+    private final char[] modes;
+    private final boolean[] adding;
+    private final String[] params;
+    private int count;
+
+    /**
+     * Constructs a new empty {@code ModeChanges}
+     * 
+     * @param capacity
+     *            the most changes there can be, the length of the mode string will always do
+     */
+    ModeChanges(int capacity) {
+        this.modes = new char[capacity];
+        this.adding = new boolean[capacity];
+        this.params = new String[capacity];
+    }
+
+    /**
+     * Adds a change
+     * 
+     * @param mode
+     *            the mode letter
+     * @param add
+     *            {@code true} if set, {@code false} if unset
+     * @param param
+     *            the parameter, or {@code null} if none
+     */
+    final void add(char mode, boolean add, String param) {
+        modes[count] = mode;
+        adding[count] = add;
+        params[count] = param;
+        count++;
+    }
+
+    /**
+     * Gets the number of changes
+     * 
+     * @return the number of changes
+     */
+    public final int size() {
+        return count;
+    }
+
+    /**
+     * Gets the mode letter of a change
+     * 
+     * @param index
+     *            the index of the change
+     * @return the mode letter (ie: o)
+     */
+    public final char getMode(int index) {
+        checkIndex(index);
+        return modes[index];
+    }
+
+    /**
+     * Checks if a change set the mode
+     * 
+     * @param index
+     *            the index of the change
+     * @return {@code true} if set, {@code false} if unset
+     */
+    public final boolean isAdding(int index) {
+        checkIndex(index);
+        return adding[index];
+    }
+
+    /**
+     * Gets the parameter of a change
+     * 
+     * @param index
+     *            the index of the change
+     * @return the parameter (ie: the nick for o), or {@code null} if the mode has none
+     */
+    public final String getParameter(int index) {
+        checkIndex(index);
+        return params[index];
+    }
+
+    /**
+     * Checks if a mode was changed
+     * 
+     * @param mode
+     *            the mode letter
+     * @return {@code true} if set or unset
+     */
+    public final boolean contains(char mode) {
+        for (int index = 0; index < count; index++) {
+            if (modes[index] == mode) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(String.format("Index: %d Size: %d", index, count));
+        }
+    }
+
+    @Override
+    public final String toString() {
+        StringBuilder builder = new StringBuilder(count * 4);
+        char sign = ' ';
+        for (int index = 0; index < count; index++) {
+            char next = adding[index] ? '+' : '-';
+            if (next != sign) {
+                builder.append(next);
+                sign = next;
+            }
+            builder.append(modes[index]);
+        }
+        for (int index = 0; index < count; index++) {
+            if (params[index] != null) {
+                builder.append(' ').append(params[index]);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,100 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+/**
+ * Mode Table<br>
+ * The channel modes a server supports and the {@link ModeType} of each, from the CHANMODES token of RPL_ISUPPORT (ie: beI,k,l,imnpst).
+ * <p>
+ * Modes the server did not list are treated as {@link ModeType#FLAG}s, as there is no way to know they take a parameter.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class ModeTable {
+    private static final ModeType[] GROUPS = { ModeType.LIST, ModeType.SETTING, ModeType.SETTING_WHEN_SET, ModeType.FLAG };
+
+    /**
+     * The table used until the server advertises CHANMODES, which knows the modes from RFC 1459
+     */
+    public static final ModeTable DEFAULT = new ModeTable("b,k,l,imnpst");
+
+    private final String chanmodes;
+    private final String listModes;
+    private final ModeType[] types = new ModeType[128];
+
+    private ModeTable(String chanmodes) {
+        this.chanmodes = chanmodes;
+        int group = 0;
+        for (int index = 0; index < chanmodes.length(); index++) {
+            char mode = chanmodes.charAt(index);
+            if (mode == ',') {
+                if (++group == GROUPS.length) {
+                    // Groups after D are for future use, and there is no knowing what they mean
+                    break;
+                }
+            }
+            else if (mode < 128) {
+                types[mode] = GROUPS[group];
+            }
+        }
+        int comma = chanmodes.indexOf(',');
+        this.listModes = comma < 0 ? chanmodes : chanmodes.substring(0, comma);
+    }
+
+    /**
+     * Parses the value of a CHANMODES token
+     * 
+     * @param token
+     *            the value (ie: beI,k,l,imnpst), or {@code null} if the server did not advertise CHANMODES
+     * @return the {@code ModeTable}, or {@link #DEFAULT} if there was no value
+     */
+    static final ModeTable parse(String token) {
+        if (token == null) {
+            return DEFAULT;
+        }
+        return new ModeTable(token);
+    }
+
+    /**
+     * Gets the {@link ModeType} of a channel mode
+     * 
+     * @param mode
+     *            the mode (ie: k)
+     * @return the {@link ModeType}, {@link ModeType#FLAG} if the server did not list the mode
+     */
+    public final ModeType getType(char mode) {
+        ModeType type = mode < 128 ? types[mode] : null;
+        return type != null ? type : ModeType.FLAG;
+    }
+
+    /**
+     * Gets the channel modes that are lists of masks, the first group
+     * 
+     * @return the list modes (ie: beI)
+     */
+    public final String getListModes() {
+        return listModes;
+    }
+
+    @Override
+    public final String toString() {
+        return String.format("ModeTable[%s]", chanmodes);
+    }
+}
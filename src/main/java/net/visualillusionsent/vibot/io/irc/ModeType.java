@@ -0,0 +1,67 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+/**
+ * Mode Type enum<br>
+ * How a channel mode behaves, from the group of the CHANMODES token of RPL_ISUPPORT it is in or the PREFIX token
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public enum ModeType {
+    /**
+     * Group A, a list of masks (ie: bans), always has a parameter
+     */
+    LIST(true, true),
+    /**
+     * Group B, a setting that always has a parameter (ie: the key)
+     */
+    SETTING(true, true),
+    /**
+     * Group C, a setting that only has a parameter when set (ie: the limit)
+     */
+    SETTING_WHEN_SET(true, false),
+    /**
+     * Group D, a flag that never has a parameter (ie: moderated)
+     */
+    FLAG(false, false),
+    /**
+     * A membership mode (ie: op), always has a nick as the parameter
+     */
+    PREFIX(true, true);
+
+    private final boolean paramWhenSet, paramWhenUnset;
+
+    private ModeType(boolean paramWhenSet, boolean paramWhenUnset) {
+        this.paramWhenSet = paramWhenSet;
+        this.paramWhenUnset = paramWhenUnset;
+    }
+
+    /**
+     * Checks if a mode of this type takes a parameter
+     * 
+     * @param adding
+     *            {@code true} if the mode is being set, {@code false} if it is being unset
+     * @return {@code true} if there is a parameter
+     */
+    public final boolean takesParameter(boolean adding) {
+        return adding ? paramWhenSet : paramWhenUnset;
+    }
+}
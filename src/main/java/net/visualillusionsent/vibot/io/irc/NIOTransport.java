@@ -0,0 +1,399 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Iterator;
+
+import net.visualillusionsent.vibot.io.configuration.NetworkConfig;
+import net.visualillusionsent.vibot.io.logging.BotLogMan;
+
+/**
+ * NIO IRC Transport<br>
+ * A {@link Selector} driven {@link SocketChannel} transport. A single event loop thread reads from the server,
+ * decodes lines straight out of a direct {@link ByteBuffer}, drains the outgoing message queue and writes
+ * everything it sent on each pass to the server with a single gathering write.
+ * <p>
+ * Liveness is tracked by the loop itself: if nothing has been heard from the server for {@link #PING_INTERVAL} the server is sent a PING,
+ * and if nothing has been heard for another {@link #PING_INTERVAL} after that the connection is considered dead.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class NIOTransport extends IRCTransport implements Runnable {
+
+    /**
+     * Size of the read buffer, large enough for a full line with IRCv3 tags (8191 bytes of tags, the space after them, and 512 for the rest)
+     */
+    private static final int READ_BUFFER_SIZE = 8192 + 512;
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer readBuffer;
+    private final CharBuffer lineBuffer;
+    private final OutputBuffer output;
+    private final WriteMetrics metrics;
+    private final Thread loop_thread;
+    private SelectionKey key;
+    private int lineStart = 0;
+    private int scanned = 0;
+    private boolean discarding = false;
+    private long lastRead;
+    private long pingSent = 0;
+    private String pending = null;
+    private volatile boolean started = false;
+    private volatile boolean running = false;
+    private volatile boolean disposed = false;
+
+    /**
+     * Constructs a new {@code NIOTransport} and connects to the network's server
+     * 
+     * @param irc_conn
+     *            the {@link IRCConnection} this transport belongs to
+     * @throws IOException
+     *             if it was not possible to connect to the server
+     */
+    NIOTransport(IRCConnection irc_conn) throws IOException {
+        super(irc_conn);
+        NetworkConfig config = irc_conn.getConfig();
+        this.decoder = Charset.forName(config.getEncoding()).newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        this.lineBuffer = CharBuffer.allocate(READ_BUFFER_SIZE);
+        this.metrics = irc_conn.getWriteMetrics();
+        this.output = new OutputBuffer(metrics);
+        this.channel = SocketChannel.open(new InetSocketAddress(config.getServer(), config.getServerPort()));
+        this.selector = Selector.open();
+        this.loop_thread = new Thread(this, "IRCSelector-Thread");
+    }
+
+    @Override
+    public final String readLine() throws IOException {
+        String line;
+        while ((line = nextLine()) == null) {
+            compactReadBuffer();
+            if (channel.read(readBuffer) < 0) {
+                return null;
+            }
+        }
+        return line;
+    }
+
+    @Override
+    public final void writeLine(ByteBuffer line) throws IOException {
+        if (!started) {
+            metrics.lineQueued(line.remaining());
+            synchronized (channel) {
+                while (line.hasRemaining()) {
+                    channel.write(line);
+                    metrics.written();
+                }
+            }
+        }
+        else {
+            // Copied into the batch, the event loop writes it out
+            output.append(line);
+        }
+    }
+
+    @Override
+    public final void flush() {
+        if (started && Thread.currentThread() != loop_thread) {
+            selector.wakeup();
+        }
+        // The event loop flushes at the end of every pass
+    }
+
+    @Override
+    public final synchronized void start() {
+        if (started) {
+            return;
+        }
+        try {
+            synchronized (channel) {
+                channel.configureBlocking(false);
+                key = channel.register(selector, SelectionKey.OP_READ);
+            }
+        }
+        catch (IOException ioe) {
+            BotLogMan.warning("Unable to register with the Selector: ", ioe);
+            irc_conn.disconnected();
+            return;
+        }
+        lastRead = System.currentTimeMillis();
+        started = true;
+        running = true;
+        loop_thread.start();
+    }
+
+    @Override
+    public final synchronized void dispose() {
+        disposed = true;
+        running = false;
+        selector.wakeup();
+        try {
+            close();
+        }
+        catch (IOException ioe) {
+            // Just assume the channel was already closed.
+        }
+    }
+
+    @Override
+    public final void close() throws IOException {
+        try {
+            channel.close();
+        }
+        finally {
+            selector.close();
+            output.clear();
+        }
+    }
+
+    @Override
+    public final InetAddress getLocalAddress() {
+        return channel.socket().getLocalAddress();
+    }
+
+    @Override
+    public final int getLocalPort() {
+        return channel.socket().getLocalPort();
+    }
+
+    @Override
+    public final void wakeup() {
+        if (started) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * The event loop.<br>
+     * Reads and handles lines from the server, sends queued lines as the {@link FloodControl} allows
+     * and keeps the connection alive, until the connection is lost or the transport is disposed.
+     */
+    @Override
+    public final void run() {
+        try {
+            while (running) {
+                long now = System.currentTimeMillis();
+                long timeout = Math.min(checkAlive(now), sendQueued(now));
+                // Everything batched up on this pass goes out in one gathering write
+                boolean flushed = output.writeTo(channel);
+                key.interestOps(flushed ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+
+                selector.select(Math.max(timeout, 1));
+
+                Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                while (selected.hasNext()) {
+                    SelectionKey sk = selected.next();
+                    selected.remove();
+                    if (!sk.isValid()) {
+                        continue;
+                    }
+                    if (sk.isReadable() && !readLines()) {
+                        // The server must have disconnected us.
+                        running = false;
+                        break;
+                    }
+                    if (sk.isValid() && sk.isWritable()) {
+                        output.writeTo(channel);
+                    }
+                }
+            }
+        }
+        catch (Exception e) {
+            // Treat as disconnected
+        }
+
+        try {
+            close();
+        }
+        catch (Exception e) {
+            // Just assume the channel was already closed.
+        }
+        if (!disposed) {
+            irc_conn.disconnected();
+        }
+    }
+
+    /**
+     * Reads what is available from the channel and handles each complete line
+     * 
+     * @return {@code false} if the server has closed the connection
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    private final boolean readLines() throws IOException {
+        int read = channel.read(readBuffer);
+        if (read < 0) {
+            return false;
+        }
+        lastRead = System.currentTimeMillis();
+        pingSent = 0;
+
+        String line;
+        while ((line = nextLine()) != null) {
+            try {
+                irc_conn.handleLine(line);
+            }
+            catch (Throwable t) {
+                BotLogMan.warning("An exception occured in the IRCSelector-Thread: ", t);
+            }
+        }
+        compactReadBuffer();
+        return true;
+    }
+
+    /**
+     * Pulls the next complete line out of the read buffer, skipping the rest of any line that was too long for it
+     * <p>
+     * Lines are only marked as taken, the buffer is compacted once they have all been handled by {@link #compactReadBuffer()}.
+     * 
+     * @return the decoded line without the line terminator, or {@code null} if no complete line has been read
+     */
+    private final String nextLine() {
+        int end = readBuffer.position();
+        for (int index = scanned; index < end; index++) {
+            if (readBuffer.get(index) == '\n') {
+                int start = lineStart;
+                lineStart = index + 1;
+                scanned = index + 1;
+                if (discarding) {
+                    // The end of a line too long for the buffer, its start was already dropped
+                    discarding = false;
+                    continue;
+                }
+                int lineEnd = index;
+                if (lineEnd > start && readBuffer.get(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+                return decode(start, lineEnd);
+            }
+        }
+        scanned = end;
+        if (discarding) {
+            // Nothing to keep until the next line starts
+            lineStart = end;
+        }
+        return null;
+    }
+
+    /**
+     * Shifts what is left of the read buffer after the lines taken from it down to the start, making room to read more
+     * <p>
+     * If a single line fills the whole buffer it can never be completed, so it is dropped and the rest of it is skipped as it arrives.
+     */
+    private final void compactReadBuffer() {
+        if (lineStart > 0) {
+            readBuffer.flip();
+            readBuffer.position(lineStart);
+            readBuffer.compact();
+            scanned -= lineStart;
+            lineStart = 0;
+        }
+        if (!readBuffer.hasRemaining()) {
+            // Line longer than the buffer, drop it
+            BotLogMan.warning("Dropped a line from the server too long for the read buffer");
+            readBuffer.clear();
+            scanned = 0;
+            discarding = true;
+        }
+    }
+
+    /**
+     * Decodes the bytes of the read buffer between the given indexes
+     * 
+     * @param start
+     *            the index to start decoding at
+     * @param end
+     *            the index to stop decoding at (exclusive)
+     * @return the decoded line
+     */
+    private final String decode(int start, int end) {
+        ByteBuffer bytes = readBuffer.duplicate();
+        bytes.limit(end);
+        bytes.position(start);
+        lineBuffer.clear();
+        decoder.reset();
+        decoder.decode(bytes, lineBuffer, true);
+        decoder.flush(lineBuffer);
+        lineBuffer.flip();
+        return lineBuffer.toString();
+    }
+
+    /**
+     * Sends lines from the outgoing message queue for as long as the {@link FloodControl} allows
+     * 
+     * @param now
+     *            the current time in milliseconds
+     * @return milliseconds until the queue needs to be looked at again
+     */
+    private final long sendQueued(long now) {
+        FloodControl flood = irc_conn.getFloodControl();
+        while (pending != null || irc_conn.hasQueued()) {
+            if (pending == null && (pending = irc_conn.pollQueue()) == null) {
+                break;
+            }
+            long wait = flood.delayFor(pending, now);
+            if (wait > 0) {
+                // Hold on to the line until the flood penalty has worn down
+                return wait;
+            }
+            irc_conn.writeRawLine(pending);
+            pending = null;
+        }
+        return PING_INTERVAL;
+    }
+
+    /**
+     * Checks that the server is still talking to us, sending a PING if it has been quiet
+     * 
+     * @param now
+     *            the current time in milliseconds
+     * @return milliseconds until liveness needs to be checked again
+     * @throws IOException
+     *             if the server has stopped responding
+     */
+    private final long checkAlive(long now) throws IOException {
+        if (pingSent > 0) {
+            if (now - pingSent >= PING_INTERVAL) {
+                throw new IOException("Server stopped responding");
+            }
+            return pingSent + PING_INTERVAL - now;
+        }
+        if (now - lastRead >= PING_INTERVAL) {
+            // Send the server a ping to check that we are still connected.
+            irc_conn.sendRawLine("PING " + (now / 1000));
+            pingSent = now;
+            return PING_INTERVAL;
+        }
+        return lastRead + PING_INTERVAL - now;
+    }
+}
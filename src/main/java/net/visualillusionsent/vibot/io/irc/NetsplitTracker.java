@@ -0,0 +1,294 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Netsplit Tracker<br>
+ * Remembers the nicks lost in each netsplit, by the pair of servers that split, so their joins can be told apart from new joins when the
+ * split heals.
+ * <p>
+ * The joins of a healed split are gathered up and handed over together once they stop coming (or the server ends its netjoin batch), so a
+ * split of thousands of users is one netjoin rather than thousands of joins. Nicks that have not come back once the split is older than the
+ * expiry window are forgotten.
+ * <p>
+ * Only used from the thread reading from the server, so nothing here is synchronized.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+final class NetsplitTracker {
+
+    /**
+     * Two server names (or masks like *.net *.split), which is how a netsplit quit message looks
+     */
+    private static final Pattern SPLIT_MESSAGE = Pattern.compile("[\\w*-]+(\\.[\\w*-]+)+ [\\w*-]+(\\.[\\w*-]+)+");
+
+    /**
+     * How long in milliseconds to wait for more joins of a healed split before handing them over
+     */
+    private static final long NETJOIN_QUIET = 5000;
+
+    private final HashMap<String, Split> splits = new HashMap<String, Split>();
+    private final HashMap<String, Split> nicks = new HashMap<String, Split>();
+    private final HashMap<String, String> batches = new HashMap<String, String>();
+    private final HashSet<String> netjoins = new HashSet<String>();
+    private final long window;
+
+    /**
+     * Constructs a new {@code NetsplitTracker}
+     * 
+     * @param window
+     *            how long in milliseconds to remember the nicks of a split
+     */
+    NetsplitTracker(long window) {
+        this.window = window;
+    }
+
+    /**
+     * Gets the pair of servers from a quit message if it is a netsplit quit message
+     * 
+     * @param message
+     *            the quit message
+     * @return the servers, or {@code null} if not a netsplit
+     */
+    static final String getServers(String message) {
+        if (!SPLIT_MESSAGE.matcher(message).matches()) {
+            return null;
+        }
+        int space = message.indexOf(' ');
+        return pair(message.substring(0, space), message.substring(space + 1));
+    }
+
+    /**
+     * Makes the key for a pair of servers, which is the same whichever way round they are given
+     */
+    private static final String pair(String one, String two) {
+        one = one.toLowerCase();
+        two = two.toLowerCase();
+        return one.compareTo(two) <= 0 ? one.concat(" ").concat(two) : two.concat(" ").concat(one);
+    }
+
+    /**
+     * Starts a netsplit or netjoin batch (batch)
+     * 
+     * @param id
+     *            the batch reference
+     * @param netjoin
+     *            {@code true} for a netjoin batch, {@code false} for a netsplit batch
+     * @param one
+     *            the first server
+     * @param two
+     *            the second server
+     */
+    final void startBatch(String id, boolean netjoin, String one, String two) {
+        batches.put(id, pair(one, two));
+        if (netjoin) {
+            netjoins.add(id);
+        }
+    }
+
+    /**
+     * Gets the pair of servers of a netsplit or netjoin batch
+     * 
+     * @param id
+     *            the batch reference
+     * @return the servers, or {@code null} if not a netsplit or netjoin batch
+     */
+    final String getBatch(String id) {
+        return batches.get(id);
+    }
+
+    /**
+     * Ends a batch, and for a netjoin hands its joins over at the next {@link #poll(long)}
+     * 
+     * @param id
+     *            the batch reference
+     */
+    final void endBatch(String id) {
+        String servers = batches.remove(id);
+        if (!netjoins.remove(id)) {
+            // The end of a netsplit batch says nothing about when the joins are done
+            return;
+        }
+        Split split = splits.get(servers);
+        if (split != null && !split.rejoined.isEmpty()) {
+            split.lastJoin = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Records a nick lost in a netsplit
+     * 
+     * @param servers
+     *            the pair of servers that split
+     * @param key
+     *            the nick, in lower case under the {@link CaseMapping}
+     * @param now
+     *            the current time in milliseconds
+     */
+    final void quit(String servers, String key, long now) {
+        Split split = splits.get(servers);
+        if (split == null) {
+            split = new Split(servers);
+            splits.put(servers, split);
+        }
+        split.lastQuit = now;
+        split.lost.add(key);
+        Split old = nicks.put(key, split);
+        if (old != null && old != split) {
+            old.lost.remove(key);
+        }
+    }
+
+    /**
+     * Records a join, if it is a nick coming back from a netsplit
+     * 
+     * @param key
+     *            the nick, in lower case under the {@link CaseMapping}
+     * @param membership
+     *            the {@link Membership} the join made
+     * @param now
+     *            the current time in milliseconds
+     * @return {@code true} if the nick was lost in a netsplit, {@code false} if it is a new join
+     */
+    final boolean rejoined(String key, Membership membership, long now) {
+        Split split = nicks.get(key);
+        if (split == null) {
+            return false;
+        }
+        split.rejoined.add(membership);
+        split.returned.add(key);
+        if (split.lastJoin != Long.MIN_VALUE) {
+            split.lastJoin = now;
+        }
+        return true;
+    }
+
+    /**
+     * Forgets a nick that was lost in a netsplit, as something else says where it went
+     * 
+     * @param key
+     *            the nick, in lower case under the {@link CaseMapping}
+     */
+    final void forget(String key) {
+        Split split = nicks.remove(key);
+        if (split != null) {
+            split.lost.remove(key);
+        }
+    }
+
+    /**
+     * Forgets the splits whose window has passed and gets the netjoins that are ready to be handed over
+     * 
+     * @param now
+     *            the current time in milliseconds
+     * @return the healed {@link Split}s, or {@code null} if there are none
+     */
+    final List<Split> poll(long now) {
+        if (splits.isEmpty()) {
+            return null;
+        }
+        List<Split> healed = null;
+        Iterator<Split> iterator = splits.values().iterator();
+        while (iterator.hasNext()) {
+            Split split = iterator.next();
+            boolean expired = now - split.lastQuit >= window;
+            if (!split.rejoined.isEmpty() && (expired || split.lastJoin == Long.MIN_VALUE || now - split.lastJoin >= NETJOIN_QUIET)) {
+                if (healed == null) {
+                    healed = new ArrayList<Split>(1);
+                }
+                healed.add(split.heal());
+                for (String key : split.returned) {
+                    split.lost.remove(key);
+                    nicks.remove(key);
+                }
+                split.returned.clear();
+            }
+            if (expired || split.lost.isEmpty()) {
+                for (String key : split.lost) {
+                    nicks.remove(key);
+                }
+                iterator.remove();
+            }
+        }
+        return healed;
+    }
+
+    /**
+     * Forgets everything, for when reconnecting
+     */
+    final void clear() {
+        splits.clear();
+        nicks.clear();
+        batches.clear();
+        netjoins.clear();
+    }
+
+    /**
+     * The nicks lost between a pair of servers, and the joins of those that have come back
+     */
+    static final class Split {
+        private final String servers;
+        private final HashSet<String> lost = new HashSet<String>();
+        private final HashSet<String> returned = new HashSet<String>();
+        private List<Membership> rejoined = new ArrayList<Membership>();
+        private long lastQuit, lastJoin;
+
+        private Split(String servers) {
+            this.servers = servers;
+        }
+
+        /**
+         * Takes the joins so far, leaving the {@code Split} ready for more
+         */
+        private final Split heal() {
+            Split healed = new Split(servers);
+            healed.rejoined = Collections.unmodifiableList(rejoined);
+            rejoined = new ArrayList<Membership>();
+            lastJoin = 0;
+            return healed;
+        }
+
+        /**
+         * Gets the pair of servers that split
+         * 
+         * @return the servers, lower case and separated by a space
+         */
+        final String getServers() {
+            return servers;
+        }
+
+        /**
+         * Gets the {@link Membership}s made by the nicks coming back
+         * 
+         * @return an unmodifiable {@link List} of {@link Membership}s
+         */
+        final List<Membership> getRejoined() {
+            return rejoined;
+        }
+    }
+}
@@ -0,0 +1,435 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Outbound Queue<br>
+ * A bounded, lock free queue for the lines waiting to be sent to the server. Safe for multiple producers and a single consumer.
+ * <p>
+ * Lines are split into {@link MessageLane}s which are always served in order, so control traffic is never stuck behind chatter.
+ * Within a lane each target (channel or nick) has its own queue and the targets are served round-robin, so one busy target
+ * cannot starve the others.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class OutboundQueue {
+    /**
+     * The separator put between messages merged into one line
+     */
+    public static final String MERGE_SEPARATOR = " | ";
+    private final Lane[] lanes;
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile Thread waiter;
+
+    /**
+     * Constructs a new {@code OutboundQueue}
+     * 
+     * @param capacity
+     *            the maximum number of lines each lane may hold
+     */
+    public OutboundQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        MessageLane[] values = MessageLane.values();
+        this.lanes = new Lane[values.length];
+        for (MessageLane lane : values) {
+            lanes[lane.ordinal()] = new Lane(lane, capacity);
+        }
+    }
+
+    /**
+     * Adds a line to the end of its target's queue in a lane
+     * 
+     * @param line
+     *            the raw line to queue
+     * @param lane
+     *            the {@link MessageLane} to queue in
+     * @return the {@link EnqueueResult}
+     * @throws NullPointerException
+     *             if the line or lane is null
+     */
+    public final EnqueueResult add(String line, MessageLane lane) {
+        if (line == null) {
+            throw new NullPointerException("Message cannot be null.");
+        }
+        EnqueueResult result = lanes[lane.ordinal()].add(targetOf(line), line);
+        if (result == EnqueueResult.ACCEPTED) {
+            size.incrementAndGet();
+        }
+        if (result.isQueued()) {
+            Thread waiting = waiter;
+            if (waiting != null) {
+                LockSupport.unpark(waiting);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the next line to send without waiting
+     * 
+     * @return the next line, or {@code null} if the {@code OutboundQueue} is empty
+     */
+    public final String poll() {
+        return poll(0, null);
+    }
+
+    /**
+     * Returns the next line to send without waiting, coalescing waiting messages into it
+     * <p>
+     * Short PRIVMSGs or NOTICEs queued one after another for the same target are merged into one line of up to {@code maxLength}
+     * characters, and the same message queued for several targets in the same lane is sent as one line to a comma separated list of
+     * targets, as far as the server's TARGMAX allows.
+     * 
+     * @param maxLength
+     *            the maximum length of a coalesced line, {@code 0} to not coalesce
+     * @param isupport
+     *            the {@link ISupport} of the server, for the TARGMAX
+     * @return the next line, or {@code null} if the {@code OutboundQueue} is empty
+     */
+    public final String poll(int maxLength, ISupport isupport) {
+        for (Lane lane : lanes) {
+            String line = lane.poll();
+            if (line != null) {
+                size.decrementAndGet();
+                return maxLength > 0 ? coalesce(lane, line, maxLength, isupport) : line;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the next line to send, waiting until there is one
+     * 
+     * @return the next line, or {@code null} if interrupted while waiting
+     */
+    public final String next() {
+        return next(0, null);
+    }
+
+    /**
+     * Returns the next line to send, waiting until there is one, coalescing waiting messages into it
+     * 
+     * @param maxLength
+     *            the maximum length of a coalesced line, {@code 0} to not coalesce
+     * @param isupport
+     *            the {@link ISupport} of the server, for the TARGMAX
+     * @return the next line, or {@code null} if interrupted while waiting
+     * @see #poll(int, ISupport)
+     */
+    public final String next(int maxLength, ISupport isupport) {
+        String line;
+        while ((line = poll(maxLength, isupport)) == null) {
+            waiter = Thread.currentThread();
+            if (isEmpty()) {
+                LockSupport.park(this);
+            }
+            waiter = null;
+            if (Thread.interrupted()) {
+                return null;
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Checks if there are no lines waiting
+     * 
+     * @return {@code true} if empty
+     */
+    public final boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    /**
+     * Gets the number of lines waiting
+     * 
+     * @return the number of lines
+     */
+    public final int size() {
+        return size.get();
+    }
+
+    /**
+     * Gets the number of lines waiting in a lane
+     * 
+     * @param lane
+     *            the {@link MessageLane}
+     * @return the number of lines
+     */
+    public final int size(MessageLane lane) {
+        return lanes[lane.ordinal()].size.get();
+    }
+
+    /**
+     * Throws away all waiting lines
+     */
+    public final void clear() {
+        while (poll() != null) {
+        }
+    }
+
+    /**
+     * Gets the target of a raw line, the first parameter after the command
+     * 
+     * @param line
+     *            the raw line
+     * @return the target or an empty string if the line has none
+     */
+    private static final String targetOf(String line) {
+        int start = line.indexOf(' ');
+        if (start < 0 || start + 1 >= line.length() || line.charAt(start + 1) == ':') {
+            return "";
+        }
+        int end = line.indexOf(' ', start + 1);
+        return end < 0 ? line.substring(start + 1) : line.substring(start + 1, end);
+    }
+
+    /**
+     * Merges the messages waiting behind a line into it
+     * 
+     * @param lane
+     *            the {@link Lane} the line came from
+     * @param line
+     *            the line
+     * @param maxLength
+     *            the maximum length of the merged line
+     * @param isupport
+     *            the {@link ISupport} of the server
+     * @return the merged line
+     */
+    private final String coalesce(Lane lane, String line, int maxLength, ISupport isupport) {
+        String command = commandOf(line);
+        if (command == null) {
+            return line;
+        }
+        Target target = lane.polled;
+        String message = messageOf(line, command, target.key);
+        if (message == null) {
+            return line;
+        }
+        // command, space, targets, space-colon, message
+        int overhead = command.length() + 3;
+
+        // Merge the short messages waiting for the same target
+        StringBuilder merged = null;
+        String head;
+        while ((head = target.lines.peek()) != null) {
+            String next = messageOf(head, command, target.key);
+            int length = merged != null ? merged.length() : message.length();
+            if (next == null || overhead + target.key.length() + length + MERGE_SEPARATOR.length() + next.length() > maxLength) {
+                break;
+            }
+            if (!take(lane, target, head)) {
+                break;
+            }
+            if (merged == null) {
+                merged = new StringBuilder(message);
+            }
+            merged.append(MERGE_SEPARATOR).append(next);
+        }
+        if (merged != null) {
+            message = merged.toString();
+        }
+
+        // Fold the same message waiting for other targets
+        StringBuilder targets = null;
+        int targetMax = isupport != null ? isupport.getTargetMax(command) : 1;
+        int count = 1;
+        if (targetMax > 1) {
+            int length = overhead + target.key.length() + message.length();
+            for (Target other : lane.ring) {
+                if (count >= targetMax) {
+                    break;
+                }
+                if (other == target || length + 1 + other.key.length() > maxLength) {
+                    continue;
+                }
+                head = other.lines.peek();
+                if (head == null || !message.equals(messageOf(head, command, other.key)) || !take(lane, other, head)) {
+                    continue;
+                }
+                if (targets == null) {
+                    targets = new StringBuilder(target.key);
+                }
+                targets.append(',').append(other.key);
+                length += 1 + other.key.length();
+                count++;
+            }
+        }
+
+        if (merged == null && targets == null) {
+            return line;
+        }
+        return command.concat(" ").concat(targets != null ? targets.toString() : target.key).concat(" :").concat(message);
+    }
+
+    /**
+     * Takes a line that was peeked at out of a target's queue
+     * 
+     * @param lane
+     *            the {@link Lane} the target is in
+     * @param target
+     *            the {@link Target} to take from
+     * @param line
+     *            the line to take
+     * @return {@code true} if taken; {@code false} if it had already gone
+     */
+    private final boolean take(Lane lane, Target target, String line) {
+        if (target.lines.remove(line)) {
+            lane.size.decrementAndGet();
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the command of a line if it is one that can be coalesced
+     * 
+     * @param line
+     *            the raw line
+     * @return PRIVMSG, NOTICE or {@code null}
+     */
+    private static final String commandOf(String line) {
+        if (line.startsWith("PRIVMSG ")) {
+            return "PRIVMSG";
+        }
+        else if (line.startsWith("NOTICE ")) {
+            return "NOTICE";
+        }
+        return null;
+    }
+
+    /**
+     * Gets the message text of a line if it is a plain message for the given command and target
+     * 
+     * @param line
+     *            the raw line
+     * @param command
+     *            the command the line must be
+     * @param target
+     *            the target the line must be for
+     * @return the message text, or {@code null} if the line is something else or a CTCP
+     */
+    private static final String messageOf(String line, String command, String target) {
+        int start = command.length() + target.length() + 3;
+        if (line.length() <= start || !line.startsWith(command) || line.charAt(command.length()) != ' ' || !line.startsWith(target, command.length() + 1)
+                || !line.startsWith(" :", command.length() + 1 + target.length()) || line.charAt(start) == '\u0001') {
+            return null;
+        }
+        return line.substring(start);
+    }
+
+    /**
+     * A lane of per target queues, with a ring of the targets that have lines waiting
+     */
+    private static final class Lane {
+        private final MessageLane type;
+        private final int capacity;
+        private final AtomicInteger size = new AtomicInteger();
+        private final ConcurrentHashMap<String, Target> targets = new ConcurrentHashMap<String, Target>();
+        private final ConcurrentLinkedQueue<Target> ring = new ConcurrentLinkedQueue<Target>();
+        private Target polled; // Only touched by the consumer
+
+        Lane(MessageLane type, int capacity) {
+            this.type = type;
+            this.capacity = capacity;
+        }
+
+        final EnqueueResult add(String key, String line) {
+            Target target = targets.get(key);
+            if (target == null) {
+                Target created = new Target(key);
+                target = targets.putIfAbsent(key, created);
+                if (target == null) {
+                    target = created;
+                }
+            }
+
+            EnqueueResult result = EnqueueResult.ACCEPTED;
+            if (size.incrementAndGet() > capacity) {
+                size.decrementAndGet();
+                if (!type.replacesOldest() || target.lines.poll() == null) {
+                    return EnqueueResult.DROPPED;
+                }
+                // Took the place of the oldest line, the size stays the same
+                result = EnqueueResult.REPLACED;
+            }
+            target.lines.add(line);
+            schedule(target);
+            return result;
+        }
+
+        final String poll() {
+            Target target;
+            while ((target = ring.poll()) != null) {
+                String line = target.lines.poll();
+                if (line != null && !target.lines.isEmpty()) {
+                    // Back of the ring to give the other targets a turn
+                    ring.add(target);
+                }
+                else {
+                    target.scheduled.set(false);
+                    if (!target.lines.isEmpty()) {
+                        // A line was added while unscheduling
+                        schedule(target);
+                    }
+                    else {
+                        // Don't keep idle targets around, such as nicks that were only replied to once
+                        targets.remove(target.key, target);
+                    }
+                }
+                if (line != null) {
+                    size.decrementAndGet();
+                    polled = target;
+                    return line;
+                }
+            }
+            return null;
+        }
+
+        private final void schedule(Target target) {
+            if (target.scheduled.compareAndSet(false, true)) {
+                ring.add(target);
+            }
+        }
+    }
+
+    /**
+     * The lines waiting for a single target
+     */
+    private static final class Target {
+        private final String key;
+        private final ConcurrentLinkedQueue<String> lines = new ConcurrentLinkedQueue<String>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Target(String key) {
+            this.key = key;
+        }
+    }
+}
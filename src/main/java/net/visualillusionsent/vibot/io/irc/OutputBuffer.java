@@ -0,0 +1,150 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Output Buffer<br>
+ * Collects encoded lines into pooled buffers so that a batch of lines can be written to the server with a single gathering write.
+ * <p>
+ * Lines are appended to the buffer being filled, which is sealed once the next line will not fit. Sealed buffers and the one being filled
+ * are written together by {@link #writeTo(GatheringByteChannel)}, and fully written buffers go back to the pool.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+final class OutputBuffer {
+
+    /**
+     * Size of each pooled buffer, room for at least 16 full lines
+     */
+    static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The most buffers kept in the pool, any more are left for the garbage collector
+     */
+    private static final int POOL_SIZE = 8;
+
+    private static final ConcurrentLinkedQueue<ByteBuffer> pool = new ConcurrentLinkedQueue<ByteBuffer>();
+
+    private final ArrayDeque<ByteBuffer> sealed = new ArrayDeque<ByteBuffer>();
+    private final WriteMetrics metrics;
+    private ByteBuffer filling;
+
+    /**
+     * Constructs a new {@code OutputBuffer}
+     * 
+     * @param metrics
+     *            the {@link WriteMetrics} to count with
+     */
+    OutputBuffer(WriteMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Appends an encoded line
+     * 
+     * @param line
+     *            the encoded line, including the trailing \r\n
+     */
+    final synchronized void append(ByteBuffer line) {
+        int length = line.remaining();
+        if (filling != null && filling.remaining() < length) {
+            seal();
+        }
+        if (filling == null) {
+            filling = take();
+        }
+        filling.put(line);
+        metrics.lineQueued(length);
+    }
+
+    /**
+     * Checks if there is nothing waiting to be written
+     * 
+     * @return {@code true} if empty
+     */
+    final synchronized boolean isEmpty() {
+        return sealed.isEmpty() && (filling == null || filling.position() == 0);
+    }
+
+    /**
+     * Writes as much as the channel will take with a single gathering write
+     * 
+     * @param channel
+     *            the channel to write to
+     * @return {@code true} if everything was written; {@code false} if some is left waiting
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    final synchronized boolean writeTo(GatheringByteChannel channel) throws IOException {
+        if (filling != null && filling.position() > 0) {
+            seal();
+        }
+        if (sealed.isEmpty()) {
+            return true;
+        }
+        metrics.flushed();
+        channel.write(sealed.toArray(new ByteBuffer[sealed.size()]));
+        metrics.written();
+        ByteBuffer head;
+        while ((head = sealed.peek()) != null && !head.hasRemaining()) {
+            sealed.poll();
+            recycle(head);
+        }
+        return sealed.isEmpty();
+    }
+
+    /**
+     * Throws away anything waiting and returns the buffers to the pool
+     */
+    final synchronized void clear() {
+        ByteBuffer buffer;
+        while ((buffer = sealed.poll()) != null) {
+            recycle(buffer);
+        }
+        if (filling != null) {
+            recycle(filling);
+            filling = null;
+        }
+    }
+
+    private final void seal() {
+        filling.flip();
+        sealed.add(filling);
+        filling = null;
+    }
+
+    private static final ByteBuffer take() {
+        ByteBuffer buffer = pool.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    private static final void recycle(ByteBuffer buffer) {
+        if (pool.size() < POOL_SIZE) {
+            buffer.clear();
+            pool.add(buffer);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+/**
+ * Prefix Table<br>
+ * The channel membership modes (op, voice...) a server supports and the symbols it prefixes nicks with for them, from the PREFIX token of
+ * RPL_ISUPPORT (ie: (ohv)@%+).
+ * <p>
+ * Each mode is a bit of a {@link Membership}'s status, so checking for one is a single mask. The common modes always have the same bit
+ * ({@link Membership#OWNER}, {@link Membership#ADMIN}, {@link Membership#OP}, {@link Membership#HALFOP} and {@link Membership#VOICE}) and any
+ * other mode the server supports is given one of the bits after them.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class PrefixTable {
+
+    /**
+     * The table used until the server advertises PREFIX, which knows the owner, admin and half-op symbols along with @ and +
+     */
+    public static final PrefixTable DEFAULT = new PrefixTable("qaohv", "~&@%+");
+
+    private final String modes;
+    private final String symbols;
+    private final int[] ranked;
+    private final int[] byMode = new int[128];
+    private final int[] bySymbol = new int[128];
+
+    private PrefixTable(String modes, String symbols) {
+        this.modes = modes;
+        this.symbols = symbols;
+        this.ranked = new int[modes.length()];
+
+        int next = Membership.OWNER << 1;
+        for (int index = 0; index < ranked.length; index++) {
+            char mode = modes.charAt(index), symbol = symbols.charAt(index);
+            int bit = commonBit(mode);
+            if (bit == 0) {
+                if (next == 0) {
+                    // Out of bits, no server has anywhere near this many
+                    continue;
+                }
+                bit = next;
+                next <<= 1;
+            }
+            ranked[index] = bit;
+            if (mode < 128) {
+                byMode[mode] = bit;
+            }
+            if (symbol < 128) {
+                bySymbol[symbol] = bit;
+            }
+        }
+    }
+
+    private static final int commonBit(char mode) {
+        switch (mode) {
+            case 'q':
+                return Membership.OWNER;
+            case 'a':
+                return Membership.ADMIN;
+            case 'o':
+                return Membership.OP;
+            case 'h':
+                return Membership.HALFOP;
+            case 'v':
+                return Membership.VOICE;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Parses the value of a PREFIX token
+     * 
+     * @param token
+     *            the value (ie: (ohv)@%+), or {@code null} if the server did not advertise PREFIX
+     * @return the {@code PrefixTable}, or {@link #DEFAULT} if there was no value or it was not valid
+     */
+    static final PrefixTable parse(String token) {
+        if (token == null) {
+            return DEFAULT;
+        }
+        if (token.isEmpty()) {
+            // The server has no membership modes at all
+            return new PrefixTable("", "");
+        }
+        int close = token.indexOf(')');
+        if (token.charAt(0) != '(' || close < 0 || close - 1 != token.length() - close - 1) {
+            return DEFAULT;
+        }
+        return new PrefixTable(token.substring(1, close), token.substring(close + 1));
+    }
+
+    /**
+     * Gets the membership modes, highest first
+     * 
+     * @return the modes (ie: ohv)
+     */
+    public final String getModes() {
+        return modes;
+    }
+
+    /**
+     * Gets the prefix symbols, highest first
+     * 
+     * @return the symbols (ie: @%+)
+     */
+    public final String getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Gets the status bit for a membership mode
+     * 
+     * @param mode
+     *            the mode (ie: o)
+     * @return the bit, or {@code 0} if not a membership mode
+     */
+    public final int getModeBit(char mode) {
+        return mode < 128 ? byMode[mode] : 0;
+    }
+
+    /**
+     * Gets the status bit for a prefix symbol
+     * 
+     * @param symbol
+     *            the symbol (ie: @)
+     * @return the bit, or {@code 0} if not a prefix symbol
+     */
+    public final int getSymbolBit(char symbol) {
+        return symbol < 128 ? bySymbol[symbol] : 0;
+    }
+
+    /**
+     * Gets the prefix symbols for a status, highest first
+     * 
+     * @param status
+     *            the status bits
+     * @return the symbols, or an empty string if there are none
+     */
+    public final String toSymbols(int status) {
+        if (status == 0) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(2);
+        for (int index = 0; index < ranked.length; index++) {
+            if ((status & ranked[index]) != 0) {
+                builder.append(symbols.charAt(index));
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public final String toString() {
+        return String.format("PrefixTable[(%s)%s]", modes, symbols);
+    }
+}
@@ -17,8 +17,6 @@
  */
 package net.visualillusionsent.vibot.io.irc;
 
-import java.util.HashMap;
-
 /**
  * This enum contains the values of all numeric replies specified in
  * section 6 of RFC 1459. Refer to RFC 1459 for further information.
@@ -77,6 +75,7 @@ public enum ReplyConstants {
 
     // Command Responses.
     RPL_CONNECTED(004),
+    RPL_ISUPPORT(005),
     RPL_TRACELINK(200),
     RPL_TRACECONNECTING(201),
     RPL_TRACEHANDSHAKE(202),
@@ -131,9 +130,14 @@ public enum ReplyConstants {
     RPL_TOPICINFO(333),
     RPL_INVITING(341),
     RPL_SUMMONING(342),
+    RPL_INVITELIST(346),
+    RPL_ENDOFINVITELIST(347),
+    RPL_EXCEPTLIST(348),
+    RPL_ENDOFEXCEPTLIST(349),
     RPL_VERSION(351),
     RPL_WHOREPLY(352),
     RPL_NAMREPLY(353),
+    RPL_WHOSPCRPL(354),
     RPL_LINKS(364),
     RPL_ENDOFLINKS(365),
     RPL_ENDOFNAMES(366),
@@ -171,20 +175,43 @@ public enum ReplyConstants {
     ERR_BADCHANMASK(476),
     ERR_NOSERVICEHOST(492);
 
-    private static HashMap<Integer, ReplyConstants> map;
+    /**
+     * Replies indexed directly by their code, numerics are always three digits
+     */
+    private static final ReplyConstants[] byCode = new ReplyConstants[1000];
+
+    static {
+        for (ReplyConstants reply : values()) {
+            byCode[reply.code] = reply;
+        }
+    }
+
+    private final int code;
 
     private ReplyConstants(int code) {
-        addCode(Integer.valueOf(code), this);
+        this.code = code;
     }
 
-    private void addCode(Integer code, ReplyConstants rp) {
-        if (map == null) {
-            map = new HashMap<Integer, ReplyConstants>();
-        }
-        map.put(code, rp);
+    /**
+     * Gets the numeric code of the reply
+     * 
+     * @return the code
+     */
+    public final int getCode() {
+        return code;
     }
 
+    /**
+     * Gets the reply for a numeric code
+     * 
+     * @param code
+     *            the code
+     * @return the {@code ReplyConstants}, or {@code null} if the code is not known
+     */
     public static ReplyConstants fromCode(int code) {
-        return map.get(code);
+        if (code < 0 || code >= byCode.length) {
+            return null;
+        }
+        return byCode[code];
     }
 }
@@ -0,0 +1,70 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+/**
+ * String Interner<br>
+ * Shares one copy of the hostnames and logins that many {@link User}s have, like a cloak or a web chat gateway's host.
+ * <p>
+ * A fixed number of slots, each holding the last string seen with its hash, so it never grows no matter how many {@link User}s come and go
+ * and a string that stops being seen is soon forgotten. Unlike {@link String#intern()} nothing is kept forever. Two strings that fall in
+ * the same slot just take turns, which only costs a copy that would have been made anyway.
+ * <p>
+ * Slots are read and written without locking, which is safe as a {@link String} is immutable; at worst a copy is not shared.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+final class StringInterner {
+    private final String[] slots;
+    private final int mask;
+
+    /**
+     * Constructs a new {@code StringInterner}
+     * 
+     * @param size
+     *            the number of slots, rounded up to a power of two
+     */
+    StringInterner(int size) {
+        int slots = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+        this.slots = new String[slots];
+        this.mask = slots - 1;
+    }
+
+    /**
+     * Gets the shared copy of a string
+     * 
+     * @param text
+     *            the string
+     * @return the shared copy, which is {@code text} itself if there was none
+     */
+    final String intern(String text) {
+        if (text == null) {
+            return null;
+        }
+        int hash = text.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String shared = slots[slot];
+        if (shared != null && shared.equals(text)) {
+            return shared;
+        }
+        slots[slot] = text;
+        return text;
+    }
+}
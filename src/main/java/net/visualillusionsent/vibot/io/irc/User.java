@@ -17,6 +17,10 @@
  */
 package net.visualillusionsent.vibot.io.irc;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import net.visualillusionsent.vibot.io.configuration.BotConfig;
 import net.visualillusionsent.vibot.io.logging.BotLogMan;
 
@@ -30,15 +34,17 @@ import net.visualillusionsent.vibot.io.logging.BotLogMan;
  */
 public final class User {
     private final IRCConnection irc_conn;
-    private String prefix, nick, hostname, login;
-    public static User BOT_CONSOLE = new User("$", "BOT", null, null, null);
+    private String nick, hostname, login, account, realname;
+    private boolean away;
+    private volatile Membership[] memberships = NO_MEMBERSHIPS;
+    private static final Membership[] NO_MEMBERSHIPS = new Membership[0];
+    public static User BOT_CONSOLE = new User("BOT", null, null, null);
 
-    public User(String prefix, String nick, String hostname, String login, IRCConnection irc_conn) {
-        this.prefix = prefix;
+    public User(String nick, String hostname, String login, IRCConnection irc_conn) {
         this.nick = nick;
-        this.hostname = hostname;
-        this.login = login;
         this.irc_conn = irc_conn;
+        this.hostname = intern(hostname);
+        this.login = intern(login);
     }
 
     /**
@@ -51,12 +57,12 @@ public final class User {
     }
 
     /**
-     * Gets the prefix for this User
+     * Gets the {@link IRCConnection} of the network this User is on
      * 
-     * @return the prefix for this User
+     * @return the {@link IRCConnection} or {@code null} for the Console
      */
-    public final String getPrefix() {
-        return prefix;
+    public final IRCConnection getConnection() {
+        return irc_conn;
     }
 
     /**
@@ -78,48 +84,133 @@ public final class User {
     }
 
     /**
-     * Gets whether the User is an IRC Server Owner
+     * Gets the services account this User is logged in to, known from the extended-join and account-notify capabilities
      * 
-     * @return {@code true} if owner, {@code false} otherwise
+     * @return the account name, or {@code null} if not logged in or not known
      */
-    public final boolean isIRCServerOwner() {
-        return prefix.indexOf('~') >= 0;
+    public final String getAccount() {
+        return account;
     }
 
     /**
-     * Gets whetehr the User is an IRC Server Admin
+     * Gets the real name of this User, known from the extended-join capability
      * 
-     * @return {@code true} if admin, {@code false} otherwise
+     * @return the real name, or {@code null} if not known
      */
-    public final boolean isIRCServerAdmin() {
-        return prefix.indexOf('&') >= 0;
+    public final String getRealName() {
+        return realname;
     }
 
     /**
-     * Gets whether the User is a Channel Operator or not
+     * Gets whether the User is marked away, known from the away-notify capability
      * 
+     * @return {@code true} if away, {@code false} otherwise
+     */
+    public final boolean isAway() {
+        return away;
+    }
+
+    /**
+     * Checks if the User has any of the given status bits in a {@link Channel} (ie: {@link Membership#AT_LEAST_OP})
+     * 
+     * @param channel
+     *            the {@link Channel} to check
+     * @param mask
+     *            the status bits to check for
+     * @return {@code true} if the User has any of them, {@code false} otherwise or if not in the {@link Channel}
+     */
+    public final boolean hasStatus(Channel channel, int mask) {
+        Membership membership = getMembership(channel);
+        return membership != null && membership.hasStatus(mask);
+    }
+
+    /**
+     * Gets whether the User is a Channel Operator in a {@link Channel}
+     * 
+     * @param channel
+     *            the {@link Channel} to check
      * @return {@code true} if op, {@code false} otherwise
      */
-    public boolean isOp() {
-        return prefix.indexOf('@') >= 0;
+    public final boolean isOp(Channel channel) {
+        Membership membership = getMembership(channel);
+        return membership != null && membership.isOp();
     }
 
     /**
-     * Gets whether the User is a Channel Half-Operator or not
+     * Gets whether the User is a Channel Half-Operator in a {@link Channel}
      * 
+     * @param channel
+     *            the {@link Channel} to check
      * @return {@code true} if half-op, {@code false} otherwise
      */
-    public final boolean isHalfOp() {
-        return prefix.indexOf('%') >= 0;
+    public final boolean isHalfOp(Channel channel) {
+        Membership membership = getMembership(channel);
+        return membership != null && membership.isHalfOp();
     }
 
     /**
-     * Gets whether the User has Voice in the Channel
+     * Gets whether the User has Voice in a {@link Channel}
      * 
+     * @param channel
+     *            the {@link Channel} to check
      * @return {@code true} if Voiced, {@code false} otherwise
      */
-    public boolean hasVoice() {
-        return prefix.indexOf('+') >= 0;
+    public final boolean hasVoice(Channel channel) {
+        Membership membership = getMembership(channel);
+        return membership != null && membership.hasVoice();
+    }
+
+    /**
+     * Gets the prefix for this User in a {@link Channel}
+     * 
+     * @param channel
+     *            the {@link Channel}
+     * @return the prefix for this User in the {@link Channel}
+     */
+    public final String getPrefix(Channel channel) {
+        Membership membership = getMembership(channel);
+        return membership != null ? membership.getPrefix() : "";
+    }
+
+    /**
+     * Gets the {@link Membership} of this User in a {@link Channel}
+     * 
+     * @param channel
+     *            the {@link Channel}
+     * @return the {@link Membership}, or {@code null} if the User is not known to be in the {@link Channel}
+     */
+    public final Membership getMembership(Channel channel) {
+        if (channel != null) {
+            for (Membership membership : memberships) {
+                if (membership.getChannel() == channel) {
+                    return membership;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the {@link Membership}s of this User in each {@link Channel} the User is known to be in
+     * 
+     * @return an unmodifiable {@link List} of {@link Membership}s
+     */
+    public final List<Membership> getMemberships() {
+        return Collections.unmodifiableList(Arrays.asList(memberships));
+    }
+
+    /**
+     * Gets the {@link Channel}s this User is known to be in
+     * 
+     * @return an unmodifiable {@link List} of {@link Channel}s
+     */
+    public final List<Channel> getChannels() {
+        Membership[] memberships = this.memberships;
+        Channel[] channels = new Channel[memberships.length];
+        for (int index = 0; index < channels.length; index++) {
+            channels[index] = memberships[index].getChannel();
+        }
+        return Collections.unmodifiableList(Arrays.asList(channels));
     }
 
     /**
@@ -128,7 +219,7 @@ public final class User {
      * @return {@code true} if Console, {@code false} otherwise
      */
     public boolean isConsole() {
-        return prefix.indexOf('$') == 0;
+        return this == BOT_CONSOLE;
     }
 
     /**
@@ -145,22 +236,26 @@ public final class User {
         return false;
     }
 
-    public void sendMessage(String message) {
+    public EnqueueResult sendMessage(String message) {
         if (irc_conn != null) {
-            irc_conn.sendMessage(nick, message);
+            return irc_conn.sendMessage(nick, message);
         }
         else if (this == BOT_CONSOLE) {
             BotLogMan.consoleMessage(message);
+            return EnqueueResult.ACCEPTED;
         }
+        return EnqueueResult.DROPPED;
     }
 
-    public void sendNotice(String message) {
+    public EnqueueResult sendNotice(String message) {
         if (irc_conn != null) {
-            irc_conn.sendNotice(nick, message);
+            return irc_conn.sendNotice(nick, message);
         }
         else if (this == BOT_CONSOLE) {
             BotLogMan.consoleMessage(message);
+            return EnqueueResult.ACCEPTED;
         }
+        return EnqueueResult.DROPPED;
     }
 
     boolean hasNoHost() {
@@ -175,32 +270,62 @@ public final class User {
         this.nick = nick;
     }
 
-    public void voice() {
-        prefix = prefix.concat("+");
+    synchronized void addMembership(Membership membership) {
+        for (Membership known : memberships) {
+            if (known == membership) {
+                return;
+            }
+        }
+        Membership[] grown = Arrays.copyOf(memberships, memberships.length + 1);
+        grown[memberships.length] = membership;
+        memberships = grown;
     }
 
-    public void op() {
-        prefix = prefix.concat("@");
+    synchronized void removeMembership(Membership membership) {
+        for (int index = 0; index < memberships.length; index++) {
+            if (memberships[index] == membership) {
+                if (memberships.length == 1) {
+                    memberships = NO_MEMBERSHIPS;
+                    return;
+                }
+                Membership[] shrunk = new Membership[memberships.length - 1];
+                System.arraycopy(memberships, 0, shrunk, 0, index);
+                System.arraycopy(memberships, index + 1, shrunk, index, shrunk.length - index);
+                memberships = shrunk;
+                return;
+            }
+        }
     }
 
-    public void deVoice() {
-        prefix = prefix.replace("+", "");
+    public void setHost(String hostname) {
+        this.hostname = intern(hostname);
     }
 
-    public void deOp() {
-        prefix = prefix.replace("@", "");
+    public void setLogin(String login) {
+        this.login = intern(login);
     }
 
-    public void setHost(String hostname) {
-        this.hostname = hostname;
+    /**
+     * Shares one copy of a hostname or login between the Users on the network that have it
+     */
+    private final String intern(String text) {
+        return irc_conn != null ? irc_conn.intern(text) : text;
     }
 
-    public void setLogin(String login) {
-        this.login = login;
+    public void setAccount(String account) {
+        this.account = account;
+    }
+
+    public void setRealName(String realname) {
+        this.realname = realname;
+    }
+
+    public void setAway(boolean away) {
+        this.away = away;
     }
 
     public String toString() {
-        return String.format("User[Nick=%s Prefix=%s Host=%s Login=%s]", nick, prefix, hostname, login);
+        return String.format("User[Nick=%s Host=%s Login=%s]", nick, hostname, login);
     }
 
     public boolean equals(String nick) {
@@ -215,9 +340,6 @@ public final class User {
         if (!other.getNick().equals(this.nick)) {
             return false;
         }
-        if (!other.getPrefix().equals(this.prefix)) {
-            return false;
-        }
         if (!hasNoHost() && !other.hasNoHost()) {
             if (!other.getHostname().equals(this.hostname)) {
                 return false;
@@ -233,7 +355,6 @@ public final class User {
 
     public int hashCode() {
         int hash = 7;
-        hash = 31 * hash + prefix.hashCode();
         hash = 31 * hash + nick.hashCode();
         hash = 31 * hash + hostname != null ? hostname.hashCode() : 0;
         hash = 31 * hash + login != null ? login.hashCode() : 0;
@@ -0,0 +1,102 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write Metrics<br>
+ * Counters for what an {@link IRCConnection} has written to the server, kept across reconnects
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class WriteMetrics {
+    private final AtomicLong lines = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+
+    WriteMetrics() {
+    }
+
+    final void lineQueued(int length) {
+        lines.incrementAndGet();
+        bytes.addAndGet(length);
+    }
+
+    final void flushed() {
+        flushes.incrementAndGet();
+    }
+
+    final void written() {
+        writes.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of lines written to the server
+     * 
+     * @return the line count
+     */
+    public final long getLines() {
+        return lines.get();
+    }
+
+    /**
+     * Gets the number of bytes written to the server
+     * 
+     * @return the byte count
+     */
+    public final long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * Gets the number of times batched output was flushed to the server
+     * 
+     * @return the flush count
+     */
+    public final long getFlushes() {
+        return flushes.get();
+    }
+
+    /**
+     * Gets the number of write calls made on the socket
+     * 
+     * @return the write count
+     */
+    public final long getWrites() {
+        return writes.get();
+    }
+
+    /**
+     * Gets the average number of lines sent per write call
+     * 
+     * @return lines per write
+     */
+    public final double getLinesPerWrite() {
+        long count = writes.get();
+        return count == 0 ? 0 : (double) lines.get() / count;
+    }
+
+    @Override
+    public final String toString() {
+        return String.format("WriteMetrics[Lines=%d Bytes=%d Flushes=%d Writes=%d]", getLines(), getBytes(), getFlushes(), getWrites());
+    }
+}
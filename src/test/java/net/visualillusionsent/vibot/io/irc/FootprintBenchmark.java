@@ -0,0 +1,115 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.util.Random;
+
+/**
+ * Footprint Benchmark<br>
+ * Fills {@link Channel}s with {@link User}s the way a large network would and prints how much heap each {@link User} takes, so a change
+ * that makes {@link MemberTable}, {@link Membership} or {@link User} bigger shows up.
+ * <p>
+ * Run with {@code java -cp <classes> net.visualillusionsent.vibot.io.irc.FootprintBenchmark [users] [channels] [channels per user]},
+ * defaults 100000, 500 and 3. Each {@link User} gets their own copy of their hostname and login, as they would parsing lines from the
+ * server; most share one of a few hundred cloaks and gateway hosts, the rest have one of their own. It is measured once with the
+ * {@link StringInterner} and once without, to show what the sharing saves.
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class FootprintBenchmark {
+    private static final int SHARED_HOSTS = 300;
+    private static final int SHARED_PERCENT = 70;
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int channels = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int perUser = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        System.out.println(String.format("%d users across %d channels, %d channels each", users, channels, perUser));
+        // The first pass warms up, so classes loaded on the way are not counted
+        measure(users, channels, perUser, true);
+        report("interned", measure(users, channels, perUser, true), users, perUser);
+        report("not interned", measure(users, channels, perUser, false), users, perUser);
+    }
+
+    /**
+     * Builds the {@link Channel}s and {@link User}s and measures the heap they hold
+     * 
+     * @return the bytes retained
+     */
+    private static final long measure(int users, int channels, int perUser, boolean intern) {
+        long before = usedHeap();
+        Object[] held = fill(users, channels, perUser, intern);
+        long after = usedHeap();
+        if (held.length != channels) {
+            throw new IllegalStateException();
+        }
+        return after - before;
+    }
+
+    private static final Object[] fill(int users, int channels, int perUser, boolean intern) {
+        Random random = new Random(42);
+        StringInterner interner = new StringInterner(4096);
+        Channel[] chans = new Channel[channels];
+        for (int index = 0; index < channels; index++) {
+            chans[index] = new Channel("#channel".concat(String.valueOf(index)), null);
+        }
+        for (int index = 0; index < users; index++) {
+            String host;
+            if (random.nextInt(100) < SHARED_PERCENT) {
+                host = "gateway/web/host-".concat(String.valueOf(random.nextInt(SHARED_HOSTS))).concat(".example.net");
+            }
+            else {
+                host = "user-".concat(String.valueOf(index)).concat(".dynamic.example.org");
+            }
+            String login = new String("~webchat");
+            if (intern) {
+                host = interner.intern(host);
+                login = interner.intern(login);
+            }
+            User user = new User("nick".concat(String.valueOf(index)), host, login, null);
+            for (int joined = 0; joined < perUser; joined++) {
+                chans[random.nextInt(channels)].putUser(user, 0);
+            }
+        }
+        for (Channel chan : chans) {
+            chan.publishMembers();
+        }
+        return chans;
+    }
+
+    private static final void report(String label, long bytes, int users, int perUser) {
+        System.out.println(String.format("%-13s %,12d bytes retained, %,6d bytes per user (%d memberships each)", label, bytes, bytes / users, perUser));
+    }
+
+    private static final long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int pass = 0; pass < 4; pass++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            }
+            catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,188 @@
+/* 
+ * Copyright 2012 - 2013 Visual Illusions Entertainment.
+ *  
+ * This file is part of VIBot.
+ *
+ * VIBot is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * VIBot is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; 
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with VIBot.
+ * If not, see http://www.gnu.org/licenses/lgpl.html
+ */
+package net.visualillusionsent.vibot.io.irc;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.StringTokenizer;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Parser Benchmark<br>
+ * Runs a fixed mix of server lines through {@link IrcMessage#parse(String)} and the accessor calls {@link IRCConnection#handleLine(String)}
+ * makes, and through the {@link StringTokenizer} and substring parsing it replaced, and prints the bytes allocated per line by each, so a
+ * change that makes parsing allocate more shows up.
+ * <p>
+ * Run with {@code java -cp <classes> net.visualillusionsent.vibot.io.irc.ParserBenchmark [lines]}, default 1000000. Allocations are
+ * counted with {@link ThreadMXBean#getThreadAllocatedBytes(long)}, so it needs a JVM that supports it (ie: HotSpot).
+ * 
+ * @since 1.0
+ * @version 1.0
+ * @author Jason (darkdiplomat)
+ */
+public final class ParserBenchmark {
+    private static final String[] CORPUS = {
+            ":alice!~al@gateway/web/host-12.example.net PRIVMSG #vibot :did anyone see the release notes?",
+            "@time=2013-02-01T12:00:00.000Z;account=bob :bob!b@b.host PRIVMSG #vibot :!help commands",
+            ":carol!carol@user-42.dynamic.example.org NOTICE VIBot :hello there",
+            ":dave!d@d.host JOIN #vibot",
+            ":erin!e@e.host PART #vibot :leaving",
+            ":alice!~al@gateway/web/host-12.example.net MODE #vibot +o bob",
+            ":frank!f@f.host QUIT :Quit: bye",
+            ":srv 353 VIBot = #vibot :@alice +bob carol dave erin frank",
+            ":srv 332 VIBot #vibot :Welcome to the channel",
+            "PING :srv",
+    };
+
+    /**
+     * The commands {@link IRCConnection} has handlers for
+     */
+    private static final CommandNames COMMANDS = new CommandNames(Arrays.asList("PRIVMSG", "NOTICE", "JOIN", "PART", "MODE", "QUIT", "NICK", "KICK",
+            "TOPIC", "INVITE", "CAP", "BATCH", "AWAY", "ACCOUNT", "CHGHOST"));
+
+    private static int sink;
+
+    public static void main(String[] args) {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        IrcMessage message = new IrcMessage();
+
+        // Warm up both, so the JIT has settled before anything is counted
+        for (int index = 0; index < lines; index++) {
+            sink += parseMessage(message, CORPUS[index % CORPUS.length]);
+            sink += parseTokenizer(CORPUS[index % CORPUS.length]);
+        }
+
+        long start = threads.getThreadAllocatedBytes(thread);
+        for (int index = 0; index < lines; index++) {
+            sink += parseTokenizer(CORPUS[index % CORPUS.length]);
+        }
+        long tokenizer = threads.getThreadAllocatedBytes(thread) - start;
+
+        start = threads.getThreadAllocatedBytes(thread);
+        for (int index = 0; index < lines; index++) {
+            sink += parseMessage(message, CORPUS[index % CORPUS.length]);
+        }
+        long view = threads.getThreadAllocatedBytes(thread) - start;
+
+        System.out.println(String.format("%,d lines of %d kinds", lines, CORPUS.length));
+        System.out.println(String.format("%-16s %,8.1f bytes per line", "StringTokenizer", tokenizer / (double) lines));
+        System.out.println(String.format("%-16s %,8.1f bytes per line", "IrcMessage", view / (double) lines));
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * What {@link IRCConnection#handleLine(String)} reads from a line now
+     */
+    private static final int parseMessage(IrcMessage message, String line) {
+        if (!message.parse(line)) {
+            return 0;
+        }
+        if (message.isCommand("PING")) {
+            return message.getRawParams().length();
+        }
+        if (message.isNumeric()) {
+            return message.getNumeric() + message.getParam(1).length() + message.getTrailing().length();
+        }
+        String nick = message.getNick();
+        String target = message.getParam(0);
+        if (message.hasHost() && message.isNick("VIBot")) {
+            return -1;
+        }
+        String command = message.getCommand(COMMANDS);
+        if (command == null) {
+            return 0;
+        }
+        int read = nick.length() + target.length() + command.length();
+        if (message.getParamCount() > 1) {
+            read += message.getTrailing().length();
+        }
+        return read;
+    }
+
+    /**
+     * What {@link IRCConnection#handleLine(String)} read from a line before {@link IrcMessage}
+     */
+    private static final int parseTokenizer(String line) {
+        if (line.startsWith("@")) {
+            // Tags were not understood, the old parser only saw lines without them
+            line = line.substring(line.indexOf(' ') + 1);
+        }
+        if (line.startsWith("PING ")) {
+            return "PONG ".concat(line.substring(5)).length();
+        }
+        String sourceNick = "";
+        String sourceLogin = "";
+        String sourceHostname = "";
+
+        StringTokenizer tokenizer = new StringTokenizer(line);
+        String senderInfo = tokenizer.nextToken();
+        String command = tokenizer.nextToken();
+        String target = null;
+
+        int exclamation = senderInfo.indexOf("!");
+        int at = senderInfo.indexOf("@");
+        if (senderInfo.startsWith(":")) {
+            if (exclamation > 0 && at > 0 && exclamation < at) {
+                sourceNick = senderInfo.substring(1, exclamation);
+                sourceLogin = senderInfo.substring(exclamation + 1, at);
+                sourceHostname = senderInfo.substring(at + 1);
+            }
+            else {
+                int code = -1;
+                try {
+                    code = Integer.parseInt(command);
+                }
+                catch (NumberFormatException e) {
+                    // Keep the existing value.
+                }
+                if (code != -1) {
+                    String response = line.substring(line.indexOf(command, senderInfo.length()) + 4, line.length());
+                    String[] parsed = response.split(" ");
+                    return code + parsed.length + response.substring(response.indexOf(':') + 1).length();
+                }
+                sourceNick = senderInfo;
+                target = command;
+            }
+        }
+
+        command = command.toUpperCase();
+        if (sourceNick.startsWith(":")) {
+            sourceNick = sourceNick.substring(1);
+        }
+        if (!sourceHostname.isEmpty() && sourceNick.equals("VIBot")) {
+            return -1;
+        }
+        if (target == null) {
+            target = tokenizer.nextToken();
+        }
+        if (target.startsWith(":")) {
+            target = target.substring(1);
+        }
+        int read = sourceNick.length() + sourceLogin.length() + target.length() + command.length();
+        int colon = line.indexOf(" :");
+        if (colon > 0) {
+            read += line.substring(colon + 2).length();
+        }
+        return read;
+    }
+}